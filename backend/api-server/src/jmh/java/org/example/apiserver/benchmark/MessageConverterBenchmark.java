@@ -0,0 +1,79 @@
+package org.example.apiserver.benchmark;
+
+import org.example.apiserver.config.MessageFormat;
+import org.example.apiserver.config.RabbitMQConfig;
+import org.example.apiserver.dto.TaskDispatchMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode throughput for each {@link MessageFormat} on a task
+ * message like the ones the outbox relay publishes. The message size is
+ * printed during setup. Run with
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args=MessageConverterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class MessageConverterBenchmark {
+    @Param({"JSON", "CBOR"})
+    private MessageFormat format;
+
+    @Param({"200", "4096"})
+    private int payloadBytes;
+
+    private MessageConverter converter;
+    private TaskDispatchMessage task;
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        RabbitMQConfig config = new RabbitMQConfig();
+        ReflectionTestUtils.setField(config, "messageFormat", format);
+        converter = config.messageConverter();
+        task = TaskDispatchMessage.builder()
+                .id(UUID.randomUUID())
+                .type("EMAIL_SENDING")
+                .priority(5)
+                .attempt(1)
+                .payload("{\"recipient\":\"user@example.com\",\"body\":\""
+                        + "x".repeat(Math.max(0, payloadBytes - 44)) + "\"}")
+                .build();
+        message = converter.toMessage(task, new MessageProperties());
+        message.getMessageProperties().setInferredArgumentType(TaskDispatchMessage.class);
+        if (!task.equals(converter.fromMessage(message))) {
+            throw new IllegalStateException(format + " does not round-trip");
+        }
+        System.out.printf("%n%s, %d byte payload: %d bytes per message%n",
+                format, payloadBytes, message.getBody().length);
+    }
+
+    @Benchmark
+    public Message encode() {
+        return converter.toMessage(task, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object decode() {
+        return converter.fromMessage(message);
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.apiserver.config;
+
+import org.example.taskblobs.BlobStore;
+import org.example.taskblobs.FileSystemBlobStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class BlobStoreConfig {
+
+    // Must be the directory the workers use (the task_blobs volume in docker-compose)
+    @Bean
+    public BlobStore blobStore(@Value("${app.tasks.blobs.dir:${java.io.tmpdir}/task-blobs}") Path root) {
+        return new FileSystemBlobStore(root);
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.apiserver.config;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJacksonMessageConverter;
+import org.springframework.util.MimeType;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.IOException;
+
+/**
+ * Jackson message converter writing and reading {@code application/cbor}.
+ * Same data model as the JSON converter, so the DTOs need no changes, but
+ * numbers, dates and field lengths are binary instead of text.
+ */
+public class CborMessageConverter extends AbstractJacksonMessageConverter {
+    public static final MimeType CONTENT_TYPE = new MimeType("application", "cbor");
+
+    public CborMessageConverter() {
+        super(CBORMapper.builder()
+                .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build(), CONTENT_TYPE);
+    }
+
+    // The body is binary, so ignore the content encoding header; with one the
+    // base class would decode the body into a String first
+    @Override
+    protected Object convertContent(Message message, Object conversionHint, MessageProperties properties,
+                                    String encoding) throws IOException {
+        return super.convertContent(message, conversionHint, properties, null);
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.apiserver.config;
+
+/**
+ * Encoding of the task messages this server publishes
+ * ({@code app.rabbitmq.message-format}). Received messages are decoded by
+ * their content type whatever this is set to.
+ */
+public enum MessageFormat {
+    /** {@code application/json}, readable by every worker version. */
+    JSON,
+    /**
+     * {@code application/cbor}, binary JSON (RFC 8949) with dates as numbers.
+     * Only for workers that can decode it.
+     */
+    CBOR
+}
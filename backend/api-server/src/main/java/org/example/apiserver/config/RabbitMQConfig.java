@@ -1,9 +1,12 @@
 package org.example.apiserver.config;
 
+import org.example.apiserver.model.PriorityBand;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJacksonMessageConverter;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
 import org.springframework.amqp.support.converter.DefaultJacksonJavaTypeMapper;
 import org.springframework.amqp.support.converter.JacksonJsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
@@ -11,10 +14,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class RabbitMQConfig {
-    @Value("${app.rabbitmq.queue.task}")
-    private String taskQueue;
+    private static final int MAX_PRIORITY = 10;
 
     @Value("${app.rabbitmq.queue.dlq}")
     private String deadLetterQueue;
@@ -22,18 +27,70 @@ public class RabbitMQConfig {
     @Value("${app.rabbitmq.exchange}")
     private String exchange;
 
-    @Value("${app.rabbitmq.routing-key}")
-    private String routingKey;
+    @Value("${app.rabbitmq.status.exchange:task.status.exchange}")
+    private String statusExchange;
+
+    @Value("${app.rabbitmq.status.queue:task.status.queue}")
+    private String statusQueue;
+
+    @Value("${app.rabbitmq.status.routing-key:task.status}")
+    private String statusRoutingKey;
+
+    @Value("${app.status-updates.batch-size:500}")
+    private int statusBatchSize;
+
+    @Value("${app.status-updates.receive-timeout-ms:50}")
+    private long statusReceiveTimeoutMs;
+
+    @Value("${app.status-updates.consumers:1}")
+    private int statusConsumers;
 
-    // Main task queue
+    @Value("${app.rabbitmq.message-format:json}")
+    private MessageFormat messageFormat;
+
+    // One queue per task type and priority band, so slow types cannot block
+    // fast ones. Within a queue the broker orders messages by priority
+    @Bean
+    public Declarables taskQueues(TaskRouting taskRouting) {
+        DirectExchange taskExchange = exchange();
+        List<Declarable> declarables = new ArrayList<>();
+        for (String type : taskRouting.getTaskTypes()) {
+            for (PriorityBand band : PriorityBand.values()) {
+                Queue queue = QueueBuilder.durable(taskRouting.queueName(type, band))
+                        .maxPriority(MAX_PRIORITY)
+                        .withArgument("x-dead-letter-exchange", "")
+                        .withArgument("x-dead-letter-routing-key", deadLetterQueue)
+                        .build();
+                declarables.add(queue);
+                declarables.add(BindingBuilder.bind(queue)
+                        .to(taskExchange)
+                        .with(taskRouting.routingKey(type, band)));
+            }
+        }
+        return new Declarables(declarables);
+    }
+
+    // The single task queue of earlier releases, with its original arguments.
+    // Still declared so workers can drain tasks published there before an
+    // upgrade; remove together with the workers' legacy listener
     @Bean
-    public Queue taskQueue() {
-        return QueueBuilder.durable(taskQueue)
+    public Queue legacyTaskQueue(TaskRouting taskRouting) {
+        return QueueBuilder.durable(taskRouting.legacyQueueName())
                 .withArgument("x-dead-letter-exchange", "")
                 .withArgument("x-dead-letter-routing-key", deadLetterQueue)
                 .build();
     }
 
+    // Status updates published by workers. The queue is durable so updates
+    // published while the API server is down are applied once it is back
+    @Bean
+    public Declarables statusQueue() {
+        DirectExchange exchange = new DirectExchange(statusExchange);
+        Queue queue = QueueBuilder.durable(statusQueue).build();
+        return new Declarables(exchange, queue,
+                BindingBuilder.bind(queue).to(exchange).with(statusRoutingKey));
+    }
+
     // Dead letter queue for failed messages
     @Bean
     public Queue deadLetterQueue() {
@@ -46,29 +103,30 @@ public class RabbitMQConfig {
         return new DirectExchange(exchange);
     }
 
-    // Binding
-    @Bean
-    public Binding binding(Queue taskQueue, DirectExchange exchange) {
-        return BindingBuilder.bind(taskQueue)
-                .to(exchange)
-                .with(routingKey);
-    }
-
-    // Message converter for JSON serialization
+    // Writes app.rabbitmq.message-format and reads JSON or CBOR by each
+    // message's content type, so consumers can be upgraded before publishers
+    // switch format. Both formats convert to the listener's parameter type
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        JacksonJsonMessageConverter converter = new JacksonJsonMessageConverter();
-        DefaultJacksonJavaTypeMapper mapper = new DefaultJacksonJavaTypeMapper();
-        mapper.setTrustedPackages("*");
-        converter.setJavaTypeMapper(mapper);
+    public MessageConverter messageConverter() {
+        AbstractJacksonMessageConverter json = new JacksonJsonMessageConverter();
+        AbstractJacksonMessageConverter cbor = new CborMessageConverter();
+        for (AbstractJacksonMessageConverter converter : List.of(json, cbor)) {
+            DefaultJacksonJavaTypeMapper mapper = new DefaultJacksonJavaTypeMapper();
+            mapper.setTrustedPackages("*");
+            converter.setJavaTypeMapper(mapper);
+        }
+        ContentTypeDelegatingMessageConverter converter =
+                new ContentTypeDelegatingMessageConverter(messageFormat == MessageFormat.CBOR ? cbor : json);
+        converter.addDelegate(MessageProperties.CONTENT_TYPE_JSON, json);
+        converter.addDelegate(CborMessageConverter.CONTENT_TYPE.toString(), cbor);
         return converter;
     }
 
-    // RabbitTemplate with JSON converter
+    // RabbitTemplate publishing in app.rabbitmq.message-format
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
-        template.setMessageConverter(jsonMessageConverter());
+        template.setMessageConverter(messageConverter());
         return template;
     }
 
@@ -79,10 +137,30 @@ public class RabbitMQConfig {
         SimpleRabbitListenerContainerFactory factory =
                 new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
-        factory.setMessageConverter(jsonMessageConverter());
+        factory.setMessageConverter(messageConverter());
         factory.setConcurrentConsumers(3);
         factory.setMaxConcurrentConsumers(10);
         factory.setPrefetchCount(1); // Fair dispatch
         return factory;
     }
+
+    // Delivers status updates in lists of up to app.status-updates.batch-size,
+    // or whatever has arrived once the queue has been idle for the receive
+    // timeout. The worker's type header is ignored in favour of the listener's
+    // parameter type
+    @Bean
+    public SimpleRabbitListenerContainerFactory statusUpdateListenerContainerFactory(
+            ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory =
+                new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter());
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(statusBatchSize);
+        factory.setReceiveTimeout(statusReceiveTimeoutMs);
+        factory.setPrefetchCount(statusBatchSize);
+        factory.setConcurrentConsumers(statusConsumers);
+        return factory;
+    }
 }
@@ -0,0 +1,60 @@
+package org.example.apiserver.config;
+
+import org.example.apiserver.model.PriorityBand;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Names the queue and routing key for every task type and priority band, so each
+ * type gets its own queues and workers can size consumers per type.
+ * Queues are named {@code <task queue>.<type>.<band>}, e.g.
+ * {@code task.queue.email_sending.high}.
+ */
+@Component
+public class TaskRouting {
+    private final String taskQueue;
+    private final String routingKey;
+    private final Set<String> taskTypes;
+
+    public TaskRouting(
+            @Value("${app.rabbitmq.queue.task}") String taskQueue,
+            @Value("${app.rabbitmq.routing-key}") String routingKey,
+            @Value("${app.tasks.types:IMAGE_PROCESSING,WEB_SCRAPING,DATA_ANALYSIS,EMAIL_SENDING,REPORT_GENERATION}")
+            String[] taskTypes) {
+        this.taskQueue = taskQueue;
+        this.routingKey = routingKey;
+        this.taskTypes = Arrays.stream(taskTypes)
+                .map(String::trim)
+                .filter(type -> !type.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    public Set<String> getTaskTypes() {
+        return taskTypes;
+    }
+
+    public boolean supports(String type) {
+        return type != null && taskTypes.contains(type);
+    }
+
+    /**
+     * The single queue every task went to before routing by type and band.
+     * Nothing is published to it any more.
+     */
+    public String legacyQueueName() {
+        return taskQueue;
+    }
+
+    public String queueName(String type, PriorityBand band) {
+        return taskQueue + "." + type.toLowerCase() + "." + band.suffix();
+    }
+
+    public String routingKey(String type, PriorityBand band) {
+        return routingKey + "." + type + "." + band.suffix();
+    }
+}
@@ -1,6 +1,8 @@
 package org.example.apiserver.config;
 
+import org.example.apiserver.filter.RateLimitFilter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.cors.CorsConfiguration;
@@ -55,4 +57,16 @@ public class WebConfig implements WebMvcConfigurer {
 
         return new CorsFilter(source);
     }
+
+    // Limits only the task API; statistics and worker endpoints stay open
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(
+            RateLimitFilter rateLimitFilter,
+            @Value("${app.rate-limit.enabled:true}") boolean enabled) {
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(rateLimitFilter);
+        registration.addUrlPatterns("/api/tasks", "/api/tasks/*");
+        registration.setEnabled(enabled);
+        return registration;
+    }
 }
@@ -0,0 +1,30 @@
+package org.example.apiserver.consumer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apiserver.dto.TaskStatusUpdate;
+import org.example.apiserver.service.TaskService;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskStatusConsumer {
+    private final TaskService taskService;
+
+    // The whole batch is acked after the transaction commits. If applying it
+    // fails, the messages are requeued and the batch is delivered again.
+    // applyStatusUpdates locks the tasks and skips updates that do not apply to
+    // their current status, so a redelivered update, failures included, is a
+    // no-op
+    @RabbitListener(
+            queues = "${app.rabbitmq.status.queue:task.status.queue}",
+            containerFactory = "statusUpdateListenerContainerFactory")
+    public void onStatusUpdates(List<TaskStatusUpdate> updates) {
+        int applied = taskService.applyStatusUpdates(updates);
+        log.debug("Applied {} of {} status updates from the status queue", applied, updates.size());
+    }
+}
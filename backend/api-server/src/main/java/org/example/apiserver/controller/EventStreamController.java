@@ -0,0 +1,20 @@
+package org.example.apiserver.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.apiserver.service.LiveUpdateService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class EventStreamController {
+    private final LiveUpdateService liveUpdateService;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        return liveUpdateService.subscribe();
+    }
+}
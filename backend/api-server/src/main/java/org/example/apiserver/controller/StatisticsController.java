@@ -2,9 +2,17 @@ package org.example.apiserver.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.example.apiserver.dto.TaskStatisticsDTO;
+import org.example.apiserver.dto.TaskTimeseriesDTO;
+import org.example.apiserver.dto.WorkerStatisticsDTO;
+import org.example.apiserver.service.ResourceVersionService;
 import org.example.apiserver.service.StatisticsService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/statistics")
@@ -12,17 +20,30 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = "*")
 public class StatisticsController {
     private final StatisticsService statisticsService;
+    private final ResourceVersionService resourceVersionService;
 
     @GetMapping
-    public ResponseEntity<TaskStatisticsDTO> getStatistics() {
+    public ResponseEntity<TaskStatisticsDTO> getStatistics(WebRequest request) {
+        String etag = resourceVersionService.statisticsETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         TaskStatisticsDTO stats = statisticsService.getTaskStatistics();
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok().eTag(etag).body(stats);
+    }
+
+    @GetMapping("/timeseries")
+    public ResponseEntity<List<TaskTimeseriesDTO>> getTimeseries(
+            @RequestParam(required = false) String type) {
+        return ResponseEntity.ok(statisticsService.getTimeseries(type));
     }
 
     @GetMapping("/worker/{workerId}")
-    public ResponseEntity<TaskStatisticsDTO> getWorkerStatistics(
-            @PathVariable String workerId) {
-        TaskStatisticsDTO stats = statisticsService.getWorkerStatistics(workerId);
+    public ResponseEntity<WorkerStatisticsDTO> getWorkerStatistics(
+            @PathVariable String workerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        WorkerStatisticsDTO stats = statisticsService.getWorkerStatistics(workerId, from, to);
         return ResponseEntity.ok(stats);
     }
 }
@@ -2,38 +2,89 @@ package org.example.apiserver.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apiserver.dto.BatchSubmissionResponse;
+import org.example.apiserver.dto.CursorSliceDTO;
 import org.example.apiserver.dto.TaskDTO;
+import org.example.apiserver.dto.TaskFields;
+import org.example.apiserver.dto.TaskStatusUpdate;
 import org.example.apiserver.dto.TaskSubmissionRequest;
 import org.example.apiserver.dto.TaskUpdateRequest;
+import org.example.apiserver.exception.RateLimitExceededException;
+import org.example.apiserver.filter.RateLimitFilter;
 import org.example.apiserver.model.Task;
+import org.example.apiserver.service.RateLimitDecision;
+import org.example.apiserver.service.RateLimiterService;
+import org.example.apiserver.service.ResourceVersionService;
 import org.example.apiserver.service.TaskService;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/tasks")
 @RequiredArgsConstructor
+@Slf4j
 @CrossOrigin(origins = "*")
 public class TaskController {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Set<String> SORTABLE_FIELDS =
+            Set.of("createdAt", "updatedAt", "startedAt", "completedAt", "priority", "status", "type");
+
     private final TaskService taskService;
+    private final RateLimiterService rateLimiterService;
+    private final ResourceVersionService resourceVersionService;
 
     @PostMapping
     public ResponseEntity<TaskDTO> submitTask(
-            @Valid @RequestBody TaskSubmissionRequest request) {
+            @Valid @RequestBody TaskSubmissionRequest request,
+            @RequestAttribute(name = RateLimitFilter.CLIENT_ID_ATTRIBUTE, required = false) String clientId) {
+        checkTypeQuota(clientId, request.getType(), 1);
         TaskDTO task = taskService.submitTask(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(task);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchSubmissionResponse> submitTasks(
+            @RequestBody List<TaskSubmissionRequest> requests,
+            @RequestAttribute(name = RateLimitFilter.CLIENT_ID_ATTRIBUTE, required = false) String clientId) {
+        if (requests != null) {
+            Map<String, Long> perType = requests.stream()
+                    .filter(Objects::nonNull)
+                    .map(TaskSubmissionRequest::getType)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.groupingBy(type -> type, Collectors.counting()));
+            perType.forEach((type, count) -> checkTypeQuota(clientId, type, count.intValue()));
+        }
+        BatchSubmissionResponse response = taskService.submitTasks(requests);
+        HttpStatus status = response.getAccepted() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(response);
+    }
+
     @GetMapping("/{taskId}")
-    public ResponseEntity<TaskDTO> getTask(@PathVariable UUID taskId) {
+    public ResponseEntity<TaskDTO> getTask(@PathVariable UUID taskId, WebRequest request) {
+        // A conditional request is decided on updatedAt alone, before the task is loaded
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(taskService.getTaskETag(taskId))) {
+            return null;
+        }
         TaskDTO task = taskService.getTask(taskId);
-        return ResponseEntity.ok(task);
+        return ResponseEntity.ok()
+                .eTag(ResourceVersionService.taskETag(task.getUpdatedAt()))
+                .body(task);
     }
 
     @GetMapping
@@ -41,27 +92,87 @@ public class TaskController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "DESC") String direction) {
+            @RequestParam(defaultValue = "DESC") String direction,
+            @RequestParam(defaultValue = "full") String fields,
+            WebRequest request) {
+
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("Cannot sort by " + sortBy);
+        }
+        Sort.Direction sortDirection = Sort.Direction.fromString(direction);
+        PageRequest pageRequest = PageRequest.of(page, pageSize(size), Sort.by(sortDirection, sortBy));
+
+        TaskFields taskFields = TaskFields.from(fields);
 
+        String etag = resourceVersionService.tasksETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        Page<TaskDTO> tasks = taskService.getAllTasks(pageRequest, taskFields);
+        return ResponseEntity.ok().eTag(etag).body(tasks);
+    }
+
+    // Chosen over the offset listing whenever a cursor parameter is sent;
+    // an empty cursor asks for the first page
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorSliceDTO<TaskDTO>> scrollTasks(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "DESC") String direction,
+            @RequestParam(defaultValue = "full") String fields,
+            WebRequest request) {
+        int pageSize = pageSize(size);
         Sort.Direction sortDirection = Sort.Direction.fromString(direction);
-        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
+        TaskFields taskFields = TaskFields.from(fields);
 
-        Page<TaskDTO> tasks = taskService.getAllTasks(pageRequest);
-        return ResponseEntity.ok(tasks);
+        String etag = resourceVersionService.tasksETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        CursorSliceDTO<TaskDTO> tasks = taskService.scrollTasks(null, cursor, pageSize, sortDirection, taskFields);
+        return ResponseEntity.ok().eTag(etag).body(tasks);
     }
 
     @GetMapping("/status/{status}")
     public ResponseEntity<Page<TaskDTO>> getTasksByStatus(
             @PathVariable String status,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "full") String fields,
+            WebRequest request) {
 
         Task.TaskStatus taskStatus = Task.TaskStatus.valueOf(status.toUpperCase());
-        PageRequest pageRequest = PageRequest.of(page, size,
+        PageRequest pageRequest = PageRequest.of(page, pageSize(size),
                 Sort.by(Sort.Direction.DESC, "createdAt"));
+        TaskFields taskFields = TaskFields.from(fields);
+
+        String etag = resourceVersionService.tasksETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        Page<TaskDTO> tasks = taskService.getTasksByStatus(taskStatus, pageRequest, taskFields);
+        return ResponseEntity.ok().eTag(etag).body(tasks);
+    }
 
-        Page<TaskDTO> tasks = taskService.getTasksByStatus(taskStatus, pageRequest);
-        return ResponseEntity.ok(tasks);
+    @GetMapping(value = "/status/{status}", params = "cursor")
+    public ResponseEntity<CursorSliceDTO<TaskDTO>> scrollTasksByStatus(
+            @PathVariable String status,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "DESC") String direction,
+            @RequestParam(defaultValue = "full") String fields,
+            WebRequest request) {
+        Task.TaskStatus taskStatus = Task.TaskStatus.valueOf(status.toUpperCase());
+        int pageSize = pageSize(size);
+        Sort.Direction sortDirection = Sort.Direction.fromString(direction);
+        TaskFields taskFields = TaskFields.from(fields);
+
+        String etag = resourceVersionService.tasksETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        CursorSliceDTO<TaskDTO> tasks = taskService.scrollTasks(taskStatus, cursor, pageSize, sortDirection, taskFields);
+        return ResponseEntity.ok().eTag(etag).body(tasks);
     }
 
     @DeleteMapping("/{taskId}")
@@ -83,7 +194,7 @@ public class TaskController {
     public ResponseEntity<Void> markTaskCompleted(
             @PathVariable UUID taskId,
             @RequestBody TaskUpdateRequest request) {
-        taskService.markTaskCompleted(taskId, request.getResult());
+        taskService.markTaskCompleted(taskId, request.getResult(), request.getResultRef());
         return ResponseEntity.ok().build();
     }
 
@@ -98,4 +209,36 @@ public class TaskController {
         );
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping("/status-batch")
+    public ResponseEntity<Void> applyStatusUpdates(
+            @RequestBody List<TaskStatusUpdate> updates) {
+        taskService.applyStatusUpdates(updates);
+        return ResponseEntity.ok().build();
+    }
+
+    private int pageSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    // Per-type quotas apply only when the rate limit filter identified the client
+    private void checkTypeQuota(String clientId, String type, int permits) {
+        if (clientId == null || type == null) {
+            return;
+        }
+        RateLimitDecision decision;
+        try {
+            decision = rateLimiterService.checkTaskType(clientId, type, permits);
+        } catch (DataAccessException e) {
+            log.warn("Task type rate limit check failed, allowing request: {}", e.getMessage());
+            return;
+        }
+        if (!decision.isAllowed()) {
+            throw new RateLimitExceededException(
+                    "Rate limit exceeded for task type " + type, decision.getRetryAfterMs());
+        }
+    }
 }
@@ -2,9 +2,11 @@ package org.example.apiserver.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.example.apiserver.dto.WorkerHealthDTO;
+import org.example.apiserver.service.ResourceVersionService;
 import org.example.apiserver.service.WorkerHealthService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -14,6 +16,7 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class WorkerController {
     private final WorkerHealthService workerHealthService;
+    private final ResourceVersionService resourceVersionService;
 
     @PostMapping("/heartbeat")
     public ResponseEntity<Void> heartbeat(@RequestBody WorkerHealthDTO healthDTO) {
@@ -22,9 +25,13 @@ public class WorkerController {
     }
 
     @GetMapping
-    public ResponseEntity<List<WorkerHealthDTO>> getAllWorkers() {
+    public ResponseEntity<List<WorkerHealthDTO>> getAllWorkers(WebRequest request) {
+        String etag = resourceVersionService.workersETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<WorkerHealthDTO> workers = workerHealthService.getAllWorkers();
-        return ResponseEntity.ok(workers);
+        return ResponseEntity.ok().eTag(etag).body(workers);
     }
 
     @GetMapping("/{workerId}")
@@ -0,0 +1,19 @@
+package org.example.apiserver.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+    private Integer index; // position in the submitted list
+    private UUID taskId;
+    private String status; // PENDING or REJECTED
+    private String message;
+}
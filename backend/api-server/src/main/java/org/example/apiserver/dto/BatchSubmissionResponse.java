@@ -0,0 +1,19 @@
+package org.example.apiserver.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSubmissionResponse {
+    private Integer submitted;
+    private Integer accepted;
+    private Integer rejected;
+    private List<BatchItemResult> items;
+}
@@ -0,0 +1,23 @@
+package org.example.apiserver.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. There is no total count; pass
+ * {@code nextCursor} back as {@code cursor} to get the following page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorSliceDTO<T> {
+    private List<T> content;
+    private Integer size;
+    private Boolean hasNext;
+    private String nextCursor; // null on the last page
+}
@@ -0,0 +1,19 @@
+package org.example.apiserver.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatencySummaryDTO {
+    private Long count;
+    private Double meanMs;
+    private Long p50Ms;
+    private Long p95Ms;
+    private Long p99Ms;
+    private Long maxMs;
+}
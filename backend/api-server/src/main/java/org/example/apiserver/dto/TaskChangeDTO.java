@@ -0,0 +1,22 @@
+package org.example.apiserver.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Latest known state of a task, pushed to live update subscribers.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChangeDTO {
+    private UUID id;
+    private String type;
+    private String status; // null when the task was deleted
+    private String workerId;
+}
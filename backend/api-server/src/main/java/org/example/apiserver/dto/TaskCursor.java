@@ -0,0 +1,41 @@
+package org.example.apiserver.dto;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a task listing ordered by {@code (createdAt, id)}. Clients only
+ * see the encoded form and must treat it as opaque.
+ */
+@Value
+public class TaskCursor {
+    LocalDateTime createdAt;
+    UUID id;
+
+    public String encode() {
+        String raw = createdAt + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return null for a blank cursor, which asks for the first page
+     */
+    public static TaskCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(',');
+            return new TaskCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -8,7 +8,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class TaskDTO {
@@ -17,6 +17,8 @@ public class TaskDTO {
     private String status;
     private String payload;
     private String result;
+    private String payloadRef; // blob store reference when payload is null
+    private String resultRef;  // blob store reference when result is null
     private Integer retryCount;
     private Integer maxRetries;
     private LocalDateTime createdAt;
@@ -0,0 +1,25 @@
+package org.example.apiserver.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Body of a task message on the task queues: what a worker needs to run the
+ * task and nothing else. The full record stays in the database.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskDispatchMessage {
+    private UUID id;
+    private String type;
+    private Integer priority;
+    private Integer attempt; // 1 for the first run, retry count + 1 after that
+    private String payload;
+    private String payloadRef; // blob store reference when payload is null
+}
@@ -0,0 +1,20 @@
+package org.example.apiserver.dto;
+
+/**
+ * Which task fields a listing returns, selected with {@code fields=}.
+ */
+public enum TaskFields {
+    /** Everything except payload and result, with the error message cut short. */
+    SUMMARY,
+    /** Every field, as returned by {@code GET /api/tasks/{id}}. */
+    FULL;
+
+    public static TaskFields from(String value) {
+        for (TaskFields fields : values()) {
+            if (fields.name().equalsIgnoreCase(value)) {
+                return fields;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported fields: " + value);
+    }
+}
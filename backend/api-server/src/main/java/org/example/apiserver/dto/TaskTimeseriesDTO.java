@@ -0,0 +1,18 @@
+package org.example.apiserver.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTimeseriesDTO {
+    private String type;
+    private String window;
+    private Double throughputPerSecond; // tasks finished per second
+    private LatencySummaryDTO queueWait;  // createdAt -> startedAt
+    private LatencySummaryDTO execution;  // startedAt -> completedAt
+}
@@ -10,6 +10,7 @@ import lombok.NoArgsConstructor;
 public class TaskUpdateRequest {
     private String status;
     private String result;
+    private String resultRef;
     private String errorMessage;
     private String workerId;
     private Boolean shouldRetry;
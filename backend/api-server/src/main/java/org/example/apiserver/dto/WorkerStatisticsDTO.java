@@ -0,0 +1,26 @@
+package org.example.apiserver.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerStatisticsDTO {
+    private String workerId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Long totalTasks; // completed + failed
+    private Long completedTasks;
+    private Long failedTasks;
+    private Double failureRate;
+    private Double meanDurationMs;
+    private Double p95DurationMs;
+    private LocalDateTime firstCompletedAt;
+    private LocalDateTime lastCompletedAt;
+}
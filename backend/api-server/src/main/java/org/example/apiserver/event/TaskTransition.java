@@ -0,0 +1,39 @@
+package org.example.apiserver.event;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.example.apiserver.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One task status change, with the task fields listeners need so they do not
+ * have to load the task again.
+ */
+@Getter
+@Builder
+@ToString
+public class TaskTransition {
+    private final UUID taskId;
+    private final String type;
+    private final Task.TaskStatus from; // null when the task was created
+    private final Task.TaskStatus to;   // null when the task was deleted
+    private final String workerId;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime startedAt;
+    private final LocalDateTime completedAt;
+
+    public static TaskTransitionBuilder of(Task task, Task.TaskStatus from, Task.TaskStatus to) {
+        return TaskTransition.builder()
+                .taskId(task.getId())
+                .type(task.getType())
+                .from(from)
+                .to(to)
+                .workerId(task.getWorkerId())
+                .createdAt(task.getCreatedAt())
+                .startedAt(task.getStartedAt())
+                .completedAt(task.getCompletedAt());
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.apiserver.event;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published by {@code TaskService} and {@code OutboxRelayService} inside the
+ * transaction that changed the tasks. Bulk operations publish one event for
+ * the whole batch. Listeners that must stay consistent with the tasks table
+ * use {@code @EventListener}; the rest should wait for the commit with
+ * {@code @TransactionalEventListener}.
+ */
+@Getter
+public class TaskTransitionEvent {
+    private final List<TaskTransition> transitions;
+
+    public TaskTransitionEvent(List<TaskTransition> transitions) {
+        this.transitions = List.copyOf(transitions);
+    }
+}
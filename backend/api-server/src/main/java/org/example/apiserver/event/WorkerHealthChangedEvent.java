@@ -0,0 +1,27 @@
+package org.example.apiserver.event;
+
+import lombok.Getter;
+import org.example.apiserver.dto.WorkerHealthDTO;
+
+import java.util.List;
+
+/**
+ * Published by {@code WorkerHealthService} whenever the state it serves for a
+ * worker changes, carrying the worker's new state. {@code shared} is set when
+ * the change was taken from Redis or the database, i.e. it was received or
+ * committed by another API server, which has already announced it.
+ */
+@Getter
+public class WorkerHealthChangedEvent {
+    private final List<WorkerHealthDTO> workers;
+    private final boolean shared;
+
+    public WorkerHealthChangedEvent(List<WorkerHealthDTO> workers) {
+        this(workers, false);
+    }
+
+    public WorkerHealthChangedEvent(List<WorkerHealthDTO> workers, boolean shared) {
+        this.workers = List.copyOf(workers);
+        this.shared = shared;
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.apiserver.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apiserver.service.RateLimitDecision;
+import org.example.apiserver.service.RateLimiterService;
+import org.example.apiserver.util.JsonUtil;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Applies the per-client rate limit to the task API. Clients are identified by
+ * the {@code X-Client-Id} header, falling back to the remote address. Worker
+ * status callbacks are not limited.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+    // Lets controllers apply per-type quotas to the same client
+    public static final String CLIENT_ID_ATTRIBUTE = "org.example.apiserver.filter.RateLimitFilter.clientId";
+    // POST /api/tasks/{taskId}/processing|completed|failed and /api/tasks/status-batch
+    private static final Pattern WORKER_CALLBACK = Pattern.compile(
+            "/api/tasks/(status-batch|[0-9a-fA-F]{8}(-[0-9a-fA-F]{4}){3}-[0-9a-fA-F]{12}/(processing|completed|failed))");
+
+    private final RateLimiterService rateLimiterService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return "OPTIONS".equals(request.getMethod())
+                || ("POST".equals(request.getMethod()) && WORKER_CALLBACK.matcher(path).matches());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String clientId = identifier(request);
+        request.setAttribute(CLIENT_ID_ATTRIBUTE, clientId);
+        RateLimitDecision decision;
+        try {
+            decision = rateLimiterService.check(clientId);
+        } catch (Exception e) {
+            // Redis being unavailable should not take the task API down with it
+            log.warn("Rate limit check failed, allowing request: {}", e.getMessage());
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.getRemaining()));
+        if (decision.isAllowed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Same body as GlobalExceptionHandler's RateLimitExceededException handler,
+        // which filters cannot reach
+        long retryAfterSeconds = Math.max(1, (decision.getRetryAfterMs() + 999) / 1000);
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("timestamp", LocalDateTime.now().toString());
+        error.put("message", "Rate limit exceeded");
+        error.put("retryAfter", decision.getRetryAfterMs());
+        error.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(JsonUtil.toJson(error));
+    }
+
+    private String identifier(HttpServletRequest request) {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        return clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr();
+    }
+}
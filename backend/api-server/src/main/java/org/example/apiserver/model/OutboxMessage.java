@@ -0,0 +1,53 @@
+package org.example.apiserver.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A task message waiting to be published. Rows are written in the same
+ * transaction as the task change and removed by {@code OutboxRelayService}
+ * once the broker has confirmed them. Retries are written with a future
+ * {@code availableAt}, which makes the table double as the retry timer: the
+ * relay only picks up rows that are due.
+ */
+@Entity
+@Table(name = "task_outbox", indexes = {
+        @Index(name = "idx_task_outbox_available_at", columnList = "available_at, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private UUID taskId;
+
+    @Column(name = "routing_key", nullable = false)
+    private String routingKey;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt; // not published before this time
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (availableAt == null) {
+            availableAt = createdAt;
+        }
+    }
+}
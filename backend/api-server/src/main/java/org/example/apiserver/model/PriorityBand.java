@@ -0,0 +1,33 @@
+package org.example.apiserver.model;
+
+/**
+ * Groups {@link Task#getPriority()} values into the bands that get their own
+ * queue. Workers drain the bands with weighted consumer counts, so high priority
+ * tasks overtake a backlog while low priority tasks still make progress.
+ */
+public enum PriorityBand {
+    HIGH(8),
+    NORMAL(4),
+    LOW(1);
+
+    private final int minPriority;
+
+    PriorityBand(int minPriority) {
+        this.minPriority = minPriority;
+    }
+
+    public static PriorityBand of(Integer priority) {
+        int value = priority != null ? priority : 5;
+        for (PriorityBand band : values()) {
+            if (value >= band.minPriority) {
+                return band;
+            }
+        }
+        return LOW;
+    }
+
+    // Suffix used for both the band queue name and its routing key
+    public String suffix() {
+        return name().toLowerCase();
+    }
+}
@@ -9,6 +9,8 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+// Partitioned by month of createdAt, with its indexes defined in the migrations
+// under db/migration
 @Entity
 @Table(name = "tasks")
 @Data
@@ -33,6 +35,13 @@ public class Task {
     @Column(columnDefinition = "TEXT")
     private String result; // JSON string with task results
 
+    // Set instead of payload or result when the value is in the blob store
+    @Column(name = "payload_ref")
+    private String payloadRef;
+
+    @Column(name = "result_ref")
+    private String resultRef;
+
     @Column(name = "retry_count")
     @Builder.Default
     private Integer retryCount = 0;
@@ -41,7 +50,8 @@ public class Task {
     @Builder.Default
     private Integer maxRetries = 3;
 
-    @Column(name = "created_at")
+    // Partition key; a task never moves between partitions
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
@@ -0,0 +1,32 @@
+package org.example.apiserver.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A change to the number of tasks in one status. Rows are only ever inserted,
+ * in the same transaction as the transition, so concurrent transitions never
+ * contend on a shared counter row. The count for a status is the sum of its
+ * deltas; {@code TaskStatusCounterService} folds them into one row per status
+ * periodically.
+ */
+@Entity
+@Table(name = "task_status_counter")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatusCounter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    @Column(nullable = false)
+    private Long delta;
+}
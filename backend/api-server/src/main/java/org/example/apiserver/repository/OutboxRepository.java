@@ -0,0 +1,28 @@
+package org.example.apiserver.repository;
+
+import org.example.apiserver.model.OutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxMessage, Long> {
+
+    // Only rows that are due; the (available_at, id) index turns this into a
+    // short range scan however many retries are scheduled for later. SKIP
+    // LOCKED lets several API server instances relay concurrently
+    @Query(value = "SELECT * FROM task_outbox WHERE available_at <= :now " +
+            "ORDER BY available_at, id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxMessage> lockNextBatch(LocalDateTime now, int limit);
+
+    long countByAvailableAtLessThanEqual(LocalDateTime now);
+
+    long countByAvailableAtAfter(LocalDateTime now);
+
+    @Query("SELECT MIN(o.availableAt) FROM OutboxMessage o WHERE o.availableAt <= :now")
+    LocalDateTime findOldestDueAt(LocalDateTime now);
+}
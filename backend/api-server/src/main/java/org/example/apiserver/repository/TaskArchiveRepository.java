@@ -0,0 +1,100 @@
+package org.example.apiserver.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.apiserver.model.Task;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Access to {@code tasks_archive}, which holds finished tasks moved out of
+ * {@code tasks} by the retention job. See the {@code V3__tasks_archive} migration.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskArchiveRepository {
+    private static final String COLUMNS = "id, type, status, payload, result, retry_count, max_retries, " +
+            "created_at, updated_at, started_at, completed_at, worker_id, error_message, priority, " +
+            "payload_ref, result_ref";
+
+    private static final RowMapper<Task> TASK_MAPPER = (rs, row) -> Task.builder()
+            .id(rs.getObject("id", UUID.class))
+            .type(rs.getString("type"))
+            .status(Task.TaskStatus.valueOf(rs.getString("status")))
+            .payload(rs.getString("payload"))
+            .result(rs.getString("result"))
+            .retryCount(rs.getObject("retry_count", Integer.class))
+            .maxRetries(rs.getObject("max_retries", Integer.class))
+            .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+            .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+            .startedAt(toLocalDateTime(rs.getTimestamp("started_at")))
+            .completedAt(toLocalDateTime(rs.getTimestamp("completed_at")))
+            .workerId(rs.getString("worker_id"))
+            .errorMessage(rs.getString("error_message"))
+            .priority(rs.getObject("priority", Integer.class))
+            .payloadRef(rs.getString("payload_ref"))
+            .resultRef(rs.getString("result_ref"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Moves up to {@code limit} COMPLETED or FAILED tasks created before
+     * {@code createdBefore}, oldest first, in a single statement. Rows locked
+     * by other transactions are skipped rather than waited for.
+     *
+     * @return the moved tasks without their TEXT columns
+     */
+    public List<Task> archiveFinished(LocalDateTime createdBefore, int limit) {
+        String sql = """
+                WITH batch AS (
+                    SELECT id, created_at FROM tasks
+                    WHERE status IN ('COMPLETED', 'FAILED') AND created_at < ?
+                    ORDER BY created_at
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                ), moved AS (
+                    DELETE FROM tasks t USING batch b
+                    WHERE t.id = b.id AND t.created_at = b.created_at
+                    RETURNING t.*
+                )
+                INSERT INTO tasks_archive (%1$s)
+                SELECT %1$s FROM moved
+                RETURNING id, type, status, worker_id, created_at, started_at, completed_at
+                """.formatted(COLUMNS);
+        return jdbcTemplate.query(sql, (rs, row) -> Task.builder()
+                .id(rs.getObject("id", UUID.class))
+                .type(rs.getString("type"))
+                .status(Task.TaskStatus.valueOf(rs.getString("status")))
+                .workerId(rs.getString("worker_id"))
+                .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                .startedAt(toLocalDateTime(rs.getTimestamp("started_at")))
+                .completedAt(toLocalDateTime(rs.getTimestamp("completed_at")))
+                .build(), Timestamp.valueOf(createdBefore), limit);
+    }
+
+    public Optional<Task> findById(UUID id) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM tasks_archive WHERE id = ?", TASK_MAPPER, id)
+                .stream()
+                .findFirst();
+    }
+
+    public Optional<LocalDateTime> findUpdatedAtById(UUID id) {
+        return jdbcTemplate.queryForList("SELECT updated_at FROM tasks_archive WHERE id = ?", Timestamp.class, id)
+                .stream()
+                .filter(Objects::nonNull)
+                .findFirst()
+                .map(Timestamp::toLocalDateTime);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,202 @@
+package org.example.apiserver.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.apiserver.dto.TaskStatusUpdate;
+import org.example.apiserver.model.Task;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Plain JDBC access for bulk task writes. JPA writes every entity with its own
+ * statement, so batch submissions and batched status updates go through
+ * multi-row INSERTs and batched UPDATEs instead.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskBatchRepository {
+    private static final String INSERT_PREFIX = "INSERT INTO tasks (id, type, status, payload, payload_ref, " +
+            "priority, retry_count, max_retries, created_at, updated_at) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String OUTBOX_INSERT_PREFIX =
+            "INSERT INTO task_outbox (task_id, routing_key, created_at, available_at) VALUES ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.tasks.batch.insert-chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Inserts all tasks using one multi-row INSERT per chunk. Ids and timestamps
+     * must already be set since the JPA lifecycle callbacks do not run here.
+     */
+    public void insertAll(List<Task> tasks) {
+        for (int from = 0; from < tasks.size(); from += chunkSize) {
+            List<Task> chunk = tasks.subList(from, Math.min(from + chunkSize, tasks.size()));
+            jdbcTemplate.update(buildInsert(chunk.size()), toParameters(chunk));
+        }
+    }
+
+    /**
+     * Writes one outbox row per task with the same multi-row INSERT approach.
+     */
+    public void insertOutbox(List<Task> tasks, Function<Task, String> routingKeys) {
+        for (int from = 0; from < tasks.size(); from += chunkSize) {
+            List<Task> chunk = tasks.subList(from, Math.min(from + chunkSize, tasks.size()));
+            StringBuilder sql = new StringBuilder(OUTBOX_INSERT_PREFIX);
+            List<Object> params = new ArrayList<>(chunk.size() * 4);
+            for (int i = 0; i < chunk.size(); i++) {
+                Task task = chunk.get(i);
+                Timestamp createdAt = Timestamp.valueOf(task.getCreatedAt());
+                sql.append(i > 0 ? ", (?, ?, ?, ?)" : "(?, ?, ?, ?)");
+                params.add(task.getId());
+                params.add(routingKeys.apply(task));
+                params.add(createdAt);
+                params.add(createdAt);
+            }
+            jdbcTemplate.update(sql.toString(), params.toArray());
+        }
+    }
+
+    /**
+     * Moves tasks to PROCESSING with one batched UPDATE. Tasks that already
+     * reached a later state are left alone.
+     */
+    public int markProcessing(List<TaskStatusUpdate> updates) {
+        return sum(jdbcTemplate.batchUpdate(
+                "UPDATE tasks SET status = 'PROCESSING', worker_id = ?, started_at = ?, updated_at = now() " +
+                        "WHERE id = ? AND status IN ('PENDING', 'QUEUED', 'RETRYING')",
+                updates, updates.size(), (ps, update) -> {
+                    ps.setString(1, update.getWorkerId());
+                    ps.setTimestamp(2, Timestamp.valueOf(update.getTimestamp()));
+                    ps.setObject(3, update.getTaskId());
+                }));
+    }
+
+    /**
+     * Moves tasks to COMPLETED with one batched UPDATE, recording the worker
+     * that finished them when known. Redelivered completions for tasks that
+     * already finished are ignored.
+     */
+    public int markCompleted(List<TaskStatusUpdate> updates) {
+        return sum(jdbcTemplate.batchUpdate(
+                "UPDATE tasks SET status = 'COMPLETED', result = ?, result_ref = ?, completed_at = ?, " +
+                        "worker_id = COALESCE(?, worker_id), updated_at = now() " +
+                        "WHERE id = ? AND status NOT IN ('COMPLETED', 'FAILED')",
+                updates, updates.size(), (ps, update) -> {
+                    ps.setString(1, update.getResult());
+                    ps.setString(2, update.getResultRef());
+                    ps.setTimestamp(3, Timestamp.valueOf(update.getTimestamp()));
+                    ps.setString(4, update.getWorkerId());
+                    ps.setObject(5, update.getTaskId());
+                }));
+    }
+
+    /**
+     * Locks the given tasks and reads the columns needed to describe their
+     * transitions, so bulk updates can tell exactly which rows they will change.
+     * Rows are locked in id order to avoid deadlocks between concurrent batches.
+     */
+    public Map<UUID, Task> lockStates(Collection<UUID> ids) {
+        Map<UUID, Task> states = new HashMap<>();
+        if (ids.isEmpty()) {
+            return states;
+        }
+        String sql = "SELECT id, type, status, worker_id, result_ref, created_at, started_at, completed_at " +
+                "FROM tasks " +
+                "WHERE id IN (" + placeholders(ids.size()) + ") ORDER BY id FOR UPDATE";
+        jdbcTemplate.query(sql, rs -> {
+            Task task = Task.builder()
+                    .id(rs.getObject("id", UUID.class))
+                    .type(rs.getString("type"))
+                    .status(Task.TaskStatus.valueOf(rs.getString("status")))
+                    .workerId(rs.getString("worker_id"))
+                    .resultRef(rs.getString("result_ref"))
+                    .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                    .startedAt(toLocalDateTime(rs.getTimestamp("started_at")))
+                    .completedAt(toLocalDateTime(rs.getTimestamp("completed_at")))
+                    .build();
+            states.put(task.getId(), task);
+        }, ids.toArray());
+        return states;
+    }
+
+    /**
+     * Moves the tasks still in {@code from} to {@code to} and returns the ids
+     * that actually changed.
+     */
+    public List<UUID> updateStatusReturningIds(Collection<UUID> ids, Task.TaskStatus from,
+                                               Task.TaskStatus to, LocalDateTime now) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String sql = "UPDATE tasks SET status = ?, updated_at = ? WHERE status = ? AND id IN (" +
+                placeholders(ids.size()) + ") RETURNING id";
+        List<Object> params = new ArrayList<>(ids.size() + 3);
+        params.add(to.name());
+        params.add(Timestamp.valueOf(now));
+        params.add(from.name());
+        params.addAll(ids);
+        return jdbcTemplate.queryForList(sql, UUID.class, params.toArray());
+    }
+
+    private String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private int sum(int[][] counts) {
+        int total = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Drivers may report SUCCESS_NO_INFO (-2) for batched statements
+                total += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+            }
+        }
+        return total;
+    }
+
+    private String buildInsert(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
+    }
+
+    private Object[] toParameters(List<Task> tasks) {
+        List<Object> params = new ArrayList<>(tasks.size() * 10);
+        for (Task task : tasks) {
+            params.add(task.getId());
+            params.add(task.getType());
+            params.add(task.getStatus().name());
+            params.add(task.getPayload());
+            params.add(task.getPayloadRef());
+            params.add(task.getPriority());
+            params.add(task.getRetryCount());
+            params.add(task.getMaxRetries());
+            params.add(Timestamp.valueOf(task.getCreatedAt()));
+            params.add(Timestamp.valueOf(task.getUpdatedAt()));
+        }
+        return params.toArray();
+    }
+}
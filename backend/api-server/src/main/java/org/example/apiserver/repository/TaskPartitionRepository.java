@@ -0,0 +1,98 @@
+package org.example.apiserver.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Maintenance of the monthly {@code tasks} partitions created by the
+ * {@code V2__partition_tasks_by_created_at} migration and dropped here once
+ * archiving has emptied them.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class TaskPartitionRepository {
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates the missing monthly partitions covering {@code [from, to)}.
+     *
+     * @return number of partitions created
+     */
+    public int createPartitions(LocalDateTime from, LocalDateTime to) {
+        Integer created = jdbcTemplate.queryForObject("SELECT create_task_partitions(?, ?)", Integer.class,
+                Timestamp.valueOf(from), Timestamp.valueOf(to));
+        return created == null ? 0 : created;
+    }
+
+    /**
+     * Drops the partitions for months before {@code before}'s month that no
+     * longer hold any task. Each one is detached with {@code DETACH PARTITION
+     * ... CONCURRENTLY}, which takes no lock on {@code tasks} that queries or
+     * inserts wait for, and the detached table is dropped on its own.
+     * CONCURRENTLY cannot run in a transaction, so neither can this. A detach
+     * that was interrupted blocks any other until it is finished, which the
+     * next call does first before retrying the partitions that failed.
+     *
+     * @return number of partitions dropped
+     */
+    public int dropEmptyPartitions(LocalDateTime before) {
+        List<OldPartition> partitions = jdbcTemplate.query("""
+                SELECT quote_ident(c.relname) AS name, i.inhdetachpending AS detach_pending
+                FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'tasks'::regclass
+                  AND c.relkind = 'r'
+                  AND c.relname < ?
+                ORDER BY i.inhdetachpending DESC, c.relname
+                """, (rs, rowNum) -> new OldPartition(rs.getString("name"), rs.getBoolean("detach_pending")),
+                "tasks_p" + before.format(PARTITION_MONTH));
+        int dropped = 0;
+        for (OldPartition partition : partitions) {
+            try {
+                if (partition.detachPending()) {
+                    jdbcTemplate.execute("ALTER TABLE tasks DETACH PARTITION " + partition.name() + " FINALIZE");
+                } else if (isEmpty(partition.name())) {
+                    jdbcTemplate.execute("ALTER TABLE tasks DETACH PARTITION " + partition.name() + " CONCURRENTLY");
+                } else {
+                    continue;
+                }
+                jdbcTemplate.execute("DROP TABLE " + partition.name());
+                dropped++;
+            } catch (DataAccessException e) {
+                log.warn("Could not drop partition {}, will retry on the next run: {}", partition.name(),
+                        e.getMessage());
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Creation time of the oldest unfinished task, read from the partial
+     * {@code idx_tasks_active_created_at} of each partition.
+     */
+    public Optional<LocalDateTime> findOldestActiveCreatedAt() {
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT min(created_at) FROM tasks WHERE status IN ('PENDING', 'QUEUED', 'PROCESSING', 'RETRYING')",
+                Timestamp.class);
+        return Optional.ofNullable(oldest).map(Timestamp::toLocalDateTime);
+    }
+
+    private boolean isEmpty(String partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT NOT EXISTS (SELECT 1 FROM " + partition + ")", Boolean.class));
+    }
+
+    private record OldPartition(String name, boolean detachPending) {
+    }
+}
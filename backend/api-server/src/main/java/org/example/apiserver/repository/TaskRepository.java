@@ -1,26 +1,95 @@
 package org.example.apiserver.repository;
 
+import jakarta.persistence.LockModeType;
 import org.example.apiserver.model.Task;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, UUID> {
 
-    Page<Task> findByStatus(Task.TaskStatus status, Pageable pageable);
+    @Query("SELECT t.updatedAt FROM Task t WHERE t.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(UUID id);
 
-    List<Task> findByStatusAndCreatedAtBefore(
-            Task.TaskStatus status, LocalDateTime dateTime);
+    // SELECT ... FOR UPDATE, so concurrent or redelivered status callbacks for
+    // the same task see each other's result
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.id = :id")
+    Optional<Task> findByIdForUpdate(UUID id);
 
-    @Query("SELECT t FROM Task t WHERE t.workerId = :workerId AND t.status = :status")
-    List<Task> findByWorkerIdAndStatus(String workerId, Task.TaskStatus status);
+    // Projections select only the projected columns, also for @Query methods.
+    // Queries by status take a createdAt lower bound so that Postgres can skip
+    // older partitions; see TaskPartitionService#createdAtLowerBound.
+
+    <T> Page<T> findByStatusAndCreatedAtGreaterThanEqual(Task.TaskStatus status, LocalDateTime since,
+                                                        Pageable pageable, Class<T> type);
+
+    <T> Page<T> findBy(Pageable pageable, Class<T> type);
+
+    // Keyset pagination over (createdAt, id); see idx_tasks_created_at_id and
+    // idx_tasks_status_created_at_id. Pass an unsorted Pageable for the limit,
+    // and Task or a projection such as TaskSummary as the type.
+
+    <T> Slice<T> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable, Class<T> type);
+
+    <T> Slice<T> findAllByOrderByCreatedAtAscIdAsc(Pageable pageable, Class<T> type);
+
+    @Query("SELECT t FROM Task t WHERE (t.createdAt, t.id) < (:createdAt, :id) ORDER BY t.createdAt DESC, t.id DESC")
+    <T> Slice<T> findBefore(LocalDateTime createdAt, UUID id, Pageable pageable, Class<T> type);
+
+    @Query("SELECT t FROM Task t WHERE (t.createdAt, t.id) > (:createdAt, :id) ORDER BY t.createdAt ASC, t.id ASC")
+    <T> Slice<T> findAfter(LocalDateTime createdAt, UUID id, Pageable pageable, Class<T> type);
+
+    <T> Slice<T> findByStatusAndCreatedAtGreaterThanEqualOrderByCreatedAtDescIdDesc(
+            Task.TaskStatus status, LocalDateTime since, Pageable pageable, Class<T> type);
+
+    <T> Slice<T> findByStatusAndCreatedAtGreaterThanEqualOrderByCreatedAtAscIdAsc(
+            Task.TaskStatus status, LocalDateTime since, Pageable pageable, Class<T> type);
+
+    @Query("SELECT t FROM Task t WHERE t.status = :status AND t.createdAt >= :since "
+            + "AND (t.createdAt, t.id) < (:createdAt, :id) ORDER BY t.createdAt DESC, t.id DESC")
+    <T> Slice<T> findByStatusBefore(Task.TaskStatus status, LocalDateTime since, LocalDateTime createdAt, UUID id,
+                                    Pageable pageable, Class<T> type);
+
+    @Query("SELECT t FROM Task t WHERE t.status = :status AND t.createdAt >= :since "
+            + "AND (t.createdAt, t.id) > (:createdAt, :id) ORDER BY t.createdAt ASC, t.id ASC")
+    <T> Slice<T> findByStatusAfter(Task.TaskStatus status, LocalDateTime since, LocalDateTime createdAt, UUID id,
+                                   Pageable pageable, Class<T> type);
+
+    List<Task> findByStatusAndCreatedAtGreaterThanEqualAndCreatedAtBefore(
+            Task.TaskStatus status, LocalDateTime since, LocalDateTime dateTime);
+
+    /**
+     * Counts and durations of the tasks a worker completed or failed in
+     * {@code [from, to)}, read from {@code idx_tasks_worker_status_completed}
+     * without loading any task rows into memory.
+     */
+    @Query(value = """
+            SELECT COUNT(*) FILTER (WHERE status = 'COMPLETED') AS "completed",
+                   COUNT(*) FILTER (WHERE status = 'FAILED') AS "failed",
+                   CAST(AVG(duration_ms) AS double precision) AS "meanMs",
+                   percentile_cont(0.95) WITHIN GROUP (ORDER BY duration_ms) AS "p95Ms",
+                   MIN(completed_at) AS "firstCompletedAt",
+                   MAX(completed_at) AS "lastCompletedAt"
+            FROM (SELECT status, completed_at,
+                         EXTRACT(EPOCH FROM completed_at - started_at) * 1000 AS duration_ms
+                  FROM tasks
+                  WHERE worker_id = :workerId
+                    AND status IN ('COMPLETED', 'FAILED')
+                    AND completed_at >= :from
+                    AND completed_at < :to) finished
+            """, nativeQuery = true)
+    WorkerTaskAggregate aggregateFinishedByWorker(String workerId, LocalDateTime from, LocalDateTime to);
 
     @Query("SELECT COUNT(t) FROM Task t WHERE t.status = :status")
     long countByStatus(Task.TaskStatus status);
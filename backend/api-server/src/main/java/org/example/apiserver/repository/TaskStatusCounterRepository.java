@@ -0,0 +1,74 @@
+package org.example.apiserver.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to the append-only {@code task_status_counter} table.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskStatusCounterRepository {
+    // Any constant works; it only has to be unique among the app's advisory locks
+    private static final long RECONCILE_LOCK_ID = 0x7461736b636e74L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts one row per non-zero delta with a single statement.
+     */
+    public void addDeltas(Map<String, Long> deltas) {
+        List<Object> params = new ArrayList<>(deltas.size() * 2);
+        StringBuilder sql = new StringBuilder("INSERT INTO task_status_counter (status, delta) VALUES ");
+        deltas.forEach((status, delta) -> {
+            if (delta != 0) {
+                sql.append(params.isEmpty() ? "(?, ?)" : ", (?, ?)");
+                params.add(status);
+                params.add(delta);
+            }
+        });
+        if (!params.isEmpty()) {
+            jdbcTemplate.update(sql.toString(), params.toArray());
+        }
+    }
+
+    public Map<String, Long> sumByStatus() {
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT status, SUM(delta) AS total FROM task_status_counter GROUP BY status",
+                rs -> {
+                    counts.put(rs.getString("status"), rs.getLong("total"));
+                });
+        return counts;
+    }
+
+    /**
+     * Replaces the rows of each status with a single row holding their sum.
+     * Rows inserted while this runs are not visible to the DELETE and stay.
+     *
+     * @return number of rows folded
+     */
+    public int compact() {
+        Integer folded = jdbcTemplate.queryForObject(
+                "WITH folded AS (DELETE FROM task_status_counter RETURNING status, delta), " +
+                        "summed AS (INSERT INTO task_status_counter (status, delta) " +
+                        "SELECT status, SUM(delta) FROM folded GROUP BY status HAVING SUM(delta) <> 0) " +
+                        "SELECT COUNT(*) FROM folded",
+                Integer.class);
+        return folded != null ? folded : 0;
+    }
+
+    /**
+     * Takes a transaction-scoped advisory lock so only one API server instance
+     * reconciles at a time.
+     */
+    public boolean tryLockReconciliation() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, RECONCILE_LOCK_ID));
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.apiserver.repository;
+
+import org.example.apiserver.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The columns task lists need. Queried as a projection, so the TEXT columns
+ * {@code payload} and {@code result} are never read; {@code error_message} is
+ * only set on failed tasks and is cut short before it is returned.
+ */
+public record TaskSummary(
+        UUID id,
+        String type,
+        Task.TaskStatus status,
+        Integer priority,
+        Integer retryCount,
+        Integer maxRetries,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        LocalDateTime startedAt,
+        LocalDateTime completedAt,
+        String workerId,
+        String errorMessage) {
+}
@@ -2,17 +2,33 @@ package org.example.apiserver.repository;
 
 import org.example.apiserver.model.WorkerHealth;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface WorkerHealthRepository extends JpaRepository<WorkerHealth, Long> {
     Optional<WorkerHealth> findByWorkerId(String workerId);
 
-    List<WorkerHealth> findByStatus(WorkerHealth.WorkerStatus status);
+    @Modifying
+    @Query("UPDATE WorkerHealth w SET w.status = :status, w.lastHeartbeat = :lastHeartbeat, " +
+            "w.activeTasks = :activeTasks, w.cpuUsage = :cpuUsage, w.memoryUsage = :memoryUsage " +
+            "WHERE w.workerId = :workerId AND (w.lastHeartbeat IS NULL OR w.lastHeartbeat <= :lastHeartbeat)")
+    int updateState(String workerId, WorkerHealth.WorkerStatus status, LocalDateTime lastHeartbeat,
+                    Integer activeTasks, Double cpuUsage, Double memoryUsage);
 
-    List<WorkerHealth> findByLastHeartbeatBefore(LocalDateTime dateTime);
+    /**
+     * Adds to a worker's totals in a single statement, so concurrent
+     * completions for the same worker neither lose updates nor need to read
+     * the row first.
+     */
+    @Modifying
+    @Query("UPDATE WorkerHealth w SET w.totalProcessed = w.totalProcessed + :processed, " +
+            "w.totalFailed = w.totalFailed + :failed, " +
+            "w.activeTasks = CASE WHEN w.activeTasks > :finished THEN w.activeTasks - :finished ELSE 0 END " +
+            "WHERE w.workerId = :workerId")
+    int addTaskTotals(String workerId, long processed, long failed, int finished);
 }
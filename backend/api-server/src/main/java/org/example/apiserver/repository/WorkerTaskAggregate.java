@@ -0,0 +1,21 @@
+package org.example.apiserver.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregates over the tasks one worker finished; see
+ * {@link TaskRepository#aggregateFinishedByWorker}.
+ */
+public interface WorkerTaskAggregate {
+    Long getCompleted();
+
+    Long getFailed();
+
+    Double getMeanMs(); // null when no task has both timestamps
+
+    Double getP95Ms();
+
+    LocalDateTime getFirstCompletedAt();
+
+    LocalDateTime getLastCompletedAt();
+}
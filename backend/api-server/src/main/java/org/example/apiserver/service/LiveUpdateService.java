@@ -0,0 +1,295 @@
+package org.example.apiserver.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apiserver.dto.TaskChangeDTO;
+import org.example.apiserver.dto.WorkerHealthDTO;
+import org.example.apiserver.event.TaskTransition;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.example.apiserver.event.WorkerHealthChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes task and worker changes to Server-Sent Events subscribers.
+ * <p>
+ * Changes are not written to clients as they happen. Each subscriber keeps
+ * the latest state per task and per worker, and a flush every
+ * {@code app.live-updates.flush-interval-ms} sends what accumulated as one
+ * {@code tasks} and one {@code workers} event. A subscriber whose previous
+ * flush is still being written is skipped, so a slow client only coalesces
+ * more changes and never holds up the others. If more than
+ * {@code app.live-updates.max-pending} changes pile up, they are dropped and
+ * the client gets a {@code resync} event telling it to reload.
+ * <p>
+ * Changes committed on this instance are also collected the same way and
+ * published on a Redis channel with every flush, so subscribers of every API
+ * server see them. Changes from other instances are offered to the local
+ * subscribers as they arrive.
+ */
+@Service
+@Slf4j
+public class LiveUpdateService {
+    static final String CHANGES_CHANNEL = "live-updates:changes";
+    private static final long KEEP_ALIVE_MS = 15_000;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final long timeoutMs;
+    private final int maxPending;
+    private final Counter resyncCounter;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final JsonMapper jsonMapper;
+    // Changes committed here, waiting to be published for the other instances
+    private final Subscriber outgoing;
+    // Lets an instance skip its own messages
+    private final String instanceId = UUID.randomUUID().toString();
+    private Executor sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    public LiveUpdateService(
+            @Value("${app.live-updates.timeout-ms:1800000}") long timeoutMs,
+            @Value("${app.live-updates.max-pending:1000}") int maxPending,
+            MeterRegistry meterRegistry,
+            RedisTemplate<String, String> redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            JsonMapper jsonMapper) {
+        this.timeoutMs = timeoutMs;
+        this.maxPending = maxPending;
+        this.redisTemplate = redisTemplate;
+        this.jsonMapper = jsonMapper;
+        this.outgoing = new Subscriber(null, maxPending);
+        this.resyncCounter = Counter.builder("live.updates.resyncs")
+                .description("Subscribers that fell too far behind and were told to reload")
+                .register(meterRegistry);
+        Gauge.builder("live.updates.subscribers", subscribers, Set::size)
+                .description("Open live update streams")
+                .register(meterRegistry);
+        listenerContainer.addMessageListener(
+                (message, pattern) -> onRemoteChanges(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CHANGES_CHANNEL));
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(emitter, maxPending);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskTransitions(TaskTransitionEvent event) {
+        List<TaskChangeDTO> changes = event.getTransitions().stream()
+                .map(this::toChange)
+                .toList();
+        outgoing.offerTasks(changes);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offerTasks(changes);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onWorkerHealthChanged(WorkerHealthChangedEvent event) {
+        // Shared state was published by the instance that received it
+        if (!event.isShared()) {
+            outgoing.offerWorkers(event.getWorkers());
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offerWorkers(event.getWorkers());
+        }
+    }
+
+    void onRemoteChanges(String message) {
+        RemoteChanges changes;
+        try {
+            changes = jsonMapper.readValue(message, RemoteChanges.class);
+        } catch (JacksonException e) {
+            log.warn("Ignoring unreadable live update message: {}", e.getMessage());
+            return;
+        }
+        if (instanceId.equals(changes.origin())) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (changes.resync()) {
+                subscriber.resync();
+            } else {
+                subscriber.offerTasks(changes.tasks());
+                subscriber.offerWorkers(changes.workers());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.live-updates.flush-interval-ms:250}")
+    public void flush() {
+        publishOutgoing();
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.hasWork(now) && subscriber.sending.compareAndSet(false, true)) {
+                sender.execute(() -> send(subscriber));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        if (sender instanceof ExecutorService executor) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void publishOutgoing() {
+        Pending pending = outgoing.drain();
+        if (!pending.overflowed() && pending.tasks().isEmpty() && pending.workers().isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANGES_CHANNEL, jsonMapper.writeValueAsString(new RemoteChanges(
+                    instanceId, pending.tasks(), pending.workers(), pending.overflowed())));
+        } catch (DataAccessException | JacksonException e) {
+            // Subscribers of other instances catch up with their fallback poll
+            log.warn("Could not publish live updates: {}", e.getMessage());
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            Pending pending = subscriber.drain();
+            if (pending.overflowed()) {
+                resyncCounter.increment();
+                subscriber.emitter.send(SseEmitter.event().name("resync").data(""));
+            } else if (!pending.tasks().isEmpty() || !pending.workers().isEmpty()) {
+                if (!pending.tasks().isEmpty()) {
+                    subscriber.emitter.send(SseEmitter.event().name("tasks")
+                            .data(pending.tasks(), MediaType.APPLICATION_JSON));
+                }
+                if (!pending.workers().isEmpty()) {
+                    subscriber.emitter.send(SseEmitter.event().name("workers")
+                            .data(pending.workers(), MediaType.APPLICATION_JSON));
+                }
+            } else {
+                // Keeps proxies from closing an idle stream
+                subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+            }
+            subscriber.lastSentAt = System.currentTimeMillis();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping live update subscriber: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.sending.set(false);
+        }
+    }
+
+    private TaskChangeDTO toChange(TaskTransition transition) {
+        return TaskChangeDTO.builder()
+                .id(transition.getTaskId())
+                .type(transition.getType())
+                .status(transition.getTo() != null ? transition.getTo().name() : null)
+                .workerId(transition.getWorkerId())
+                .build();
+    }
+
+    private record Pending(List<TaskChangeDTO> tasks, List<WorkerHealthDTO> workers, boolean overflowed) {
+    }
+
+    /**
+     * Changes committed by one instance, published for the others. With
+     * {@code resync} set too many piled up and were dropped.
+     */
+    record RemoteChanges(String origin, List<TaskChangeDTO> tasks, List<WorkerHealthDTO> workers, boolean resync) {
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final int maxPending;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private Map<Object, TaskChangeDTO> tasks = new LinkedHashMap<>();
+        private Map<String, WorkerHealthDTO> workers = new LinkedHashMap<>();
+        private boolean overflowed;
+        private volatile long lastSentAt = System.currentTimeMillis();
+
+        private Subscriber(SseEmitter emitter, int maxPending) {
+            this.emitter = emitter;
+            this.maxPending = maxPending;
+        }
+
+        synchronized void offerTasks(List<TaskChangeDTO> changes) {
+            if (!overflowed) {
+                changes.forEach(change -> tasks.put(change.getId(), change));
+                checkOverflow();
+            }
+        }
+
+        synchronized void offerWorkers(List<WorkerHealthDTO> changes) {
+            if (!overflowed) {
+                changes.forEach(change -> workers.put(change.getWorkerId(), change));
+                checkOverflow();
+            }
+        }
+
+        synchronized void resync() {
+            overflowed = true;
+            tasks.clear();
+            workers.clear();
+        }
+
+        synchronized boolean hasWork(long now) {
+            return overflowed || !tasks.isEmpty() || !workers.isEmpty() || now - lastSentAt >= KEEP_ALIVE_MS;
+        }
+
+        synchronized Pending drain() {
+            Pending pending = new Pending(new ArrayList<>(tasks.values()), new ArrayList<>(workers.values()), overflowed);
+            tasks = new LinkedHashMap<>();
+            workers = new LinkedHashMap<>();
+            overflowed = false;
+            return pending;
+        }
+
+        private void checkOverflow() {
+            if (tasks.size() + workers.size() > maxPending) {
+                resync();
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package org.example.apiserver.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apiserver.dto.TaskDispatchMessage;
+import org.example.apiserver.event.TaskTransition;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.example.apiserver.model.OutboxMessage;
+import org.example.apiserver.model.Task;
+import org.example.apiserver.repository.OutboxRepository;
+import org.example.apiserver.repository.TaskBatchRepository;
+import org.example.apiserver.repository.TaskRepository;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes outbox rows to RabbitMQ in batches. Each batch is locked, published
+ * on one channel, confirmed by the broker and deleted in a single transaction, so
+ * a crash at any point re-sends rather than loses messages (at-least-once).
+ */
+@Service
+@Slf4j
+public class OutboxRelayService {
+    private final OutboxRepository outboxRepository;
+    private final TaskRepository taskRepository;
+    private final TaskBatchRepository taskBatchRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Counter publishedCounter;
+    private final Counter failureCounter;
+    private final Timer batchTimer;
+    private final Timer deliveryLagTimer;
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong scheduled = new AtomicLong();
+    private final AtomicLong oldestAgeMs = new AtomicLong();
+
+    @Value("${app.rabbitmq.exchange}")
+    private String exchange;
+
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    public OutboxRelayService(OutboxRepository outboxRepository,
+                              TaskRepository taskRepository,
+                              TaskBatchRepository taskBatchRepository,
+                              RabbitTemplate rabbitTemplate,
+                              PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.taskRepository = taskRepository;
+        this.taskBatchRepository = taskBatchRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+
+        this.publishedCounter = Counter.builder("outbox.relay.published")
+                .description("Outbox messages published and confirmed by the broker")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("outbox.relay.failures")
+                .description("Outbox batches that failed to publish and will be retried")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to publish and confirm one outbox batch")
+                .register(meterRegistry);
+        this.deliveryLagTimer = Timer.builder("outbox.relay.lag")
+                .description("Time from an outbox row becoming due to broker confirm")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("outbox.backlog", backlog, AtomicLong::get)
+                .description("Due outbox rows waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("outbox.retries.scheduled", scheduled, AtomicLong::get)
+                .description("Retries waiting for their backoff to elapse")
+                .register(meterRegistry);
+        Gauge.builder("outbox.oldest.age", oldestAgeMs, value -> value.get() / 1000.0)
+                .description("Seconds the oldest due outbox row has waited")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval-ms:200}")
+    public void relay() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer relayed;
+            try {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } catch (Exception e) {
+                failureCounter.increment();
+                log.error("Outbox relay failed, batch will be retried", e);
+                return;
+            }
+            if (relayed == null || relayed < batchSize) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.backlog-refresh-ms:10000}")
+    public void refreshBacklog() {
+        LocalDateTime now = LocalDateTime.now();
+        backlog.set(outboxRepository.countByAvailableAtLessThanEqual(now));
+        scheduled.set(outboxRepository.countByAvailableAtAfter(now));
+        LocalDateTime oldest = outboxRepository.findOldestDueAt(now);
+        oldestAgeMs.set(oldest != null
+                ? Math.max(0, Duration.between(oldest, now).toMillis())
+                : 0);
+    }
+
+    private int relayBatch() {
+        List<OutboxMessage> batch = outboxRepository.lockNextBatch(LocalDateTime.now(), batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<UUID> taskIds = batch.stream().map(OutboxMessage::getTaskId).toList();
+        Map<UUID, Task> tasks = taskRepository.findAllById(taskIds).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        batchTimer.record(() -> rabbitTemplate.invoke(operations -> {
+            for (OutboxMessage message : batch) {
+                Task task = tasks.get(message.getTaskId());
+                if (task == null) {
+                    continue; // deleted before it was relayed
+                }
+                operations.convertAndSend(exchange, message.getRoutingKey(),
+                        dispatchMessage(task), messageProperties(task));
+            }
+            operations.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        }));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskTransition> transitions = new ArrayList<>();
+        for (Task.TaskStatus from : List.of(Task.TaskStatus.PENDING, Task.TaskStatus.RETRYING)) {
+            for (UUID id : taskBatchRepository.updateStatusReturningIds(taskIds, from, Task.TaskStatus.QUEUED, now)) {
+                transitions.add(TaskTransition.of(tasks.get(id), from, Task.TaskStatus.QUEUED).build());
+            }
+        }
+        if (!transitions.isEmpty()) {
+            eventPublisher.publishEvent(new TaskTransitionEvent(transitions));
+        }
+        outboxRepository.deleteAllByIdInBatch(
+                batch.stream().map(OutboxMessage::getId).toList());
+
+        publishedCounter.increment(batch.size());
+        for (OutboxMessage message : batch) {
+            deliveryLagTimer.record(Duration.between(message.getAvailableAt(), now));
+        }
+        log.debug("Relayed {} outbox messages", batch.size());
+        return batch.size();
+    }
+
+    // Workers report status by task id, so the message carries only what is
+    // needed to run the task
+    private TaskDispatchMessage dispatchMessage(Task task) {
+        return TaskDispatchMessage.builder()
+                .id(task.getId())
+                .type(task.getType())
+                .priority(task.getPriority())
+                .attempt(task.getRetryCount() + 1)
+                .payload(task.getPayload())
+                .payloadRef(task.getPayloadRef())
+                .build();
+    }
+
+    private MessagePostProcessor messageProperties(Task task) {
+        return message -> {
+            // Priority orders messages inside the band queue; the timestamp lets
+            // workers measure queue wait
+            message.getMessageProperties().setPriority(task.getPriority());
+            message.getMessageProperties().setTimestamp(new Date());
+            return message;
+        };
+    }
+}
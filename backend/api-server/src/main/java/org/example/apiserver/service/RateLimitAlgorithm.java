@@ -0,0 +1,36 @@
+package org.example.apiserver.service;
+
+import lombok.Getter;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * Rate limiting algorithms selectable with {@code app.rate-limit.algorithm}.
+ * Each is a Redis script with the same arguments and result, see
+ * {@code redis/sliding_log_rate_limit.lua}.
+ */
+@Getter
+public enum RateLimitAlgorithm {
+    /** Exact; one sorted set member per permit in the window. */
+    SLIDING_LOG("rate_limit:", "redis/sliding_log_rate_limit.lua"),
+    /** Approximate sliding window from two fixed-window counters; O(1) per key. */
+    SLIDING_WINDOW("rate_limit:swc:", "redis/sliding_window_counter_rate_limit.lua"),
+    /** Token bucket as GCRA, storing a single timestamp; O(1) per key. */
+    GCRA("rate_limit:gcra:", "redis/gcra_rate_limit.lua");
+
+    // Separate prefixes keep keys of different types apart when switching
+    private final String keyPrefix;
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> script;
+
+    RateLimitAlgorithm(String keyPrefix, String scriptLocation) {
+        this.keyPrefix = keyPrefix;
+        DefaultRedisScript<List> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(scriptLocation));
+        script.setResultType(List.class);
+        this.script = script;
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.apiserver.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of one rate limit check, with the values clients need for the
+ * {@code X-RateLimit-Remaining} and {@code Retry-After} headers.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class RateLimitDecision {
+    private final boolean allowed;
+    private final long remaining;
+    private final long retryAfterMs;
+
+    public static RateLimitDecision allowed(long remaining) {
+        return new RateLimitDecision(true, remaining, 0);
+    }
+
+    public static RateLimitDecision denied(long retryAfterMs) {
+        return new RateLimitDecision(false, 0, retryAfterMs);
+    }
+}
@@ -1,78 +1,190 @@
 package org.example.apiserver.service;
 
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class RateLimiterService {
+    private static final long WINDOW_MS = TimeUnit.MINUTES.toMillis(1);
+
     private final RedisTemplate<String, String> redisTemplate;
+    private final Environment environment;
+    private final Map<String, LocalLease> leases = new ConcurrentHashMap<>();
+    private final Map<String, OptionalInt> quotas = new ConcurrentHashMap<>();
+
+    // Makes script members unique across API server instances and calls
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
 
     @Value("${app.rate-limit.requests-per-minute}")
     private int requestsPerMinute;
 
+    @Value("${app.rate-limit.algorithm:sliding-log}")
+    private RateLimitAlgorithm algorithm = RateLimitAlgorithm.SLIDING_LOG;
+
+    @Value("${app.rate-limit.local-lease.enabled:false}")
+    private boolean localLeaseEnabled;
+
+    @Value("${app.rate-limit.local-lease.chunk-size:20}")
+    private int leaseChunkSize;
+
+    @Value("${app.rate-limit.local-lease.ttl-ms:1000}")
+    private long leaseTtlMs;
+
+    public RateLimiterService(RedisTemplate<String, String> redisTemplate, Environment environment) {
+        this.redisTemplate = redisTemplate;
+        this.environment = environment;
+    }
+
     /**
      * Check if the request is allowed based on rate limit
-     * Uses sliding window algorithm with Redis
      */
     public boolean isAllowed(String identifier) {
-        String key = "rate_limit:" + identifier;
-        long currentTime = System.currentTimeMillis();
-        long windowStart = currentTime - TimeUnit.MINUTES.toMillis(1);
-
-        // Remove old entries outside the current window
-        redisTemplate.opsForZSet().removeRangeByScore(key, 0, windowStart);
-
-        // Get current count in the window
-        Long currentCount = redisTemplate.opsForZSet().count(key, windowStart, currentTime);
+        return check(identifier).isAllowed();
+    }
 
-        if (currentCount != null && currentCount >= requestsPerMinute) {
-            return false; // Rate limit exceeded
+    /**
+     * Takes one permit from the identifier's quota, which is
+     * {@code app.rate-limit.clients.<identifier>.requests-per-minute} or else
+     * {@code app.rate-limit.requests-per-minute}. With local leasing enabled,
+     * permits are taken from Redis in chunks and handed out from memory until
+     * the chunk is used up or the lease expires, so a busy client costs one
+     * Redis call per chunk instead of one per request.
+     */
+    public RateLimitDecision check(String identifier) {
+        String key = clientKey(identifier);
+        int limit = clientLimit(identifier);
+        if (!localLeaseEnabled) {
+            return decide(runScript(key, limit, 1, false));
         }
 
-        // Add current request timestamp
-        redisTemplate.opsForZSet().add(key, String.valueOf(currentTime), currentTime);
-
-        // Set expiration to clean up old keys
-        redisTemplate.expire(key, Duration.ofMinutes(2));
+        LocalLease lease = leases.computeIfAbsent(identifier, id -> new LocalLease());
+        synchronized (lease) {
+            long now = System.currentTimeMillis();
+            if (now < lease.expiresAt && lease.permits > 0) {
+                lease.permits--;
+                return RateLimitDecision.allowed(lease.remainingInRedis + lease.permits);
+            }
+            if (now < lease.retryAt) {
+                return RateLimitDecision.denied(lease.retryAt - now);
+            }
+
+            ScriptResult result = runScript(key, limit, leaseChunkSize, false);
+            if (result.granted == 0) {
+                // No permit can be granted before retry-after, whatever the algorithm
+                lease.permits = 0;
+                lease.retryAt = now + result.retryAfterMs;
+                return RateLimitDecision.denied(result.retryAfterMs);
+            }
+            lease.permits = (int) result.granted - 1;
+            lease.remainingInRedis = result.remaining;
+            lease.expiresAt = now + leaseTtlMs;
+            lease.retryAt = 0;
+            return RateLimitDecision.allowed(lease.remainingInRedis + lease.permits);
+        }
+    }
 
-        return true;
+    /**
+     * Takes {@code permits} permits, all or none, from the identifier's quota
+     * for one task type ({@code app.rate-limit.types.<TYPE>.requests-per-minute}).
+     * Types without a quota are always allowed.
+     */
+    public RateLimitDecision checkTaskType(String identifier, String taskType, int permits) {
+        OptionalInt limit = quota("app.rate-limit.types." + taskType + ".requests-per-minute");
+        if (limit.isEmpty()) {
+            return RateLimitDecision.allowed(Long.MAX_VALUE);
+        }
+        return decide(runScript(typeKey(identifier, taskType), limit.getAsInt(), permits, true));
     }
 
     /**
      * Get remaining requests in current window
      */
     public int getRemainingRequests(String identifier) {
-        String key = "rate_limit:" + identifier;
-        long currentTime = System.currentTimeMillis();
-        long windowStart = currentTime - TimeUnit.MINUTES.toMillis(1);
-
-        Long currentCount = redisTemplate.opsForZSet().count(key, windowStart, currentTime);
-        return Math.max(0, requestsPerMinute - (currentCount != null ? currentCount.intValue() : 0));
+        return (int) runScript(clientKey(identifier), clientLimit(identifier), 0, false).remaining;
     }
 
     /**
      * Get time until next allowed request (in milliseconds)
      */
     public long getRetryAfter(String identifier) {
-        String key = "rate_limit:" + identifier;
-        long currentTime = System.currentTimeMillis();
-        long windowStart = currentTime - TimeUnit.MINUTES.toMillis(1);
+        return runScript(clientKey(identifier), clientLimit(identifier), 0, false).retryAfterMs;
+    }
 
-        // Get the oldest request in the current window
-        var oldestRequests = redisTemplate.opsForZSet()
-                .rangeByScore(key, windowStart, currentTime, 0, 1);
+    // Idle identifiers would otherwise keep their lease forever
+    @Scheduled(fixedDelayString = "${app.rate-limit.local-lease.cleanup-ms:60000}")
+    public void evictExpiredLeases() {
+        long now = System.currentTimeMillis();
+        leases.values().removeIf(lease -> lease.expiresAt <= now && lease.retryAt <= now);
+    }
 
-        if (oldestRequests != null && !oldestRequests.isEmpty()) {
-            long oldestTimestamp = Long.parseLong(oldestRequests.iterator().next());
-            return oldestTimestamp + TimeUnit.MINUTES.toMillis(1) - currentTime;
-        }
+    private int clientLimit(String identifier) {
+        return quota("app.rate-limit.clients." + identifier + ".requests-per-minute")
+                .orElse(requestsPerMinute);
+    }
+
+    // Quotas are read once per property name; config changes need a restart
+    private OptionalInt quota(String property) {
+        return quotas.computeIfAbsent(property, name -> {
+            Integer limit = environment.getProperty(name, Integer.class);
+            return limit != null ? OptionalInt.of(limit) : OptionalInt.empty();
+        });
+    }
+
+    private String clientKey(String identifier) {
+        return algorithm.getKeyPrefix() + identifier;
+    }
+
+    private String typeKey(String identifier, String taskType) {
+        return algorithm.getKeyPrefix() + identifier + ":type:" + taskType;
+    }
+
+    private RateLimitDecision decide(ScriptResult result) {
+        return result.granted > 0
+                ? RateLimitDecision.allowed(result.remaining)
+                : RateLimitDecision.denied(result.retryAfterMs);
+    }
+
+    /**
+     * Runs the algorithm's script once. {@code permits} of 0 only reads the
+     * remaining count and retry-after. Leftover permits of an expired local
+     * lease are not returned; they are spent like used ones.
+     */
+    private ScriptResult runScript(String key, int limit, int permits, boolean allOrNothing) {
+        List<?> result = redisTemplate.execute(algorithm.getScript(),
+                List.of(key),
+                String.valueOf(WINDOW_MS),
+                String.valueOf(limit),
+                String.valueOf(permits),
+                allOrNothing ? "1" : "0",
+                instanceId + ":" + sequence.incrementAndGet());
+        return new ScriptResult(
+                ((Number) result.get(0)).longValue(),
+                ((Number) result.get(1)).longValue(),
+                ((Number) result.get(2)).longValue());
+    }
+
+    private record ScriptResult(long granted, long remaining, long retryAfterMs) {
+    }
 
-        return 0;
+    // Guarded by synchronizing on the lease itself
+    private static class LocalLease {
+        private int permits;
+        private long remainingInRedis;
+        private long expiresAt;
+        private long retryAt;
     }
 }
@@ -0,0 +1,130 @@
+package org.example.apiserver.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.apiserver.event.TaskTransition;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.example.apiserver.event.WorkerHealthChangedEvent;
+import org.example.apiserver.model.Task;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versions of the task and worker collections, used as ETags so unchanged
+ * reads can be answered with 304 without touching the database.
+ * <p>
+ * Each sequence is bumped after a change commits. Callers must take the ETag
+ * before reading the data it describes: a change that commits in between then
+ * only costs the client one extra full response, never a stale 304. Changes
+ * committed by other instances arrive through a Redis channel and bump the
+ * sequences here as well, a moment after they commit. The sequences live in
+ * memory, so every ETag carries a per-process epoch and is never matched by
+ * another instance or after a restart.
+ */
+@Service
+@Slf4j
+public class ResourceVersionService {
+    static final String CHANGES_CHANNEL = "resource-versions:changes";
+    private static final String TASKS = "t";
+    private static final String WORKERS = "w";
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong taskSequence = new AtomicLong();
+    private final AtomicLong workerSequence = new AtomicLong();
+    private final RedisTemplate<String, String> redisTemplate;
+
+    // Lets an instance skip its own change messages
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public ResourceVersionService(RedisTemplate<String, String> redisTemplate,
+                                  RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        listenerContainer.addMessageListener(
+                (message, pattern) -> onRemoteChange(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CHANGES_CHANNEL));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskTransitions(TaskTransitionEvent event) {
+        taskSequence.incrementAndGet();
+        // Finishing a task changes the worker's totals
+        boolean workersChanged = false;
+        for (TaskTransition transition : event.getTransitions()) {
+            if (transition.getTo() == Task.TaskStatus.COMPLETED || transition.getTo() == Task.TaskStatus.FAILED) {
+                workerSequence.incrementAndGet();
+                workersChanged = true;
+                break;
+            }
+        }
+        announce(workersChanged ? TASKS + WORKERS : TASKS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onWorkerHealthChanged(WorkerHealthChangedEvent event) {
+        workerSequence.incrementAndGet();
+        // Shared state was announced by the instance that received it
+        if (!event.isShared()) {
+            announce(WORKERS);
+        }
+    }
+
+    void onRemoteChange(String message) {
+        int separator = message.indexOf(':');
+        if (separator < 0 || message.startsWith(instanceId + ":")) {
+            return;
+        }
+        String changed = message.substring(separator + 1);
+        if (changed.contains(TASKS)) {
+            taskSequence.incrementAndGet();
+        }
+        if (changed.contains(WORKERS)) {
+            workerSequence.incrementAndGet();
+        }
+    }
+
+    public String tasksETag() {
+        return etag("t" + taskSequence.get());
+    }
+
+    public String workersETag() {
+        return etag("w" + workerSequence.get());
+    }
+
+    public String statisticsETag() {
+        // Statistics include the number of online workers
+        return etag("s" + taskSequence.get() + "." + workerSequence.get());
+    }
+
+    /**
+     * ETag of a single task. It comes from the stored {@code updatedAt}, so it
+     * is the same on every instance.
+     */
+    public static String taskETag(LocalDateTime updatedAt) {
+        long micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return "W/\"" + Long.toString(micros, 36) + "\"";
+    }
+
+    private void announce(String changed) {
+        try {
+            redisTemplate.convertAndSend(CHANGES_CHANNEL, instanceId + ":" + changed);
+        } catch (DataAccessException e) {
+            // Other instances keep answering 304 until their next local change
+            log.warn("Could not publish resource version change: {}", e.getMessage());
+        }
+    }
+
+    private String etag(String version) {
+        return "W/\"" + epoch + "-" + version + "\"";
+    }
+}
@@ -2,13 +2,14 @@ package org.example.apiserver.service;
 
 import lombok.RequiredArgsConstructor;
 import org.example.apiserver.dto.TaskStatisticsDTO;
-import org.example.apiserver.model.Task;
+import org.example.apiserver.dto.TaskTimeseriesDTO;
+import org.example.apiserver.dto.WorkerStatisticsDTO;
 import org.example.apiserver.repository.TaskRepository;
 import org.example.apiserver.model.WorkerHealth;
-import org.example.apiserver.repository.WorkerHealthRepository;
+import org.example.apiserver.repository.WorkerTaskAggregate;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -16,41 +17,30 @@ import java.util.Map;
 @Service
 @RequiredArgsConstructor
 public class StatisticsService {
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final TaskRepository taskRepository;
-    private final WorkerHealthRepository workerHealthRepository;
+    private final WorkerHealthService workerHealthService;
+    private final TaskStatusCounterService taskStatusCounterService;
+    private final TaskTimeseriesService taskTimeseriesService;
 
     public TaskStatisticsDTO getTaskStatistics() {
-        List<Object[]> taskStatistics = taskRepository.getTaskStatistics();
-
-        Map<String, Long> statusCounts = new HashMap<>();
-        long totalTasks = 0;
-        long completedTasks = 0;
-        long failedTasks = 0;
-        long processingTasks = 0;
-        long pendingTasks = 0;
-        long retryingTasks = 0;
+        // Maintained on every transition; see TaskStatusCounterService
+        Map<String, Long> statusCounts = taskStatusCounterService.getCounts();
 
-        for (Object[] row : taskStatistics) {
-            totalTasks += (long) row[1];
-            String status = (String) row[0];
-            Long count = (Long) row[1];
-            statusCounts.put(status, count);
-            switch (status) {
-                case "COMPLETED" -> completedTasks++;
-                case "FAILED" -> failedTasks++;
-                case "PROCESSING" -> processingTasks++;
-                case "PENDING", "QUEUED" -> pendingTasks++;
-                case "RETRYING" -> retryingTasks++;
-            }
-
-        }
+        long totalTasks = statusCounts.values().stream().mapToLong(Long::longValue).sum();
+        long completedTasks = statusCounts.getOrDefault("COMPLETED", 0L);
+        long failedTasks = statusCounts.getOrDefault("FAILED", 0L);
+        long processingTasks = statusCounts.getOrDefault("PROCESSING", 0L);
+        long pendingTasks = statusCounts.getOrDefault("PENDING", 0L)
+                + statusCounts.getOrDefault("QUEUED", 0L);
+        long retryingTasks = statusCounts.getOrDefault("RETRYING", 0L);
 
         double successRate = totalTasks > 0
                 ? (double) completedTasks / totalTasks * 100
                 : 0.0;
 
-        Long activeWorkers = (long) workerHealthRepository.findByStatus(
-                WorkerHealth.WorkerStatus.ONLINE).size();
+        Long activeWorkers = workerHealthService.countByStatus(WorkerHealth.WorkerStatus.ONLINE);
 
         return TaskStatisticsDTO.builder()
                 .totalTasks(totalTasks)
@@ -65,18 +55,42 @@ public class StatisticsService {
                 .build();
     }
 
-    public TaskStatisticsDTO getWorkerStatistics(String workerId) {
-        List<Task> workerTasks = taskRepository.findByWorkerIdAndStatus(
-                workerId, Task.TaskStatus.COMPLETED);
+    public List<TaskTimeseriesDTO> getTimeseries(String type) {
+        return taskTimeseriesService.getTimeseries(type);
+    }
 
-        long totalProcessed = workerTasks.size();
-        long failedByWorker = taskRepository.findByWorkerIdAndStatus(
-                workerId, Task.TaskStatus.FAILED).size();
+    /**
+     * Aggregates the tasks a worker completed or failed between {@code from}
+     * (inclusive, default: all time) and {@code to} (exclusive, default: now).
+     */
+    public WorkerStatisticsDTO getWorkerStatistics(String workerId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime rangeFrom = from != null ? from : EARLIEST;
+        LocalDateTime rangeTo = to != null ? to : LocalDateTime.now();
+        if (!rangeFrom.isBefore(rangeTo)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
 
-        return TaskStatisticsDTO.builder()
-                .totalTasks(totalProcessed)
-                .completedTasks(totalProcessed)
-                .failedTasks(failedByWorker)
+        WorkerTaskAggregate aggregate = taskRepository.aggregateFinishedByWorker(workerId, rangeFrom, rangeTo);
+        long completedTasks = aggregate.getCompleted();
+        long failedTasks = aggregate.getFailed();
+        long totalTasks = completedTasks + failedTasks;
+
+        double failureRate = totalTasks > 0
+                ? (double) failedTasks / totalTasks * 100
+                : 0.0;
+
+        return WorkerStatisticsDTO.builder()
+                .workerId(workerId)
+                .from(from)
+                .to(rangeTo)
+                .totalTasks(totalTasks)
+                .completedTasks(completedTasks)
+                .failedTasks(failedTasks)
+                .failureRate(failureRate)
+                .meanDurationMs(aggregate.getMeanMs())
+                .p95DurationMs(aggregate.getP95Ms())
+                .firstCompletedAt(aggregate.getFirstCompletedAt())
+                .lastCompletedAt(aggregate.getLastCompletedAt())
                 .build();
     }
 }
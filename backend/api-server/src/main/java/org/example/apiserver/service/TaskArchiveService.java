@@ -0,0 +1,120 @@
+package org.example.apiserver.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apiserver.event.TaskTransition;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.example.apiserver.model.Task;
+import org.example.apiserver.repository.TaskArchiveRepository;
+import org.example.apiserver.repository.TaskPartitionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Retention job that moves COMPLETED and FAILED tasks created more than
+ * {@code app.tasks.retention.max-age-days} ago from {@code tasks} to
+ * {@code tasks_archive}, where their TEXT columns are stored compressed.
+ * <p>
+ * Every batch of at most {@code batch-size} tasks is one short transaction
+ * that skips rows other transactions hold, so request traffic never waits on
+ * it. A run stops after {@code max-batches} batches and the next run carries
+ * on. Archived tasks leave listings and status counts the way deleted tasks
+ * do; {@link TaskService#getTask} still finds them. Partitions left empty are
+ * dropped at the end of a run, outside any transaction so they can be
+ * detached concurrently.
+ */
+@Service
+@Slf4j
+public class TaskArchiveService {
+    private final TaskArchiveRepository archiveRepository;
+    private final TaskPartitionRepository partitionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archivedCounter;
+    private final boolean enabled;
+    private final int maxAgeDays;
+    private final int batchSize;
+    private final int maxBatches;
+    private final long batchPauseMs;
+
+    public TaskArchiveService(TaskArchiveRepository archiveRepository,
+                              TaskPartitionRepository partitionRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.tasks.retention.enabled:true}") boolean enabled,
+                              @Value("${app.tasks.retention.max-age-days:30}") int maxAgeDays,
+                              @Value("${app.tasks.retention.batch-size:500}") int batchSize,
+                              @Value("${app.tasks.retention.max-batches:100}") int maxBatches,
+                              @Value("${app.tasks.retention.batch-pause-ms:50}") long batchPauseMs) {
+        this.archiveRepository = archiveRepository;
+        this.partitionRepository = partitionRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedCounter = Counter.builder("task.archive.archived")
+                .description("Finished tasks moved to the archive")
+                .register(meterRegistry);
+        this.enabled = enabled;
+        this.maxAgeDays = maxAgeDays;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.batchPauseMs = batchPauseMs;
+    }
+
+    /**
+     * @return number of tasks archived
+     */
+    @Scheduled(initialDelayString = "${app.tasks.retention.interval-ms:300000}",
+            fixedDelayString = "${app.tasks.retention.interval-ms:300000}")
+    public int archive() {
+        if (!enabled) {
+            return 0;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(maxAgeDays);
+        int archived = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Task> moved = transactionTemplate.execute(status -> {
+                List<Task> tasks = archiveRepository.archiveFinished(cutoff, batchSize);
+                if (!tasks.isEmpty()) {
+                    // Listeners treat archived tasks like deleted ones
+                    eventPublisher.publishEvent(new TaskTransitionEvent(tasks.stream()
+                            .map(task -> TaskTransition.of(task, task.getStatus(), null).build())
+                            .toList()));
+                }
+                return tasks;
+            });
+            archived += moved.size();
+            if (moved.size() < batchSize || !pause()) {
+                break;
+            }
+        }
+
+        if (archived > 0) {
+            archivedCounter.increment(archived);
+            log.info("Archived {} tasks created before {}", archived, cutoff);
+        }
+        int dropped = partitionRepository.dropEmptyPartitions(cutoff);
+        if (dropped > 0) {
+            log.info("Dropped {} empty task partitions", dropped);
+        }
+        return archived;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
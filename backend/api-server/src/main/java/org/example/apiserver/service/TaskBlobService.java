@@ -0,0 +1,105 @@
+package org.example.apiserver.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskblobs.BlobStore;
+import org.example.taskblobs.StoredBlob;
+import org.example.taskblobs.TaskBlobs;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Claim check for large payloads and results. Values longer than
+ * {@code app.tasks.blobs.threshold-bytes} are gzipped into the {@link BlobStore}
+ * by {@link TaskBlobs}, the same code the workers use, and rows and broker
+ * messages carry only the reference. This adds metrics and ties blob cleanup
+ * to the surrounding transaction.
+ */
+@Service
+@Slf4j
+public class TaskBlobService {
+    private final TaskBlobs blobs;
+    private final Counter storedCounter;
+    private final DistributionSummary storedSize;
+
+    public TaskBlobService(BlobStore blobStore,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.tasks.blobs.enabled:true}") boolean enabled,
+                           @Value("${app.tasks.blobs.threshold-bytes:65536}") int thresholdBytes) {
+        this.blobs = new TaskBlobs(blobStore, enabled, thresholdBytes);
+        this.storedCounter = Counter.builder("task.blobs.stored")
+                .description("Payloads and results moved to the blob store")
+                .register(meterRegistry);
+        this.storedSize = DistributionSummary.builder("task.blobs.size")
+                .description("Compressed size of stored blobs")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stores {@code value} if it is over the threshold. Inside a transaction
+     * the blob is deleted again if the transaction rolls back.
+     *
+     * @return the reference to keep instead of {@code value}, or null to keep
+     * {@code value} inline
+     */
+    public String offload(String value) {
+        StoredBlob blob = blobs.offload(value);
+        if (blob == null) {
+            return null;
+        }
+        String ref = blob.ref();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        delete(ref);
+                    }
+                }
+            });
+        }
+        storedCounter.increment();
+        storedSize.record(blob.compressedSize());
+        log.debug("Stored {} bytes as blob {} ({} compressed)", blob.size(), ref, blob.compressedSize());
+        return ref;
+    }
+
+    public String load(String ref) {
+        return blobs.load(ref);
+    }
+
+    /**
+     * Deletes the blobs once the surrounding transaction commits, or right
+     * away without one. Null references are ignored.
+     */
+    public void deleteAfterCommit(String... refs) {
+        for (String ref : refs) {
+            if (ref == null) {
+                continue;
+            }
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        delete(ref);
+                    }
+                });
+            } else {
+                delete(ref);
+            }
+        }
+    }
+
+    private void delete(String ref) {
+        try {
+            blobs.delete(ref);
+        } catch (RuntimeException e) {
+            log.warn("Could not delete blob {}", ref, e);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package org.example.apiserver.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apiserver.dto.TaskDTO;
+import org.example.apiserver.event.TaskTransition;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of task details for {@link TaskService#getTask}.
+ * <p>
+ * A bounded local cache holds recently read tasks for
+ * {@code app.tasks.cache.ttl-ms}. With {@code app.tasks.cache.redis.enabled}
+ * Redis is consulted on a local miss before the database, so instances share
+ * what they loaded. Entries are evicted after every committed transition of
+ * their task, on this instance directly and on the others through a Redis
+ * channel. Writes that leave the status unchanged publish no transition and
+ * are picked up when the entry expires.
+ * <p>
+ * A read that started before an eviction must not store what it loaded, or
+ * the old state would be cached after the commit. Every eviction bumps a
+ * generation for the task's stripe, and a load is only stored if the
+ * generation it started with is still current. In Redis an eviction leaves a
+ * short-lived empty marker instead of deleting the key, and loads are only
+ * written where no key exists, so a load racing with a change on another
+ * instance cannot overwrite it.
+ */
+@Service
+@Slf4j
+public class TaskCacheService {
+    static final String INVALIDATION_CHANNEL = "task-cache:invalidations";
+    private static final String KEY_PREFIX = "task-cache:";
+    private static final String EVICTED = "";
+    private static final int STRIPES = 1024;
+
+    private final Cache<UUID, TaskDTO> local;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final RedisTemplate<String, String> redisTemplate;
+    private final JsonMapper jsonMapper;
+    private final boolean redisEnabled;
+    private final Duration redisTtl;
+    private final Duration evictedTtl;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+
+    // Lets an instance skip its own invalidation messages
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public TaskCacheService(
+            RedisTemplate<String, String> redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            JsonMapper jsonMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.tasks.cache.max-size:10000}") long maxSize,
+            @Value("${app.tasks.cache.ttl-ms:30000}") long ttlMs,
+            @Value("${app.tasks.cache.redis.enabled:false}") boolean redisEnabled,
+            @Value("${app.tasks.cache.redis.ttl-ms:300000}") long redisTtlMs,
+            @Value("${app.tasks.cache.redis.evicted-ttl-ms:10000}") long evictedTtlMs) {
+        this.redisTemplate = redisTemplate;
+        this.jsonMapper = jsonMapper;
+        this.redisEnabled = redisEnabled;
+        this.redisTtl = Duration.ofMillis(redisTtlMs);
+        this.evictedTtl = Duration.ofMillis(evictedTtlMs);
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "tasks");
+        Gauge.builder("task.cache.hit.ratio", local, cache -> cache.stats().hitRate())
+                .description("Share of task reads answered by the local cache")
+                .register(meterRegistry);
+        this.redisHits = Counter.builder("task.cache.redis")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.redisMisses = Counter.builder("task.cache.redis")
+                .tag("result", "miss")
+                .register(meterRegistry);
+
+        listenerContainer.addMessageListener(
+                (message, pattern) -> onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public TaskDTO get(UUID taskId, Function<UUID, TaskDTO> loader) {
+        TaskDTO cached = local.getIfPresent(taskId);
+        if (cached != null) {
+            return cached;
+        }
+        int stripe = stripe(taskId);
+        long generation = generations.get(stripe);
+
+        TaskDTO task = redisEnabled ? readRemote(taskId) : null;
+        boolean loadedFromDatabase = task == null;
+        if (loadedFromDatabase) {
+            task = loader.apply(taskId);
+        }
+
+        // Checked under the entry's lock, which evict() also takes
+        TaskDTO loaded = task;
+        local.asMap().compute(taskId, (id, current) -> generations.get(stripe) == generation ? loaded : current);
+        if (loadedFromDatabase && redisEnabled && generations.get(stripe) == generation) {
+            writeRemote(taskId, task);
+        }
+        return task;
+    }
+
+    /**
+     * The cached task, if any, without loading it.
+     */
+    public TaskDTO getIfPresent(UUID taskId) {
+        return local.asMap().get(taskId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskTransitions(TaskTransitionEvent event) {
+        List<UUID> taskIds = event.getTransitions().stream()
+                .map(TaskTransition::getTaskId)
+                .distinct()
+                .toList();
+        evict(taskIds);
+        try {
+            if (redisEnabled) {
+                markEvicted(taskIds);
+            }
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, instanceId + ":"
+                    + String.join(",", taskIds.stream().map(UUID::toString).toList()));
+        } catch (DataAccessException e) {
+            // Other instances drop the entries when they expire
+            log.warn("Could not publish task cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    void onInvalidation(String message) {
+        int separator = message.indexOf(':');
+        if (separator < 0 || message.startsWith(instanceId + ":")) {
+            return;
+        }
+        evict(Arrays.stream(message.substring(separator + 1).split(","))
+                .filter(id -> !id.isEmpty())
+                .map(UUID::fromString)
+                .toList());
+    }
+
+    private void evict(List<UUID> taskIds) {
+        for (UUID taskId : taskIds) {
+            generations.incrementAndGet(stripe(taskId));
+            local.asMap().remove(taskId);
+        }
+    }
+
+    private TaskDTO readRemote(UUID taskId) {
+        try {
+            String json = redisTemplate.opsForValue().get(key(taskId));
+            if (json != null && !json.equals(EVICTED)) {
+                TaskDTO task = jsonMapper.readValue(json, TaskDTO.class);
+                redisHits.increment();
+                return task;
+            }
+        } catch (DataAccessException | JacksonException e) {
+            log.warn("Could not read task {} from Redis: {}", taskId, e.getMessage());
+        }
+        redisMisses.increment();
+        return null;
+    }
+
+    private void writeRemote(UUID taskId, TaskDTO task) {
+        try {
+            redisTemplate.opsForValue().setIfAbsent(key(taskId), jsonMapper.writeValueAsString(task), redisTtl);
+        } catch (DataAccessException | JacksonException e) {
+            log.warn("Could not write task {} to Redis: {}", taskId, e.getMessage());
+        }
+    }
+
+    private void markEvicted(List<UUID> taskIds) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                ValueOperations<String, String> values = ((RedisOperations<String, String>) operations).opsForValue();
+                for (UUID taskId : taskIds) {
+                    values.set(key(taskId), EVICTED, evictedTtl);
+                }
+                return null;
+            }
+        });
+    }
+
+    private String key(UUID taskId) {
+        return KEY_PREFIX + taskId;
+    }
+
+    private static int stripe(UUID taskId) {
+        return (taskId.hashCode() & Integer.MAX_VALUE) % STRIPES;
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.apiserver.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apiserver.event.TaskTransition;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.example.apiserver.model.Task;
+import org.example.apiserver.repository.TaskPartitionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Creates the monthly {@code tasks} partitions ahead of time and tracks the
+ * active horizon: the creation time of the oldest unfinished task, less a
+ * margin. Queries for an active status are bounded by
+ * {@code createdAt >= horizon}, so Postgres skips every partition before it.
+ * <p>
+ * The horizon is read from the database every refresh interval and lowered
+ * right away when a committed transition on this instance makes an older task
+ * active again; on other instances that is only seen at their next refresh.
+ * The margin covers clock differences between instances. A task stuck in an
+ * active status holds the horizon back until it finishes.
+ */
+@Service
+@Slf4j
+public class TaskPartitionService {
+    static final LocalDateTime UNBOUNDED = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final Set<Task.TaskStatus> ACTIVE_STATES = EnumSet.of(
+            Task.TaskStatus.PENDING, Task.TaskStatus.QUEUED, Task.TaskStatus.PROCESSING, Task.TaskStatus.RETRYING);
+
+    private final TaskPartitionRepository partitionRepository;
+    private final int monthsAhead;
+    private final Duration margin;
+    private final AtomicReference<LocalDateTime> horizon = new AtomicReference<>(UNBOUNDED);
+    // Oldest task made active again since the current refresh started
+    private final AtomicReference<LocalDateTime> reactivated = new AtomicReference<>(LocalDateTime.MAX);
+
+    public TaskPartitionService(TaskPartitionRepository partitionRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.tasks.partitions.months-ahead:3}") int monthsAhead,
+                                @Value("${app.tasks.partitions.horizon-margin-ms:3600000}") long marginMs) {
+        this.partitionRepository = partitionRepository;
+        this.monthsAhead = monthsAhead;
+        this.margin = Duration.ofMillis(marginMs);
+        Gauge.builder("task.partitions.horizon.age", horizon,
+                        h -> Duration.between(h.get(), LocalDateTime.now()).toSeconds())
+                .description("How far back queries for active tasks reach")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Lower bound on {@code createdAt} for queries by {@code status}; a date
+     * before any task for finished statuses.
+     */
+    public LocalDateTime createdAtLowerBound(Task.TaskStatus status) {
+        return ACTIVE_STATES.contains(status) ? horizon.get() : UNBOUNDED;
+    }
+
+    @Scheduled(fixedDelayString = "${app.tasks.partitions.maintenance-interval-ms:3600000}")
+    public void createPartitions() {
+        LocalDateTime now = LocalDateTime.now();
+        int created = partitionRepository.createPartitions(now, now.plusMonths(monthsAhead));
+        if (created > 0) {
+            log.info("Created {} task partitions", created);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.tasks.partitions.horizon-refresh-ms:60000}")
+    public void refreshHorizon() {
+        LocalDateTime now = LocalDateTime.now();
+        reactivated.set(LocalDateTime.MAX);
+        LocalDateTime oldest = partitionRepository.findOldestActiveCreatedAt()
+                .filter(createdAt -> createdAt.isBefore(now))
+                .orElse(now);
+        horizon.set(oldest.minus(margin));
+        // A transition that committed after the query started either shows up
+        // here or lowers the horizon itself after this point
+        lower(reactivated.get());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskTransitions(TaskTransitionEvent event) {
+        for (TaskTransition transition : event.getTransitions()) {
+            if (ACTIVE_STATES.contains(transition.getTo()) && transition.getCreatedAt() != null) {
+                reactivated.accumulateAndGet(transition.getCreatedAt(), TaskPartitionService::earliest);
+                lower(transition.getCreatedAt());
+            }
+        }
+    }
+
+    private void lower(LocalDateTime createdAt) {
+        if (!createdAt.equals(LocalDateTime.MAX)) {
+            horizon.accumulateAndGet(createdAt.minus(margin), TaskPartitionService::earliest);
+        }
+    }
+
+    private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -2,24 +2,51 @@ package org.example.apiserver.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import jakarta.validation.Validator;
+import org.example.apiserver.config.TaskRouting;
+import org.example.apiserver.dto.BatchItemResult;
+import org.example.apiserver.dto.BatchSubmissionResponse;
+import org.example.apiserver.dto.CursorSliceDTO;
+import org.example.apiserver.dto.TaskCursor;
 import org.example.apiserver.dto.TaskDTO;
+import org.example.apiserver.dto.TaskFields;
+import org.example.apiserver.dto.TaskStatusUpdate;
 import org.example.apiserver.dto.TaskSubmissionRequest;
+import org.example.apiserver.event.TaskTransition;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.example.apiserver.model.OutboxMessage;
+import org.example.apiserver.model.PriorityBand;
 import org.example.apiserver.model.Task;
-import org.example.apiserver.model.WorkerHealth;
+import org.example.apiserver.repository.OutboxRepository;
+import org.example.apiserver.repository.TaskArchiveRepository;
+import org.example.apiserver.repository.TaskBatchRepository;
 import org.example.apiserver.repository.TaskRepository;
+import org.example.apiserver.repository.TaskSummary;
 import org.example.apiserver.repository.WorkerHealthRepository;
 import org.example.apiserver.util.JsonUtil;
+import org.example.apiserver.util.RetryUtil;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @Service
@@ -27,14 +54,30 @@ import java.util.UUID;
 @Slf4j
 public class TaskService {
     private final TaskRepository taskRepository;
-    private final RabbitTemplate rabbitTemplate;
     private final WorkerHealthRepository workerHealthRepository;
-
-    @Value("${app.rabbitmq.exchange}")
-
-    private String exchange;
-    @Value("${app.rabbitmq.routing-key}")
-    private String routingKey;
+    private final TaskBatchRepository taskBatchRepository;
+    private final OutboxRepository outboxRepository;
+    private final TaskRouting taskRouting;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskCacheService taskCacheService;
+    private final TaskPartitionService taskPartitionService;
+    private final TaskArchiveRepository taskArchiveRepository;
+    private final TaskBlobService taskBlobService;
+
+    // Must match the guards in TaskBatchRepository.markProcessing/markCompleted
+    private static final Set<Task.TaskStatus> PROCESSING_FROM = EnumSet.of(
+            Task.TaskStatus.PENDING, Task.TaskStatus.QUEUED, Task.TaskStatus.RETRYING);
+    private static final Set<Task.TaskStatus> FINAL_STATES = EnumSet.of(
+            Task.TaskStatus.COMPLETED, Task.TaskStatus.FAILED);
+    // Enough for the task card's error preview
+    static final int SUMMARY_ERROR_LENGTH = 200;
+
+    @Value("${app.tasks.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${app.tasks.status-batch.max-size:5000}")
+    private int maxStatusBatchSize;
 
     @Transactional
     public TaskDTO submitTask(TaskSubmissionRequest request) {
@@ -43,6 +86,9 @@ public class TaskService {
         if(JsonUtil.isValidJson(request.getPayload())){
             throw new RuntimeException("Invalid JSON payload");
         }
+        if (!taskRouting.supports(request.getType())) {
+            throw new IllegalArgumentException("Unsupported task type: " + request.getType());
+        }
         Task task = Task.builder()
                 .type(request.getType())
                 .status(Task.TaskStatus.PENDING)
@@ -50,150 +96,548 @@ public class TaskService {
                 .priority(request.getPriority() != null ? request.getPriority() : 5)
                 .maxRetries(request.getMaxRetries() != null ? request.getMaxRetries() : 3)
                 .build();
+        offloadPayload(task);
 
-        // Save to database
+        // Save the task and its outbox entry in one transaction; the relay
+        // publishes it once the commit is visible
         task = taskRepository.save(task);
+        enqueue(task, 0);
+        publishTransition(task, null, Task.TaskStatus.PENDING);
         log.info("Task created with ID: {}", task.getId());
 
-        // Send to RabbitMQ
-        try {
-            task.setStatus(Task.TaskStatus.QUEUED);
-            taskRepository.save(task);
+        return convertToDTO(task);
+    }
 
-            rabbitTemplate.convertAndSend(exchange, routingKey,
-                    convertToDTO(task));
-            log.info("Task {} sent to queue", task.getId());
-        } catch (Exception e) {
-            log.error("Failed to queue task {}", task.getId(), e);
-            task.setStatus(Task.TaskStatus.FAILED);
-            task.setErrorMessage("Failed to queue: " + e.getMessage());
-            taskRepository.save(task);
+    /**
+     * Submits many tasks at once: valid items and their outbox entries are written
+     * with multi-row INSERTs in one transaction. Invalid items are reported as
+     * REJECTED without failing the rest of the batch.
+     */
+    @Transactional
+    public BatchSubmissionResponse submitTasks(List<TaskSubmissionRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one task");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                    "Batch size " + requests.size() + " exceeds the maximum of " + maxBatchSize);
         }
 
-        return convertToDTO(task);
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<Task> accepted = new ArrayList<>(requests.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(requests.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < requests.size(); i++) {
+            TaskSubmissionRequest request = requests.get(i);
+            String rejection = validateSubmission(request);
+            if (rejection != null) {
+                results[i] = BatchItemResult.builder()
+                        .index(i)
+                        .status("REJECTED")
+                        .message(rejection)
+                        .build();
+                continue;
+            }
+            Task task = Task.builder()
+                    .id(UUID.randomUUID())
+                    .type(request.getType())
+                    .status(Task.TaskStatus.PENDING)
+                    .payload(request.getPayload())
+                    .priority(request.getPriority() != null ? request.getPriority() : 5)
+                    .maxRetries(request.getMaxRetries() != null ? request.getMaxRetries() : 3)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+            offloadPayload(task);
+            accepted.add(task);
+            acceptedIndexes.add(i);
+        }
+
+        if (!accepted.isEmpty()) {
+            taskBatchRepository.insertAll(accepted);
+            taskBatchRepository.insertOutbox(accepted, this::routingKeyFor);
+            publishTransitions(accepted.stream()
+                    .map(task -> TaskTransition.of(task, null, Task.TaskStatus.PENDING).build())
+                    .toList());
+            log.info("Batch of {} tasks created", accepted.size());
+        }
+
+        for (int i = 0; i < accepted.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            results[index] = BatchItemResult.builder()
+                    .index(index)
+                    .taskId(accepted.get(i).getId())
+                    .status(Task.TaskStatus.PENDING.name())
+                    .build();
+        }
+
+        return BatchSubmissionResponse.builder()
+                .submitted(requests.size())
+                .accepted(accepted.size())
+                .rejected(requests.size() - accepted.size())
+                .items(List.of(results))
+                .build();
+    }
+
+    private String validateSubmission(TaskSubmissionRequest request) {
+        if (request == null) {
+            return "Task must not be null";
+        }
+        var violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (JsonUtil.isValidJson(request.getPayload())) {
+            return "Invalid JSON payload";
+        }
+        if (!taskRouting.supports(request.getType())) {
+            return "Unsupported task type: " + request.getType();
+        }
+        return null;
+    }
+
+    private void offloadPayload(Task task) {
+        String ref = taskBlobService.offload(task.getPayload());
+        if (ref != null) {
+            task.setPayloadRef(ref);
+            task.setPayload(null);
+        }
+    }
+
+    private void enqueue(Task task, long delayMs) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.save(OutboxMessage.builder()
+                .taskId(task.getId())
+                .routingKey(routingKeyFor(task))
+                .createdAt(now)
+                .availableAt(now.plus(delayMs, ChronoUnit.MILLIS))
+                .build());
     }
 
     @Transactional
     public void deleteTask(UUID taskId) {
-        if (!taskRepository.existsById(taskId)) {
-            throw new RuntimeException("Task not found");
-        }
-        taskRepository.deleteById(taskId);
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        taskRepository.delete(task);
+        taskBlobService.deleteAfterCommit(task.getPayloadRef(), task.getResultRef());
+        publishTransition(task, task.getStatus(), null);
         log.info("Task {} deleted", taskId);
     }
 
+    /**
+     * Starts a task that is waiting to run. A late or duplicated callback for
+     * a task that is already running or finished changes nothing.
+     */
     @Transactional
     public void markTaskProcessing(UUID taskId, String workerId) {
-        Task task = taskRepository.findById(taskId)
+        Task task = taskRepository.findByIdForUpdate(taskId)
                 .orElseThrow(() -> new RuntimeException("Task not found"));
 
+        Task.TaskStatus from = task.getStatus();
+        if (!PROCESSING_FROM.contains(from)) {
+            log.info("Ignoring start of task {} in status {}", taskId, from);
+            return;
+        }
         task.setStatus(Task.TaskStatus.PROCESSING);
         task.setWorkerId(workerId);
         task.setStartedAt(LocalDateTime.now());
         taskRepository.save(task);
+        publishTransition(task, from, Task.TaskStatus.PROCESSING);
 
         log.info("Task {} marked as processing by worker {}", taskId, workerId);
     }
 
+    /**
+     * Completes a task unless it already finished; a duplicate callback
+     * changes nothing.
+     *
+     * @param resultRef blob store reference of a result the worker stored
+     *                  itself, in which case {@code result} is null
+     */
     @Transactional
-    public void markTaskCompleted(UUID taskId, String result) {
-        if(JsonUtil.isValidJson(result)){
-            throw new RuntimeException("Invalid JSON payload");
+    public void markTaskCompleted(UUID taskId, String result, String resultRef) {
+        if (resultRef == null) {
+            if (JsonUtil.isValidJson(result)) {
+                throw new RuntimeException("Invalid JSON payload");
+            }
+            resultRef = taskBlobService.offload(result);
+            if (resultRef != null) {
+                result = null;
+            }
         }
 
-        Task task = taskRepository.findById(taskId)
+        Task task = taskRepository.findByIdForUpdate(taskId)
                 .orElseThrow(() -> new RuntimeException("Task not found"));
 
+        Task.TaskStatus from = task.getStatus();
+        if (FINAL_STATES.contains(from)) {
+            log.info("Ignoring completion of task {} in status {}", taskId, from);
+            discardResultRef(resultRef, task.getResultRef());
+            return;
+        }
+        discardResultRef(task.getResultRef(), resultRef);
         task.setStatus(Task.TaskStatus.COMPLETED);
         task.setResult(result);
+        task.setResultRef(resultRef);
         task.setCompletedAt(LocalDateTime.now());
         taskRepository.save(task);
-
+        publishTransition(task, from, Task.TaskStatus.COMPLETED);
 
         log.info("Task {} completed successfully", taskId);
 
-        WorkerHealth workerHealth =  workerHealthRepository.findByWorkerId(task.getWorkerId())
-                .orElseThrow(() -> new RuntimeException("Task not found"));;
-        workerHealth.setTotalProcessed(workerHealth.getTotalProcessed() + 1);
-        workerHealth.setActiveTasks(workerHealth.getActiveTasks() - 1);
-        workerHealthRepository.save(workerHealth);
+        if (task.getWorkerId() != null) {
+            workerHealthRepository.addTaskTotals(task.getWorkerId(), 1, 0, 1);
+        }
     }
 
+    /**
+     * Fails or schedules a retry for a task that is PROCESSING. Failures for
+     * tasks in any other state, such as a redelivered failure or one that
+     * arrives after the task completed, are ignored.
+     */
     @Transactional
     public void markTaskFailed(UUID taskId, String errorMessage, boolean shouldRetry) {
-        Task task = taskRepository.findById(taskId)
+        Task task = taskRepository.findByIdForUpdate(taskId)
                 .orElseThrow(() -> new RuntimeException("Task not found"));
+        if (task.getStatus() != Task.TaskStatus.PROCESSING) {
+            log.info("Ignoring failure of task {} in status {}", taskId, task.getStatus());
+            return;
+        }
+        fail(task, errorMessage, shouldRetry);
+    }
 
+    // The task must be locked and PROCESSING; returns its new status
+    private Task.TaskStatus fail(Task task, String errorMessage, boolean shouldRetry) {
+        UUID taskId = task.getId();
+        Task.TaskStatus from = task.getStatus();
         task.setRetryCount(task.getRetryCount() + 1);
         task.setErrorMessage(errorMessage);
 
         if (shouldRetry && task.getRetryCount() < task.getMaxRetries()) {
             // Calculate exponential backoff delay
-            long delayMs = calculateBackoffDelay(task.getRetryCount());
+            long delayMs = RetryUtil.calculateExponentialBackoffWithJitter(task.getRetryCount());
 
             task.setStatus(Task.TaskStatus.RETRYING);
             taskRepository.save(task);
+            publishTransition(task, from, Task.TaskStatus.RETRYING);
 
             log.info("Task {} will retry in {}ms (attempt {}/{})",
                     taskId, delayMs, task.getRetryCount(), task.getMaxRetries());
 
-            // Schedule retry (using RabbitMQ delayed message plugin or Spring scheduler)
             scheduleRetry(task, delayMs);
+            return Task.TaskStatus.RETRYING;
         } else {
             task.setStatus(Task.TaskStatus.FAILED);
             task.setCompletedAt(LocalDateTime.now());
             taskRepository.save(task);
+            publishTransition(task, from, Task.TaskStatus.FAILED);
 
             log.error("Task {} permanently failed after {} attempts",
                     taskId, task.getRetryCount());
 
-            WorkerHealth workerHealth =  workerHealthRepository.findByWorkerId(task.getWorkerId())
-                    .orElseThrow(() -> new RuntimeException("Task not found"));
-            workerHealth.setTotalFailed(workerHealth.getTotalFailed() + 1);
-            workerHealthRepository.save(workerHealth);
+            if (task.getWorkerId() != null) {
+                workerHealthRepository.addTaskTotals(task.getWorkerId(), 0, 1, 0);
+            }
+            return Task.TaskStatus.FAILED;
         }
     }
 
-    private long calculateBackoffDelay(int retryCount) {
-        // Exponential backoff: 1s, 2s, 4s, 8s, etc.
-        return (long) (1000 * Math.pow(2, retryCount - 1));
+    /**
+     * Applies status transitions buffered by workers. PROCESSING and COMPLETED
+     * updates become one batched UPDATE each, with worker totals summed per worker.
+     * Failures are applied one by one since each needs its own retry decision.
+     * All affected rows are locked first, and updates that do not apply to the
+     * current status are skipped, not rejected, so redelivered batches are no-ops.
+     *
+     * @return number of updates applied
+     */
+    @Transactional
+    public int applyStatusUpdates(List<TaskStatusUpdate> updates) {
+        if (updates == null || updates.isEmpty()) {
+            return 0;
+        }
+        if (updates.size() > maxStatusBatchSize) {
+            throw new IllegalArgumentException(
+                    "Status batch size " + updates.size() + " exceeds the maximum of " + maxStatusBatchSize);
+        }
+
+        List<TaskStatusUpdate> processing = new ArrayList<>();
+        List<TaskStatusUpdate> completed = new ArrayList<>();
+        List<TaskStatusUpdate> failed = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (TaskStatusUpdate update : updates) {
+            if (update.getTaskId() == null || update.getStatus() == null) {
+                log.warn("Ignoring incomplete status update {}", update);
+                continue;
+            }
+            if (update.getTimestamp() == null) {
+                update.setTimestamp(now);
+            }
+            switch (update.getStatus()) {
+                case "PROCESSING" -> processing.add(update);
+                case "COMPLETED" -> {
+                    if (update.getResultRef() != null) {
+                        completed.add(update);
+                    } else if (JsonUtil.isValidJson(update.getResult())) {
+                        update.setErrorMessage("Invalid JSON result");
+                        update.setShouldRetry(false);
+                        failed.add(update);
+                    } else {
+                        // Results from workers that do not offload themselves
+                        update.setResultRef(taskBlobService.offload(update.getResult()));
+                        if (update.getResultRef() != null) {
+                            update.setResult(null);
+                        }
+                        completed.add(update);
+                    }
+                }
+                case "FAILED" -> failed.add(update);
+                default -> log.warn("Ignoring status {} for task {}", update.getStatus(), update.getTaskId());
+            }
+        }
+
+        // PROCESSING first, so a task that started and finished within one
+        // batch ends up COMPLETED. The rows are locked first, so replaying the
+        // UPDATE guards on their current states yields exactly the transitions
+        // the UPDATEs make, and only the updates that apply are written
+        Map<UUID, Task> current = taskBatchRepository.lockStates(Stream.of(processing, completed, failed)
+                .flatMap(List::stream)
+                .map(TaskStatusUpdate::getTaskId)
+                .collect(Collectors.toSet()));
+        List<TaskTransition> transitions = new ArrayList<>();
+        List<TaskStatusUpdate> started = new ArrayList<>();
+        for (TaskStatusUpdate update : processing) {
+            Task task = current.get(update.getTaskId());
+            if (task != null && PROCESSING_FROM.contains(task.getStatus())) {
+                Task.TaskStatus from = task.getStatus();
+                task.setStatus(Task.TaskStatus.PROCESSING);
+                task.setWorkerId(update.getWorkerId());
+                task.setStartedAt(update.getTimestamp());
+                transitions.add(TaskTransition.of(task, from, Task.TaskStatus.PROCESSING).build());
+                started.add(update);
+            }
+        }
+        List<TaskStatusUpdate> finished = new ArrayList<>();
+        for (TaskStatusUpdate update : completed) {
+            Task task = current.get(update.getTaskId());
+            if (task != null && !FINAL_STATES.contains(task.getStatus())) {
+                Task.TaskStatus from = task.getStatus();
+                discardResultRef(task.getResultRef(), update.getResultRef());
+                task.setStatus(Task.TaskStatus.COMPLETED);
+                if (update.getWorkerId() != null) {
+                    task.setWorkerId(update.getWorkerId());
+                }
+                task.setResultRef(update.getResultRef());
+                task.setCompletedAt(update.getTimestamp());
+                transitions.add(TaskTransition.of(task, from, Task.TaskStatus.COMPLETED).build());
+                finished.add(update);
+            } else {
+                discardResultRef(update.getResultRef(), task != null ? task.getResultRef() : null);
+            }
+        }
+
+        int applied = 0;
+        if (!started.isEmpty()) {
+            applied += taskBatchRepository.markProcessing(started);
+        }
+        if (!finished.isEmpty()) {
+            applied += taskBatchRepository.markCompleted(finished);
+            transitions.stream()
+                    .filter(transition -> transition.getTo() == Task.TaskStatus.COMPLETED
+                            && transition.getWorkerId() != null)
+                    .collect(Collectors.groupingBy(TaskTransition::getWorkerId, Collectors.counting()))
+                    .forEach((workerId, count) ->
+                            workerHealthRepository.addTaskTotals(workerId, count, 0, count.intValue()));
+        }
+        publishTransitions(transitions);
+        for (TaskStatusUpdate update : failed) {
+            Task state = current.get(update.getTaskId());
+            if (state == null || state.getStatus() != Task.TaskStatus.PROCESSING) {
+                continue;
+            }
+            // Already locked by lockStates
+            Task task = taskRepository.findById(update.getTaskId()).orElse(null);
+            if (task == null) {
+                continue;
+            }
+            state.setStatus(fail(task, update.getErrorMessage(),
+                    update.getShouldRetry() == null || update.getShouldRetry()));
+            applied++;
+        }
+
+        log.debug("Applied {} of {} status updates", applied, updates.size());
+        return applied;
+    }
+
+    // Deletes the blob behind ref after commit unless the task keeps it
+    private void discardResultRef(String ref, String kept) {
+        if (ref != null && !ref.equals(kept)) {
+            taskBlobService.deleteAfterCommit(ref);
+        }
+    }
+
+    private void publishTransition(Task task, Task.TaskStatus from, Task.TaskStatus to) {
+        if (from != to) {
+            publishTransitions(List.of(TaskTransition.of(task, from, to).build()));
+        }
+    }
+
+    private void publishTransitions(List<TaskTransition> transitions) {
+        if (!transitions.isEmpty()) {
+            eventPublisher.publishEvent(new TaskTransitionEvent(transitions));
+        }
+    }
+
+    private String routingKeyFor(Task task) {
+        return taskRouting.routingKey(task.getType(), PriorityBand.of(task.getPriority()));
     }
 
     private void scheduleRetry(Task task, long delayMs) {
-        // Using x-delay header for RabbitMQ delayed messages
-        rabbitTemplate.convertAndSend(exchange, routingKey,
-                convertToDTO(task), message -> {
-                    message.getMessageProperties().setHeader("x-delay", delayMs);
-                    return message;
-                });
+        // The outbox row becomes due after the delay; no thread or broker
+        // message is held while the task waits
+        enqueue(task, delayMs);
     }
 
-    public TaskDTO getTask(UUID taskId) {
-        Task task = taskRepository.findById(taskId)
+    public String getTaskETag(UUID taskId) {
+        TaskDTO cached = taskCacheService.getIfPresent(taskId);
+        if (cached != null) {
+            return ResourceVersionService.taskETag(cached.getUpdatedAt());
+        }
+        return taskRepository.findUpdatedAtById(taskId)
+                .or(() -> taskArchiveRepository.findUpdatedAtById(taskId))
+                .map(ResourceVersionService::taskETag)
                 .orElseThrow(() -> new RuntimeException("Task not found"));
-        return convertToDTO(task);
     }
 
-    public Page<TaskDTO> getAllTasks(Pageable pageable) {
-        return taskRepository.findAll(pageable).map(this::convertToDTO);
+    /**
+     * Falls back to {@code tasks_archive} for finished tasks the retention
+     * job has moved out of {@code tasks}. Payloads and results in the blob
+     * store are read on every call; the cache only holds their references.
+     */
+    public TaskDTO getTask(UUID taskId) {
+        return withBlobs(taskCacheService.get(taskId, id -> convertToDTO(taskRepository.findById(id)
+                .or(() -> taskArchiveRepository.findById(id))
+                .orElseThrow(() -> new RuntimeException("Task not found")))));
+    }
+
+    private TaskDTO withBlobs(TaskDTO task) {
+        if (task.getPayloadRef() == null && task.getResultRef() == null) {
+            return task;
+        }
+        // Copy, the cached instance is shared
+        TaskDTO.TaskDTOBuilder resolved = task.toBuilder();
+        if (task.getPayloadRef() != null) {
+            resolved.payload(taskBlobService.load(task.getPayloadRef()));
+        }
+        if (task.getResultRef() != null) {
+            resolved.result(taskBlobService.load(task.getResultRef()));
+        }
+        return resolved.build();
+    }
+
+    /**
+     * @param fields {@link TaskFields#SUMMARY} reads only the columns in
+     *               {@link TaskSummary} and leaves the TEXT fields null
+     */
+    public Page<TaskDTO> getAllTasks(Pageable pageable, TaskFields fields) {
+        if (fields == TaskFields.FULL) {
+            return taskRepository.findAll(pageable).map(this::convertToDTO);
+        }
+        return taskRepository.findBy(pageable, TaskSummary.class).map(this::convertToDTO);
+    }
+
+    public Page<TaskDTO> getTasksByStatus(Task.TaskStatus status, Pageable pageable, TaskFields fields) {
+        LocalDateTime since = taskPartitionService.createdAtLowerBound(status);
+        if (fields == TaskFields.FULL) {
+            return taskRepository.findByStatusAndCreatedAtGreaterThanEqual(status, since, pageable, Task.class)
+                    .map(this::convertToDTO);
+        }
+        return taskRepository.findByStatusAndCreatedAtGreaterThanEqual(status, since, pageable, TaskSummary.class)
+                .map(this::convertToDTO);
+    }
+
+    /**
+     * Lists tasks ordered by {@code (createdAt, id)} starting after
+     * {@code cursor}. Unlike the offset listings this never counts rows and
+     * reads only {@code size + 1} index entries, however deep the page is.
+     *
+     * @param status only tasks in this status, or all tasks when null
+     * @param cursor {@code nextCursor} of the previous page, or null/blank for the first page
+     */
+    public CursorSliceDTO<TaskDTO> scrollTasks(Task.TaskStatus status, String cursor, int size,
+                                               Sort.Direction direction, TaskFields fields) {
+        TaskCursor position = TaskCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size);
+        boolean newestFirst = direction == Sort.Direction.DESC;
+
+        if (fields == TaskFields.FULL) {
+            return toCursorSlice(scroll(status, position, limit, newestFirst, Task.class),
+                    task -> new TaskCursor(task.getCreatedAt(), task.getId()), this::convertToDTO);
+        }
+        return toCursorSlice(scroll(status, position, limit, newestFirst, TaskSummary.class),
+                task -> new TaskCursor(task.createdAt(), task.id()), this::convertToDTO);
     }
 
-    public Page<TaskDTO> getTasksByStatus(Task.TaskStatus status, Pageable pageable) {
-        return taskRepository.findByStatus(status, pageable).map(this::convertToDTO);
+    private <T> Slice<T> scroll(Task.TaskStatus status, TaskCursor position, Pageable limit,
+                                boolean newestFirst, Class<T> type) {
+        if (status == null) {
+            if (position == null) {
+                return newestFirst
+                        ? taskRepository.findAllByOrderByCreatedAtDescIdDesc(limit, type)
+                        : taskRepository.findAllByOrderByCreatedAtAscIdAsc(limit, type);
+            }
+            return newestFirst
+                    ? taskRepository.findBefore(position.getCreatedAt(), position.getId(), limit, type)
+                    : taskRepository.findAfter(position.getCreatedAt(), position.getId(), limit, type);
+        }
+        LocalDateTime since = taskPartitionService.createdAtLowerBound(status);
+        if (position == null) {
+            return newestFirst
+                    ? taskRepository.findByStatusAndCreatedAtGreaterThanEqualOrderByCreatedAtDescIdDesc(
+                            status, since, limit, type)
+                    : taskRepository.findByStatusAndCreatedAtGreaterThanEqualOrderByCreatedAtAscIdAsc(
+                            status, since, limit, type);
+        }
+        return newestFirst
+                ? taskRepository.findByStatusBefore(status, since, position.getCreatedAt(), position.getId(), limit, type)
+                : taskRepository.findByStatusAfter(status, since, position.getCreatedAt(), position.getId(), limit, type);
+    }
+
+    private <T> CursorSliceDTO<TaskDTO> toCursorSlice(Slice<T> slice, Function<T, TaskCursor> cursorOf,
+                                                      Function<T, TaskDTO> toDto) {
+        List<T> tasks = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !tasks.isEmpty()) {
+            nextCursor = cursorOf.apply(tasks.get(tasks.size() - 1)).encode();
+        }
+        return CursorSliceDTO.<TaskDTO>builder()
+                .content(tasks.stream().map(toDto).toList())
+                .size(tasks.size())
+                .hasNext(slice.hasNext())
+                .nextCursor(nextCursor)
+                .build();
     }
 
     public List<TaskDTO> getTaskByStatusAndCreatedAtBefore( Task.TaskStatus status, LocalDateTime dateTime){
-        List<Task> tasks = taskRepository.findByStatusAndCreatedAtBefore(status, dateTime);
+        List<Task> tasks = taskRepository.findByStatusAndCreatedAtGreaterThanEqualAndCreatedAtBefore(
+                status, taskPartitionService.createdAtLowerBound(status), dateTime);
         return tasks.stream().map(this::convertToDTO).toList();
     }
 
-    private TaskDTO convertToDTO(Task task) {
+    TaskDTO convertToDTO(Task task) {
         return TaskDTO.builder()
                 .id(task.getId())
                 .type(task.getType())
                 .status(task.getStatus().name())
                 .payload(task.getPayload())
                 .result(task.getResult())
+                .payloadRef(task.getPayloadRef())
+                .resultRef(task.getResultRef())
                 .retryCount(task.getRetryCount())
                 .maxRetries(task.getMaxRetries())
                 .createdAt(task.getCreatedAt())
@@ -205,4 +649,25 @@ public class TaskService {
                 .priority(task.getPriority())
                 .build();
     }
+
+    TaskDTO convertToDTO(TaskSummary task) {
+        return TaskDTO.builder()
+                .id(task.id())
+                .type(task.type())
+                .status(task.status().name())
+                .retryCount(task.retryCount())
+                .maxRetries(task.maxRetries())
+                .createdAt(task.createdAt())
+                .updatedAt(task.updatedAt())
+                .startedAt(task.startedAt())
+                .completedAt(task.completedAt())
+                .workerId(task.workerId())
+                .errorMessage(truncate(task.errorMessage(), SUMMARY_ERROR_LENGTH))
+                .priority(task.priority())
+                .build();
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
 }
@@ -0,0 +1,129 @@
+package org.example.apiserver.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.apiserver.event.TaskTransition;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.example.apiserver.model.Task;
+import org.example.apiserver.repository.TaskRepository;
+import org.example.apiserver.repository.TaskStatusCounterRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps per-status task counts up to date as tasks change state, so statistics
+ * reads no longer scan the tasks table. Deltas are written in the transaction
+ * that makes the transition and are therefore exact; the reconciliation job
+ * checks that and repairs any drift, e.g. from rows changed outside the API.
+ */
+@Service
+@Slf4j
+public class TaskStatusCounterService {
+    private final TaskStatusCounterRepository counterRepository;
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTemplate;
+    private final Counter correctionCounter;
+
+    public TaskStatusCounterService(TaskStatusCounterRepository counterRepository,
+                                    TaskRepository taskRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.counterRepository = counterRepository;
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Task counts and counter sums must come from the same snapshot
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.correctionCounter = Counter.builder("task.status.counter.corrections")
+                .description("Status counters corrected by reconciliation")
+                .register(meterRegistry);
+    }
+
+    // Runs inside the publisher's transaction, so the deltas commit or roll
+    // back together with the transitions
+    @EventListener
+    public void onTransitions(TaskTransitionEvent event) {
+        Map<Task.TaskStatus, Long> deltas = new EnumMap<>(Task.TaskStatus.class);
+        for (TaskTransition transition : event.getTransitions()) {
+            if (transition.getFrom() != null) {
+                deltas.merge(transition.getFrom(), -1L, Long::sum);
+            }
+            if (transition.getTo() != null) {
+                deltas.merge(transition.getTo(), 1L, Long::sum);
+            }
+        }
+        counterRepository.addDeltas(byName(deltas));
+    }
+
+    /**
+     * Current number of tasks per status; statuses without tasks are omitted.
+     */
+    public Map<String, Long> getCounts() {
+        Map<String, Long> counts = counterRepository.sumByStatus();
+        counts.values().removeIf(count -> count == 0);
+        return counts;
+    }
+
+    @Scheduled(fixedDelayString = "${app.statistics.counters.compact-interval-ms:5000}")
+    public void compact() {
+        Integer folded = transactionTemplate.execute(status -> counterRepository.compact());
+        log.debug("Folded {} status counter rows", folded);
+    }
+
+    /**
+     * Compares the counters with a GROUP BY over the tasks table and inserts a
+     * correction for every status that differs. Runs once at startup, which also
+     * seeds the counters for an existing tasks table, and then periodically.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.statistics.counters.reconcile-interval-ms:3600000}",
+            fixedDelayString = "${app.statistics.counters.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        Integer corrected = snapshotTemplate.execute(status -> {
+            if (!counterRepository.tryLockReconciliation()) {
+                return null;
+            }
+            Map<String, Long> actual = new HashMap<>();
+            List<Object[]> rows = taskRepository.getTaskStatistics();
+            for (Object[] row : rows) {
+                actual.put(row[0].toString(), (Long) row[1]);
+            }
+            Map<String, Long> counted = counterRepository.sumByStatus();
+
+            Map<String, Long> corrections = new HashMap<>();
+            for (Task.TaskStatus taskStatus : Task.TaskStatus.values()) {
+                String name = taskStatus.name();
+                long difference = actual.getOrDefault(name, 0L) - counted.getOrDefault(name, 0L);
+                if (difference != 0) {
+                    corrections.put(name, difference);
+                    log.warn("Status counter for {} was off by {}, corrected", name, difference);
+                }
+            }
+            counterRepository.addDeltas(corrections);
+            return corrections.size();
+        });
+        if (corrected == null) {
+            log.debug("Status counter reconciliation already running on another instance");
+        } else if (corrected > 0) {
+            correctionCounter.increment(corrected);
+        }
+    }
+
+    private Map<String, Long> byName(Map<Task.TaskStatus, Long> deltas) {
+        Map<String, Long> named = new HashMap<>();
+        deltas.forEach((status, delta) -> named.put(status.name(), delta));
+        return named;
+    }
+}
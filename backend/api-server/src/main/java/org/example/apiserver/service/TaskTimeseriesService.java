@@ -0,0 +1,143 @@
+package org.example.apiserver.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.apiserver.config.TaskRouting;
+import org.example.apiserver.dto.LatencySummaryDTO;
+import org.example.apiserver.dto.TaskTimeseriesDTO;
+import org.example.apiserver.event.TaskTransition;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.example.apiserver.model.Task;
+import org.example.apiserver.util.RollingHistogram;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Queue-wait and execution time percentiles per task type over rolling
+ * windows, fed from committed task transitions. Each API server only sees
+ * the transitions it applied itself.
+ */
+@Service
+public class TaskTimeseriesService {
+    private static final long HIGHEST_TRACKABLE_MS = Duration.ofDays(1).toMillis();
+
+    private final Map<String, Series> series = new LinkedHashMap<>();
+
+    public TaskTimeseriesService(TaskRouting taskRouting, MeterRegistry meterRegistry) {
+        // One series per configured type keeps memory bounded
+        for (String type : taskRouting.getTaskTypes()) {
+            Series typeSeries = new Series(new RollingHistogram(HIGHEST_TRACKABLE_MS),
+                    new RollingHistogram(HIGHEST_TRACKABLE_MS));
+            series.put(type, typeSeries);
+            registerGauges(meterRegistry, type, typeSeries);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransitions(TaskTransitionEvent event) {
+        for (TaskTransition transition : event.getTransitions()) {
+            Series typeSeries = series.get(transition.getType());
+            if (typeSeries == null) {
+                continue;
+            }
+            if (transition.getTo() == Task.TaskStatus.PROCESSING) {
+                record(typeSeries.queueWait(), transition.getCreatedAt(), transition.getStartedAt());
+            } else if (transition.getTo() == Task.TaskStatus.COMPLETED
+                    || transition.getTo() == Task.TaskStatus.FAILED) {
+                record(typeSeries.execution(), transition.getStartedAt(), transition.getCompletedAt());
+            }
+        }
+    }
+
+    @Scheduled(fixedRate = RollingHistogram.SLOT_MS)
+    public void rotate() {
+        for (Series typeSeries : series.values()) {
+            typeSeries.queueWait().rotate();
+            typeSeries.execution().rotate();
+        }
+    }
+
+    /**
+     * @param type task type to report, or null for all types
+     */
+    public List<TaskTimeseriesDTO> getTimeseries(String type) {
+        if (type != null && !series.containsKey(type)) {
+            throw new IllegalArgumentException("Unsupported task type: " + type);
+        }
+        List<TaskTimeseriesDTO> result = new ArrayList<>();
+        series.forEach((seriesType, typeSeries) -> {
+            if (type != null && !type.equals(seriesType)) {
+                return;
+            }
+            for (RollingHistogram.Window window : RollingHistogram.Window.values()) {
+                RollingHistogram.Snapshot execution = typeSeries.execution().snapshot(window);
+                result.add(TaskTimeseriesDTO.builder()
+                        .type(seriesType)
+                        .window(window.label())
+                        .throughputPerSecond((double) execution.count() / window.seconds())
+                        .queueWait(toDto(typeSeries.queueWait().snapshot(window)))
+                        .execution(toDto(execution))
+                        .build());
+            }
+        });
+        return result;
+    }
+
+    private void record(RollingHistogram histogram, LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null) {
+            histogram.record(Duration.between(from, to).toMillis());
+        }
+    }
+
+    private void registerGauges(MeterRegistry meterRegistry, String type, Series typeSeries) {
+        for (RollingHistogram.Window window : RollingHistogram.Window.values()) {
+            registerLatencyGauges(meterRegistry, "task.queue.wait", type, window, typeSeries.queueWait());
+            registerLatencyGauges(meterRegistry, "task.execution", type, window, typeSeries.execution());
+            Gauge.builder("task.throughput", typeSeries.execution(),
+                            histogram -> (double) histogram.snapshot(window).count() / window.seconds())
+                    .description("Tasks finished per second")
+                    .tag("type", type)
+                    .tag("window", window.label())
+                    .register(meterRegistry);
+        }
+    }
+
+    private void registerLatencyGauges(MeterRegistry meterRegistry, String name, String type,
+                                       RollingHistogram.Window window, RollingHistogram histogram) {
+        Map<String, ToDoubleFunction<RollingHistogram.Snapshot>> quantiles = Map.of(
+                "0.5", RollingHistogram.Snapshot::p50,
+                "0.95", RollingHistogram.Snapshot::p95,
+                "0.99", RollingHistogram.Snapshot::p99);
+        quantiles.forEach((quantile, value) ->
+                Gauge.builder(name, histogram, h -> value.applyAsDouble(h.snapshot(window)))
+                        .tag("type", type)
+                        .tag("window", window.label())
+                        .tag("quantile", quantile)
+                        .baseUnit("milliseconds")
+                        .register(meterRegistry));
+    }
+
+    private LatencySummaryDTO toDto(RollingHistogram.Snapshot snapshot) {
+        return LatencySummaryDTO.builder()
+                .count(snapshot.count())
+                .meanMs(snapshot.mean())
+                .p50Ms(snapshot.p50())
+                .p95Ms(snapshot.p95())
+                .p99Ms(snapshot.p99())
+                .maxMs(snapshot.max())
+                .build();
+    }
+
+    private record Series(RollingHistogram queueWait, RollingHistogram execution) {
+    }
+}
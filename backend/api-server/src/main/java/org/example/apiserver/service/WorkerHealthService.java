@@ -1,69 +1,330 @@
 package org.example.apiserver.service;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.apiserver.dto.WorkerHealthDTO;
+import org.example.apiserver.event.TaskTransition;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.example.apiserver.event.WorkerHealthChangedEvent;
+import org.example.apiserver.model.Task;
 import org.example.apiserver.model.WorkerHealth;
 import org.example.apiserver.repository.WorkerHealthRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Registry of worker nodes, held in memory.
+ * <p>
+ * Heartbeats update the in-memory state and a Redis hash shared by all API
+ * servers; the database is only written when a worker first registers or its
+ * status changes, and every {@code app.workers.registry.snapshot-interval-ms}
+ * as a snapshot of the latest heartbeats. A worker is live while its last
+ * heartbeat, on any API server, is younger than
+ * {@code app.workers.registry.heartbeat-timeout-ms}; the liveness check runs
+ * in memory every {@code app.workers.registry.refresh-interval-ms} after
+ * merging the heartbeats other servers received.
+ * <p>
+ * Task totals are kept in the database. The in-memory copies follow the
+ * transitions this server commits and are reloaded with every snapshot.
+ * <p>
+ * Every change to what {@link #getAllWorkers} returns publishes a
+ * {@link WorkerHealthChangedEvent}, including state merged from Redis or
+ * reloaded from the database.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class WorkerHealthService {
+    static final String HEARTBEATS_KEY = "workers:heartbeats";
+
     private final WorkerHealthRepository workerHealthRepository;
-    private static final int HEARTBEAT_TIMEOUT_SECONDS = 60;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final long heartbeatTimeoutMs;
+    private final Map<String, WorkerHealthDTO> workers = new ConcurrentHashMap<>();
+    private LocalDateTime lastSnapshotAt = LocalDateTime.MIN;
+
+    public WorkerHealthService(WorkerHealthRepository workerHealthRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               RedisTemplate<String, String> redisTemplate,
+                               JsonMapper jsonMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.workers.registry.heartbeat-timeout-ms:60000}") long heartbeatTimeoutMs) {
+        this.workerHealthRepository = workerHealthRepository;
+        this.eventPublisher = eventPublisher;
+        this.redisTemplate = redisTemplate;
+        this.jsonMapper = jsonMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.heartbeatTimeoutMs = heartbeatTimeoutMs;
+    }
 
-    @Transactional
     public void updateHeartbeat(WorkerHealthDTO dto) {
-        WorkerHealth worker = workerHealthRepository.findByWorkerId(dto.getWorkerId())
-                .orElse(WorkerHealth.builder()
-                        .workerId(dto.getWorkerId())
-                        .build());
-
-        worker.setLastHeartbeat(LocalDateTime.now());
-        worker.setStatus(WorkerHealth.WorkerStatus.valueOf(dto.getStatus()));
-        worker.setActiveTasks(dto.getActiveTasks());
-        worker.setCpuUsage(dto.getCpuUsage());
-        worker.setMemoryUsage(dto.getMemoryUsage());
-
-        workerHealthRepository.save(worker);
+        WorkerHealth.WorkerStatus status = WorkerHealth.WorkerStatus.valueOf(dto.getStatus());
+        if (!workers.containsKey(dto.getWorkerId())) {
+            workers.putIfAbsent(dto.getWorkerId(), register(dto.getWorkerId()));
+        }
+
+        AtomicReference<String> previousStatus = new AtomicReference<>();
+        WorkerHealthDTO worker = workers.compute(dto.getWorkerId(), (id, current) -> {
+            previousStatus.set(current.getStatus());
+            WorkerHealthDTO updated = copy(current);
+            updated.setStatus(status.name());
+            updated.setLastHeartbeat(LocalDateTime.now());
+            updated.setActiveTasks(dto.getActiveTasks());
+            updated.setCpuUsage(dto.getCpuUsage());
+            updated.setMemoryUsage(dto.getMemoryUsage());
+            return updated;
+        });
+        if (!worker.getStatus().equals(previousStatus.get())) {
+            saveState(List.of(worker));
+        }
+        share(worker);
+
+        eventPublisher.publishEvent(new WorkerHealthChangedEvent(List.of(worker)));
         log.debug("Updated heartbeat for worker: {}", dto.getWorkerId());
     }
 
     public List<WorkerHealthDTO> getAllWorkers() {
-        return workerHealthRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return workers.values().stream()
+                .sorted(Comparator.comparing(WorkerHealthDTO::getWorkerId))
+                .toList();
     }
 
     public WorkerHealthDTO getWorker(String workerId) {
-        WorkerHealth worker = workerHealthRepository.findByWorkerId(workerId)
-                .orElseThrow(() -> new RuntimeException("Worker not found"));
-        return convertToDTO(worker);
+        WorkerHealthDTO worker = workers.get(workerId);
+        if (worker == null) {
+            throw new RuntimeException("Worker not found");
+        }
+        return worker;
+    }
+
+    public long countByStatus(WorkerHealth.WorkerStatus status) {
+        return workers.values().stream()
+                .filter(worker -> status.name().equals(worker.getStatus()))
+                .count();
     }
 
-    @Scheduled(fixedRate = 30000) // Run every 30 seconds
-    @Transactional
+    /**
+     * Merges heartbeats received by other API servers and marks workers
+     * without a recent heartbeat OFFLINE.
+     */
+    @Scheduled(fixedDelayString = "${app.workers.registry.refresh-interval-ms:5000}")
     public void checkWorkerHealth() {
-        LocalDateTime threshold = LocalDateTime.now().minusSeconds(HEARTBEAT_TIMEOUT_SECONDS);
-        List<WorkerHealth> staleWorkers = workerHealthRepository
-                .findByLastHeartbeatBefore(threshold);
-
-        for (WorkerHealth worker : staleWorkers) {
-            if (worker.getStatus() != WorkerHealth.WorkerStatus.OFFLINE) {
-                worker.setStatus(WorkerHealth.WorkerStatus.OFFLINE);
-                workerHealthRepository.save(worker);
-                log.warn("Worker {} marked as OFFLINE due to missing heartbeat",
-                        worker.getWorkerId());
+        LocalDateTime threshold = LocalDateTime.now().minus(heartbeatTimeoutMs, ChronoUnit.MILLIS);
+        List<WorkerHealthDTO> revived = new ArrayList<>();
+        List<WorkerHealthDTO> merged = mergeSharedHeartbeats(threshold, revived);
+        List<WorkerHealthDTO> offline = new ArrayList<>();
+
+        for (WorkerHealthDTO worker : workers.values()) {
+            if (!WorkerHealth.WorkerStatus.OFFLINE.name().equals(worker.getStatus())
+                    && worker.getLastHeartbeat() != null
+                    && worker.getLastHeartbeat().isBefore(threshold)) {
+                WorkerHealthDTO expired = copy(worker);
+                expired.setStatus(WorkerHealth.WorkerStatus.OFFLINE.name());
+                expired.setActiveTasks(0);
+                if (workers.replace(worker.getWorkerId(), worker, expired)) {
+                    offline.add(expired);
+                    log.warn("Worker {} marked as OFFLINE due to missing heartbeat", worker.getWorkerId());
+                }
+            }
+        }
+        List<WorkerHealthDTO> changed = new ArrayList<>(revived);
+        changed.addAll(offline);
+        if (!merged.isEmpty()) {
+            eventPublisher.publishEvent(new WorkerHealthChangedEvent(merged, true));
+        }
+        if (!changed.isEmpty()) {
+            saveState(changed);
+        }
+        if (!offline.isEmpty()) {
+            eventPublisher.publishEvent(new WorkerHealthChangedEvent(offline));
+        }
+    }
+
+    /**
+     * Writes the latest heartbeats to the database and reloads task totals
+     * and workers registered through other API servers. Also runs at startup.
+     */
+    @Scheduled(fixedRateString = "${app.workers.registry.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = lastSnapshotAt;
+        saveState(workers.values().stream()
+                .filter(worker -> worker.getLastHeartbeat() != null && worker.getLastHeartbeat().isAfter(since))
+                .toList());
+        lastSnapshotAt = startedAt;
+        List<WorkerHealthDTO> changed = new ArrayList<>();
+        for (WorkerHealth stored : workerHealthRepository.findAll()) {
+            WorkerHealthDTO previous = workers.get(stored.getWorkerId());
+            WorkerHealthDTO reloaded = workers.compute(stored.getWorkerId(), (id, current) -> {
+                if (current == null) {
+                    return convertToDTO(stored);
+                }
+                WorkerHealthDTO updated = copy(current);
+                updated.setTotalProcessed(stored.getTotalProcessed());
+                updated.setTotalFailed(stored.getTotalFailed());
+                updated.setRegisteredAt(stored.getRegisteredAt());
+                return updated;
+            });
+            if (!reloaded.equals(previous)) {
+                changed.add(reloaded);
+            }
+        }
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new WorkerHealthChangedEvent(changed, true));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskTransitions(TaskTransitionEvent event) {
+        for (TaskTransition transition : event.getTransitions()) {
+            if (transition.getWorkerId() == null) {
+                continue;
+            }
+            if (transition.getTo() == Task.TaskStatus.COMPLETED) {
+                workers.computeIfPresent(transition.getWorkerId(), (id, worker) -> {
+                    WorkerHealthDTO updated = copy(worker);
+                    updated.setTotalProcessed(orZero(worker.getTotalProcessed()) + 1);
+                    return updated;
+                });
+            } else if (transition.getTo() == Task.TaskStatus.FAILED) {
+                workers.computeIfPresent(transition.getWorkerId(), (id, worker) -> {
+                    WorkerHealthDTO updated = copy(worker);
+                    updated.setTotalFailed(orZero(worker.getTotalFailed()) + 1);
+                    return updated;
+                });
+            }
+        }
+    }
+
+    private WorkerHealthDTO register(String workerId) {
+        WorkerHealth worker = transactionTemplate.execute(status -> workerHealthRepository.findByWorkerId(workerId)
+                .orElseGet(() -> workerHealthRepository.save(WorkerHealth.builder()
+                        .workerId(workerId)
+                        .status(WorkerHealth.WorkerStatus.OFFLINE)
+                        .build())));
+        return convertToDTO(worker);
+    }
+
+    private void saveState(List<WorkerHealthDTO> changed) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (WorkerHealthDTO worker : changed) {
+                // Never moves a worker back to an older heartbeat written by another server
+                workerHealthRepository.updateState(worker.getWorkerId(),
+                        WorkerHealth.WorkerStatus.valueOf(worker.getStatus()), worker.getLastHeartbeat(),
+                        worker.getActiveTasks(), worker.getCpuUsage(), worker.getMemoryUsage());
+            }
+        });
+    }
+
+    private void share(WorkerHealthDTO worker) {
+        try {
+            redisTemplate.opsForHash().put(HEARTBEATS_KEY, worker.getWorkerId(), jsonMapper.writeValueAsString(worker));
+        } catch (DataAccessException | JacksonException e) {
+            log.warn("Could not share heartbeat of worker {}: {}", worker.getWorkerId(), e.getMessage());
+        }
+    }
+
+    /**
+     * @param revived collects the workers that came back online through a
+     *                heartbeat received by another server
+     * @return every worker whose state changed
+     */
+    private List<WorkerHealthDTO> mergeSharedHeartbeats(LocalDateTime threshold, List<WorkerHealthDTO> revived) {
+        Map<Object, Object> shared;
+        try {
+            shared = redisTemplate.opsForHash().entries(HEARTBEATS_KEY);
+        } catch (DataAccessException e) {
+            log.warn("Could not read shared heartbeats, using local ones: {}", e.getMessage());
+            return new ArrayList<>();
+        }
+
+        List<WorkerHealthDTO> changed = new ArrayList<>();
+        List<Object> expired = new ArrayList<>();
+        // Kept a little past the timeout so every server sees the last one
+        LocalDateTime expiry = threshold.minus(heartbeatTimeoutMs, ChronoUnit.MILLIS);
+        for (Map.Entry<Object, Object> entry : shared.entrySet()) {
+            WorkerHealthDTO heartbeat;
+            try {
+                heartbeat = jsonMapper.readValue((String) entry.getValue(), WorkerHealthDTO.class);
+            } catch (JacksonException e) {
+                expired.add(entry.getKey());
+                continue;
+            }
+            if (heartbeat.getLastHeartbeat().isBefore(expiry)) {
+                expired.add(entry.getKey());
+                continue;
+            }
+            WorkerHealthDTO current = workers.get(heartbeat.getWorkerId());
+            if (current != null && current.getLastHeartbeat() != null
+                    && !heartbeat.getLastHeartbeat().isAfter(current.getLastHeartbeat())) {
+                continue;
+            }
+            WorkerHealthDTO merged = copy(heartbeat);
+            if (current != null) {
+                merged.setTotalProcessed(current.getTotalProcessed());
+                merged.setTotalFailed(current.getTotalFailed());
+                merged.setRegisteredAt(current.getRegisteredAt());
+            }
+            if (merged.equals(current)) {
+                continue;
+            }
+            boolean replaced = current == null
+                    ? workers.putIfAbsent(merged.getWorkerId(), merged) == null
+                    : workers.replace(merged.getWorkerId(), current, merged);
+            if (replaced) {
+                changed.add(merged);
+            }
+            if (replaced && !heartbeat.getLastHeartbeat().isBefore(threshold)
+                    && (current == null || WorkerHealth.WorkerStatus.OFFLINE.name().equals(current.getStatus()))) {
+                revived.add(merged);
             }
         }
+        if (!expired.isEmpty()) {
+            try {
+                redisTemplate.opsForHash().delete(HEARTBEATS_KEY, expired.toArray());
+            } catch (DataAccessException e) {
+                log.debug("Could not remove expired heartbeats: {}", e.getMessage());
+            }
+        }
+        return changed;
+    }
+
+    private WorkerHealthDTO copy(WorkerHealthDTO worker) {
+        return WorkerHealthDTO.builder()
+                .workerId(worker.getWorkerId())
+                .status(worker.getStatus())
+                .lastHeartbeat(worker.getLastHeartbeat())
+                .activeTasks(worker.getActiveTasks())
+                .totalProcessed(worker.getTotalProcessed())
+                .totalFailed(worker.getTotalFailed())
+                .cpuUsage(worker.getCpuUsage())
+                .memoryUsage(worker.getMemoryUsage())
+                .registeredAt(worker.getRegisteredAt())
+                .build();
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
     }
 
     private WorkerHealthDTO convertToDTO(WorkerHealth worker) {
@@ -0,0 +1,15 @@
+package org.example.apiserver.util;
+
+public class RetryUtil {
+    public static long calculateExponentialBackoff(int retryCount) {
+        return (long) (1000 * Math.pow(2, retryCount - 1));
+    }
+
+    // Jitter spreads out retries of tasks that failed together, e.g. when a
+    // downstream service was briefly unavailable
+    public static long calculateExponentialBackoffWithJitter(int retryCount) {
+        long baseDelay = calculateExponentialBackoff(retryCount);
+        double jitter = Math.random() * 0.1; // 10% jitter
+        return (long) (baseDelay * (1 + jitter));
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.apiserver.util;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.PackedHistogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Latency histogram over rolling 1m, 5m and 1h windows.
+ * <p>
+ * Values are recorded into an HdrHistogram {@link Recorder}, which does not
+ * block writers. Every {@link #SLOT_MS} {@link #rotate()} moves the recorded
+ * interval into a ring of 30 ten-second slots (the 1m and 5m windows) and into
+ * the current one of 12 five-minute blocks (the 1h window, which therefore
+ * advances in five-minute steps), then recomputes the window snapshots. Reads
+ * only see those snapshots, so they lag by up to one slot.
+ * <p>
+ * Memory is fixed at 44 packed histograms, whose size grows with the number
+ * of distinct value buckets in use, not with the number of values recorded.
+ */
+public class RollingHistogram {
+    public static final long SLOT_MS = 10_000;
+    private static final int SLOTS = 30;
+    private static final int SLOTS_PER_MINUTE = 6;
+    private static final int BLOCKS = 12;
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    public enum Window {
+        ONE_MINUTE("1m", 60),
+        FIVE_MINUTES("5m", 300),
+        ONE_HOUR("1h", 3600);
+
+        private final String label;
+        private final long seconds;
+
+        Window(String label, long seconds) {
+            this.label = label;
+            this.seconds = seconds;
+        }
+
+        public String label() {
+            return label;
+        }
+
+        public long seconds() {
+            return seconds;
+        }
+    }
+
+    /**
+     * Summary of one window. Values are in the unit they were recorded in.
+     */
+    public record Snapshot(long count, double mean, long p50, long p95, long p99, long max) {
+        static final Snapshot EMPTY = new Snapshot(0, 0, 0, 0, 0, 0);
+    }
+
+    private final long highestTrackableValue;
+    private final Recorder recorder;
+    private final Histogram[] slots = new Histogram[SLOTS];
+    private final Histogram[] blocks = new Histogram[BLOCKS];
+    private final Histogram window;
+    private Histogram interval;
+    private long tick;
+    private volatile Map<Window, Snapshot> snapshots;
+
+    /**
+     * @param highestTrackableValue larger values are recorded as this value
+     */
+    public RollingHistogram(long highestTrackableValue) {
+        this.highestTrackableValue = highestTrackableValue;
+        this.recorder = new Recorder(SIGNIFICANT_DIGITS, true);
+        for (int i = 0; i < SLOTS; i++) {
+            slots[i] = newHistogram();
+        }
+        for (int i = 0; i < BLOCKS; i++) {
+            blocks[i] = newHistogram();
+        }
+        this.window = newHistogram();
+        this.snapshots = summarize();
+    }
+
+    public void record(long value) {
+        recorder.recordValue(Math.max(0, Math.min(value, highestTrackableValue)));
+    }
+
+    public Snapshot snapshot(Window window) {
+        return snapshots.get(window);
+    }
+
+    /**
+     * Closes the current slot. Called by a single scheduler thread every
+     * {@link #SLOT_MS}.
+     */
+    public synchronized void rotate() {
+        interval = recorder.getIntervalHistogram(interval);
+        int slot = (int) (tick % SLOTS);
+        int block = (int) ((tick / SLOTS) % BLOCKS);
+        if (slot == 0) {
+            blocks[block].reset();
+        }
+        slots[slot].reset();
+        slots[slot].add(interval);
+        blocks[block].add(interval);
+        tick++;
+        snapshots = summarize();
+    }
+
+    private Map<Window, Snapshot> summarize() {
+        Map<Window, Snapshot> summary = new EnumMap<>(Window.class);
+
+        window.reset();
+        int newest = (int) ((tick - 1 + SLOTS) % SLOTS);
+        for (int i = 0; i < SLOTS_PER_MINUTE; i++) {
+            window.add(slots[(newest - i + SLOTS) % SLOTS]);
+        }
+        summary.put(Window.ONE_MINUTE, snapshotOf(window));
+
+        window.reset();
+        for (Histogram slot : slots) {
+            window.add(slot);
+        }
+        summary.put(Window.FIVE_MINUTES, snapshotOf(window));
+
+        window.reset();
+        for (Histogram block : blocks) {
+            window.add(block);
+        }
+        summary.put(Window.ONE_HOUR, snapshotOf(window));
+        return summary;
+    }
+
+    private Snapshot snapshotOf(Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return Snapshot.EMPTY;
+        }
+        return new Snapshot(
+                histogram.getTotalCount(),
+                histogram.getMean(),
+                histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(95),
+                histogram.getValueAtPercentile(99),
+                histogram.getMaxValue());
+    }
+
+    private Histogram newHistogram() {
+        return new PackedHistogram(1, highestTrackableValue, SIGNIFICANT_DIGITS);
+    }
+}
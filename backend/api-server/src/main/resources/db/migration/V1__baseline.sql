@@ -0,0 +1,58 @@
+-- Schema as Hibernate generated it from the entities before migrations were
+-- introduced. IF NOT EXISTS lets databases created that way be migrated after
+-- a baseline at version 0 (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE IF NOT EXISTS tasks (
+    id            uuid         NOT NULL,
+    type          varchar(255) NOT NULL,
+    status        varchar(255) NOT NULL
+        CHECK (status IN ('PENDING', 'QUEUED', 'PROCESSING', 'COMPLETED', 'FAILED', 'RETRYING')),
+    payload       text,
+    result        text,
+    retry_count   integer,
+    max_retries   integer,
+    created_at    timestamp(6),
+    updated_at    timestamp(6),
+    started_at    timestamp(6),
+    completed_at  timestamp(6),
+    worker_id     varchar(255),
+    error_message text,
+    priority      integer,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_created_at_id ON tasks (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_status_created_at_id ON tasks (status, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_worker_status_completed ON tasks (worker_id, status, completed_at);
+
+CREATE TABLE IF NOT EXISTS task_outbox (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY,
+    task_id      uuid         NOT NULL,
+    routing_key  varchar(255) NOT NULL,
+    created_at   timestamp(6) NOT NULL,
+    available_at timestamp(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_outbox_available_at ON task_outbox (available_at, id);
+
+CREATE TABLE IF NOT EXISTS task_status_counter (
+    id     bigint GENERATED BY DEFAULT AS IDENTITY,
+    status varchar(20) NOT NULL,
+    delta  bigint      NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS worker_health (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY,
+    worker_id       varchar(255) NOT NULL UNIQUE,
+    status          varchar(255) NOT NULL CHECK (status IN ('ONLINE', 'OFFLINE', 'BUSY', 'IDLE')),
+    last_heartbeat  timestamp(6),
+    active_tasks    integer,
+    total_processed bigint,
+    total_failed    bigint,
+    cpu_usage       float(53),
+    memory_usage    float(53),
+    registered_at   timestamp(6),
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,79 @@
+-- Splits tasks into monthly range partitions on created_at, so finished
+-- history stops weighing on queries that only look at recent or active tasks.
+-- A partitioned table's primary key must contain the partition key, hence
+-- (id, created_at); lookups by id probe the primary key of every partition.
+
+-- Creates the missing monthly partitions covering [p_from, p_to). Called by
+-- TaskPartitionService ahead of time; inserts outside every partition fail.
+CREATE OR REPLACE FUNCTION create_task_partitions(p_from timestamp, p_to timestamp) RETURNS integer AS $$
+DECLARE
+    month_start    timestamp := date_trunc('month', p_from);
+    partition_name text;
+    created        integer := 0;
+BEGIN
+    -- Serializes instances creating the same partitions
+    PERFORM pg_advisory_xact_lock(hashtext('create_task_partitions'));
+    WHILE month_start < p_to LOOP
+        partition_name := 'tasks_p' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF tasks FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, month_start, month_start + interval '1 month');
+            created := created + 1;
+        END IF;
+        month_start := month_start + interval '1 month';
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE tasks RENAME TO tasks_unpartitioned;
+
+CREATE TABLE tasks (
+    id            uuid         NOT NULL,
+    type          varchar(255) NOT NULL,
+    status        varchar(255) NOT NULL
+        CHECK (status IN ('PENDING', 'QUEUED', 'PROCESSING', 'COMPLETED', 'FAILED', 'RETRYING')),
+    payload       text,
+    result        text,
+    retry_count   integer,
+    max_retries   integer,
+    created_at    timestamp(6) NOT NULL,
+    updated_at    timestamp(6),
+    started_at    timestamp(6),
+    completed_at  timestamp(6),
+    worker_id     varchar(255),
+    error_message text,
+    priority      integer
+) PARTITION BY RANGE (created_at);
+
+SELECT create_task_partitions(
+        LEAST((SELECT min(created_at) FROM tasks_unpartitioned), localtimestamp),
+        localtimestamp + interval '3 months');
+
+INSERT INTO tasks (id, type, status, payload, result, retry_count, max_retries, created_at, updated_at,
+                   started_at, completed_at, worker_id, error_message, priority)
+SELECT id, type, status, payload, result, retry_count, max_retries,
+       COALESCE(created_at, updated_at, localtimestamp), updated_at,
+       started_at, completed_at, worker_id, error_message, priority
+FROM tasks_unpartitioned;
+
+DROP TABLE tasks_unpartitioned;
+
+-- Built after the copy, once per partition
+
+ALTER TABLE tasks ADD PRIMARY KEY (id, created_at);
+
+-- Keyset pagination over all tasks, scanned backwards for newest-first listings
+CREATE INDEX idx_tasks_created_at_id ON tasks (created_at, id);
+
+-- Listings by status and the stale task lookup by (status, created_at)
+CREATE INDEX idx_tasks_status_created_at_id ON tasks (status, created_at, id);
+
+-- Per-worker statistics filter on all three columns
+CREATE INDEX idx_tasks_worker_status_completed ON tasks (worker_id, status, completed_at);
+
+-- Only the few unfinished tasks: the oldest active task is the first entry,
+-- and queries for an active status read an index that stays small in every
+-- partition instead of the one above
+CREATE INDEX idx_tasks_active_created_at ON tasks (created_at, id)
+    WHERE status IN ('PENDING', 'QUEUED', 'PROCESSING', 'RETRYING');
@@ -0,0 +1,70 @@
+-- Finished tasks past the retention age, moved out of tasks by
+-- TaskArchiveService. Only read by id, so the primary key is the only index.
+-- Postgres compresses the TEXT columns of rows past 2 kB; toast_tuple_target
+-- makes it keep compressing a row's columns until the row is down to 128
+-- bytes instead of stopping at 2 kB. Smaller rows are stored as they are.
+CREATE TABLE tasks_archive (
+    id            uuid         NOT NULL,
+    type          varchar(255) NOT NULL,
+    status        varchar(255) NOT NULL,
+    payload       text,
+    result        text,
+    retry_count   integer,
+    max_retries   integer,
+    created_at    timestamp(6) NOT NULL,
+    updated_at    timestamp(6),
+    started_at    timestamp(6),
+    completed_at  timestamp(6),
+    worker_id     varchar(255),
+    error_message text,
+    priority      integer,
+    archived_at   timestamp(6) NOT NULL DEFAULT localtimestamp,
+    PRIMARY KEY (id)
+) WITH (toast_tuple_target = 128);
+
+-- lz4 compresses JSON about as well as the default pglz at a fraction of the
+-- CPU cost, and keeps a value compressed whenever that saves space where pglz
+-- wants 25%. Only available when the server was built with it.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_settings
+               WHERE name = 'default_toast_compression' AND 'lz4' = ANY (enumvals)) THEN
+        ALTER TABLE tasks_archive
+            ALTER COLUMN payload SET COMPRESSION lz4,
+            ALTER COLUMN result SET COMPRESSION lz4,
+            ALTER COLUMN error_message SET COMPRESSION lz4;
+    END IF;
+END
+$$;
+
+-- Drops the monthly partitions of tasks that start before p_before's month
+-- and hold no rows any more, once archiving has emptied them. Gives up on a
+-- partition rather than wait for the lock on tasks behind running queries.
+CREATE OR REPLACE FUNCTION drop_empty_task_partitions(p_before timestamp) RETURNS integer AS $$
+DECLARE
+    partition_name text;
+    is_empty       boolean;
+    dropped        integer := 0;
+BEGIN
+    PERFORM set_config('lock_timeout', '1s', true);
+    FOR partition_name IN
+        SELECT c.relname
+        FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'tasks'::regclass
+          AND c.relkind = 'r'
+          AND c.relname < 'tasks_p' || to_char(p_before, 'YYYY_MM')
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('SELECT NOT EXISTS (SELECT 1 FROM %I)', partition_name) INTO is_empty;
+        IF is_empty THEN
+            BEGIN
+                EXECUTE format('DROP TABLE %I', partition_name);
+                dropped := dropped + 1;
+            EXCEPTION WHEN lock_not_available THEN
+                RAISE NOTICE 'Partition % is busy, will be dropped later', partition_name;
+            END;
+        END IF;
+    END LOOP;
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,10 @@
+-- Payloads and results above app.tasks.blobs.threshold-bytes are stored
+-- compressed in the blob store; the row keeps only the reference and a null
+-- payload or result. See TaskBlobService.
+ALTER TABLE tasks
+    ADD COLUMN payload_ref varchar(255),
+    ADD COLUMN result_ref  varchar(255);
+
+ALTER TABLE tasks_archive
+    ADD COLUMN payload_ref varchar(255),
+    ADD COLUMN result_ref  varchar(255);
@@ -0,0 +1,4 @@
+-- Empty partitions are now detached concurrently and dropped by
+-- TaskPartitionRepository: DROP TABLE on a partition locks all of tasks, and
+-- DETACH PARTITION ... CONCURRENTLY cannot run inside a function.
+DROP FUNCTION IF EXISTS drop_empty_task_partitions(timestamp);
@@ -0,0 +1,42 @@
+-- Generic cell rate algorithm (token bucket equivalent): permits are spaced
+-- window / limit apart and up to a full window's worth may be used in a burst.
+-- Stores only the theoretical arrival time (TAT), in microseconds.
+-- KEYS[1]  TAT key
+-- ARGV     as for sliding_log_rate_limit.lua
+-- Returns {granted, remaining, retryAfterMs}
+
+local key = KEYS[1]
+local window = tonumber(ARGV[1]) * 1000
+local limit = tonumber(ARGV[2])
+local wanted = tonumber(ARGV[3])
+local allOrNothing = ARGV[4] == '1'
+local emission = window / limit
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+
+local tat = tonumber(redis.call('GET', key)) or now
+if tat < now then
+    tat = now
+end
+
+local available = math.max(0, math.floor((now + window - tat) / emission + 1e-9))
+local granted = math.min(wanted, available)
+if allOrNothing and granted < wanted then
+    granted = 0
+end
+if granted > 0 then
+    tat = tat + granted * emission
+    redis.call('SET', key, string.format('%.3f', tat), 'PX', math.ceil((tat - now) / 1000) + 1)
+end
+
+local remaining = math.max(0, math.floor((now + window - tat) / emission + 1e-9))
+local need = math.max(1, granted > 0 and 1 or wanted)
+local retryAfter = 0
+if need > limit then
+    retryAfter = window / 1000
+elseif remaining < need then
+    retryAfter = math.max(0, math.ceil((tat + need * emission - window - now) / 1000))
+end
+
+return {granted, remaining, retryAfter}
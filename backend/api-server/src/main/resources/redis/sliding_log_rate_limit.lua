@@ -0,0 +1,52 @@
+-- Sliding-log rate limit: one sorted set member per permit in the window.
+-- KEYS[1]  rate limit key
+-- ARGV[1]  window length in milliseconds
+-- ARGV[2]  permits per window
+-- ARGV[3]  permits wanted (0 only reports remaining and retry-after)
+-- ARGV[4]  1 to grant all wanted permits or none, 0 to grant as many as fit
+-- ARGV[5]  unique prefix for the members added by this call
+-- Returns {granted, remaining, retryAfterMs}; retryAfterMs is the wait until
+-- the wanted permits (at least one) would fit, 0 if they fit now
+
+local key = KEYS[1]
+local window = tonumber(ARGV[1])
+local limit = tonumber(ARGV[2])
+local wanted = tonumber(ARGV[3])
+local allOrNothing = ARGV[4] == '1'
+
+-- Server time, so API server instances with skewed clocks share one window
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+redis.call('ZREMRANGEBYSCORE', key, 0, now - window)
+local count = redis.call('ZCARD', key)
+
+local granted = math.max(0, math.min(wanted, limit - count))
+if allOrNothing and granted < wanted then
+    granted = 0
+end
+if granted > 0 then
+    local members = {}
+    for i = 1, granted do
+        members[#members + 1] = now
+        members[#members + 1] = ARGV[5] .. ':' .. i
+    end
+    redis.call('ZADD', key, unpack(members))
+    redis.call('PEXPIRE', key, window * 2)
+    count = count + granted
+end
+
+local remaining = math.max(0, limit - count)
+local need = math.max(1, granted > 0 and 1 or wanted)
+local retryAfter = 0
+if need > limit then
+    retryAfter = window
+elseif remaining < need then
+    -- The oldest (count + need - limit) members have to leave the window
+    local entry = redis.call('ZRANGE', key, count + need - limit - 1, count + need - limit - 1, 'WITHSCORES')
+    if entry[2] then
+        retryAfter = math.max(0, tonumber(entry[2]) + window - now)
+    end
+end
+
+return {granted, remaining, retryAfter}
@@ -0,0 +1,61 @@
+-- Sliding-window-counter rate limit: counts for the current and previous fixed
+-- windows, with the previous count weighted by how much of it still overlaps
+-- the sliding window. Constant memory per key.
+-- KEYS[1]  hash with w (current window index), c (its count), p (previous count)
+-- ARGV     as for sliding_log_rate_limit.lua
+-- Returns {granted, remaining, retryAfterMs}
+
+local key = KEYS[1]
+local window = tonumber(ARGV[1])
+local limit = tonumber(ARGV[2])
+local wanted = tonumber(ARGV[3])
+local allOrNothing = ARGV[4] == '1'
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local index = math.floor(now / window)
+local elapsed = now - index * window
+
+local state = redis.call('HMGET', key, 'w', 'c', 'p')
+local storedIndex = tonumber(state[1])
+local current, previous = 0, 0
+if storedIndex == index then
+    current = tonumber(state[2]) or 0
+    previous = tonumber(state[3]) or 0
+elseif storedIndex == index - 1 then
+    previous = tonumber(state[2]) or 0
+end
+
+local weight = (window - elapsed) / window
+local available = math.max(0, math.floor(limit - previous * weight - current + 1e-9))
+
+local granted = math.min(wanted, available)
+if allOrNothing and granted < wanted then
+    granted = 0
+end
+if granted > 0 then
+    current = current + granted
+    redis.call('HSET', key, 'w', index, 'c', current, 'p', previous)
+    redis.call('PEXPIRE', key, window * 2)
+end
+
+local remaining = math.max(0, math.floor(limit - previous * weight - current + 1e-9))
+local need = math.max(1, granted > 0 and 1 or wanted)
+local retryAfter = 0
+if need > limit then
+    retryAfter = window
+elseif remaining < need then
+    local budget = limit - need - current
+    if budget >= 0 and previous == 0 then
+        retryAfter = 0
+    elseif budget >= 0 then
+        -- Fits later in this window, once enough of the previous one has slid out
+        retryAfter = window * (1 - budget / previous) - elapsed
+    else
+        -- Fits in the next window, once enough of this one has slid out
+        retryAfter = (window - elapsed) + window * (1 - (limit - need) / current)
+    end
+    retryAfter = math.max(0, math.ceil(retryAfter))
+end
+
+return {granted, remaining, retryAfter}
@@ -0,0 +1,77 @@
+package org.example.apiserver.benchmark;
+
+import org.example.apiserver.dto.BatchItemResult;
+import org.example.apiserver.dto.TaskSubmissionRequest;
+import org.example.apiserver.model.PriorityBand;
+import org.example.apiserver.model.Task;
+import org.example.apiserver.repository.TaskRepository;
+import org.example.apiserver.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Builds a mixed-priority backlog and reports p99 queue wait (createdAt to
+ * startedAt) per priority band once workers have picked everything up. Needs
+ * the full docker-compose stack including workers, so it only runs with
+ * {@code mvn test -Dbenchmark=true -Dtest=PriorityQueueWaitLoadTest}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PriorityQueueWaitLoadTest {
+    private static final int TASKS = Integer.getInteger("benchmark.tasks", 600);
+    private static final Duration TIMEOUT = Duration.ofMinutes(Integer.getInteger("benchmark.timeout-minutes", 30));
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Test
+    void reportQueueWaitPerBand() throws InterruptedException {
+        Random random = new Random(42);
+        List<TaskSubmissionRequest> requests = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            requests.add(new TaskSubmissionRequest("EMAIL_SENDING",
+                    "{\"recipient\":\"user" + i + "@example.com\",\"subject\":\"load\"}",
+                    1 + random.nextInt(10), 0));
+        }
+        List<UUID> ids = taskService.submitTasks(requests).getItems().stream()
+                .map(BatchItemResult::getTaskId)
+                .filter(Objects::nonNull)
+                .toList();
+
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        List<Task> tasks = taskRepository.findAllById(ids);
+        while (tasks.stream().anyMatch(task -> task.getStartedAt() == null)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5000);
+            tasks = taskRepository.findAllById(ids);
+        }
+
+        Map<PriorityBand, List<Long>> waits = new EnumMap<>(PriorityBand.class);
+        for (Task task : tasks) {
+            if (task.getStartedAt() != null) {
+                waits.computeIfAbsent(PriorityBand.of(task.getPriority()), band -> new ArrayList<>())
+                        .add(Duration.between(task.getCreatedAt(), task.getStartedAt()).toMillis());
+            }
+        }
+        waits.forEach((band, values) -> {
+            values.sort(null);
+            long p50 = values.get((int) Math.ceil(values.size() * 0.50) - 1);
+            long p99 = values.get((int) Math.ceil(values.size() * 0.99) - 1);
+            System.out.printf("%-6s tasks=%d p50=%dms p99=%dms%n", band, values.size(), p50, p99);
+        });
+    }
+}
@@ -0,0 +1,158 @@
+package org.example.apiserver.benchmark;
+
+import org.example.apiserver.config.RedisConfig;
+import org.example.apiserver.service.RateLimitAlgorithm;
+import org.example.apiserver.service.RateLimiterService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures rate limit checks/sec and per-client memory against a local Redis
+ * for the previous four-command check, each algorithm's script and GCRA with
+ * local leasing.
+ * Only needs Redis on {@code benchmark.redis.port} (default 6379), so it runs
+ * with {@code mvn test -Dbenchmark=true -Dtest=RateLimiterBenchmark}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RateLimiterBenchmark {
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 16);
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 8);
+    private static final RedisScript<Long> MEMORY_USAGE =
+            new DefaultRedisScript<>("return redis.call('MEMORY', 'USAGE', KEYS[1])", Long.class);
+    private static final Duration RUN = Duration.ofSeconds(Integer.getInteger("benchmark.seconds", 5));
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(
+                System.getProperty("benchmark.redis.host", "localhost"),
+                Integer.getInteger("benchmark.redis.port", 6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new RedisConfig().redisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void everyAlgorithmEnforcesLimit() {
+        for (RateLimitAlgorithm algorithm : RateLimitAlgorithm.values()) {
+            RateLimiterService limiter = limiter(algorithm, 100, false);
+            String client = "benchmark-exact-" + System.nanoTime();
+
+            int allowed = 0;
+            for (int i = 0; i < 150; i++) {
+                if (limiter.isAllowed(client)) {
+                    allowed++;
+                }
+            }
+
+            // GCRA may refill one permit (every 600 ms at this limit) during the loop
+            assertTrue(allowed >= 100 && allowed <= 101, algorithm + " allowed " + allowed);
+            assertEquals(0, limiter.getRemainingRequests(client));
+            long retryAfter = limiter.getRetryAfter(client);
+            assertTrue(retryAfter > 0 && retryAfter <= 60_000, algorithm + " retry after " + retryAfter);
+            System.out.printf("%s: %d allowed, retry after %d ms%n", algorithm, allowed, retryAfter);
+            redisTemplate.delete(algorithm.getKeyPrefix() + client);
+        }
+    }
+
+    @Test
+    void checksPerSecond() throws Exception {
+        // High enough that every check is allowed and takes the full path
+        int limit = 50_000_000;
+        double legacy = run("four commands", null, this::legacyCheck);
+        for (RateLimitAlgorithm algorithm : RateLimitAlgorithm.values()) {
+            double rate = run(algorithm.name(), algorithm, limiter(algorithm, limit, false)::isAllowed);
+            System.out.printf("  %.1fx the four-command check%n", rate / legacy);
+        }
+        double leased = run("GCRA + local lease", RateLimitAlgorithm.GCRA,
+                limiter(RateLimitAlgorithm.GCRA, limit, true)::isAllowed);
+        System.out.printf("  %.1fx the four-command check%n", leased / legacy);
+    }
+
+    private RateLimiterService limiter(RateLimitAlgorithm algorithm, int requestsPerMinute, boolean localLease) {
+        RateLimiterService limiter = new RateLimiterService(redisTemplate, new MockEnvironment());
+        ReflectionTestUtils.setField(limiter, "algorithm", algorithm);
+        ReflectionTestUtils.setField(limiter, "requestsPerMinute", requestsPerMinute);
+        ReflectionTestUtils.setField(limiter, "localLeaseEnabled", localLease);
+        ReflectionTestUtils.setField(limiter, "leaseChunkSize", 50);
+        ReflectionTestUtils.setField(limiter, "leaseTtlMs", 1000L);
+        return limiter;
+    }
+
+    private double run(String name, RateLimitAlgorithm algorithm, Predicate<String> check) throws Exception {
+        String prefix = "benchmark-" + name.replace(' ', '-') + "-" + System.nanoTime() + "-";
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long deadline = System.nanoTime() + RUN.toNanos();
+        List<Future<Long>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            String client = prefix + (t % CLIENTS);
+            results.add(executor.submit(() -> {
+                long checks = 0;
+                while (System.nanoTime() < deadline) {
+                    check.test(client);
+                    checks++;
+                }
+                return checks;
+            }));
+        }
+        long total = 0;
+        for (Future<Long> result : results) {
+            total += result.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        String keyPrefix = algorithm != null ? algorithm.getKeyPrefix() : "rate_limit:";
+        Long bytes = redisTemplate.execute(MEMORY_USAGE, List.of(keyPrefix + prefix + "0"));
+        for (int c = 0; c < CLIENTS; c++) {
+            redisTemplate.delete(keyPrefix + prefix + c);
+        }
+        double rate = total / (double) RUN.toSeconds();
+        System.out.printf("%s: %.0f checks/sec, %d bytes for one client key%n", name, rate, bytes);
+        return rate;
+    }
+
+    // The check RateLimiterService made before the script: four round trips
+    private boolean legacyCheck(String identifier) {
+        String key = "rate_limit:" + identifier;
+        long currentTime = System.currentTimeMillis();
+        long windowStart = currentTime - TimeUnit.MINUTES.toMillis(1);
+        redisTemplate.opsForZSet().removeRangeByScore(key, 0, windowStart);
+        Long currentCount = redisTemplate.opsForZSet().count(key, windowStart, currentTime);
+        if (currentCount != null && currentCount >= 50_000_000) {
+            return false;
+        }
+        redisTemplate.opsForZSet().add(key, currentTime + ":" + System.nanoTime(), currentTime);
+        redisTemplate.expire(key, Duration.ofMinutes(2));
+        return true;
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.apiserver.benchmark;
+
+import org.example.apiserver.model.Task;
+import org.example.apiserver.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Compares reading page 10,000 (20 tasks per page) with offset pagination
+ * against keyset pagination. Seeds the tasks inside the test transaction, which
+ * is rolled back afterwards. Needs the docker-compose Postgres (or
+ * {@code -Dbenchmark.datasource.url=...}), so it only runs with
+ * {@code mvn test -Dbenchmark=true -Dtest=TaskPaginationBenchmark}.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=${benchmark.datasource.url:jdbc:postgresql://localhost:5432/task_orchestrator}",
+        "spring.datasource.username=${benchmark.datasource.username:admin}",
+        "spring.datasource.password=${benchmark.datasource.password:password123}",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=0",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TaskPaginationBenchmark {
+    private static final int PAGE = Integer.getInteger("benchmark.page", 10_000);
+    private static final int SIZE = 20;
+    private static final int TASKS = Integer.getInteger("benchmark.tasks", 250_000);
+    private static final int RUNS = 20;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void offsetVersusKeysetAtDeepPage() {
+        jdbcTemplate.update("""
+                INSERT INTO tasks (id, type, status, payload, retry_count, max_retries, priority,
+                                   created_at, updated_at)
+                SELECT gen_random_uuid(), 'EMAIL_SENDING', 'COMPLETED', '{"subject":"benchmark"}', 0, 3, 5,
+                       now() - g * interval '1 millisecond', now()
+                FROM generate_series(1, ?) g
+                """, TASKS);
+        jdbcTemplate.execute("ANALYZE tasks");
+
+        // The keyset query starts from the last task of the previous page
+        Task previous = taskRepository.findAll(
+                PageRequest.of(PAGE * SIZE - 1, 1, Sort.by(Sort.Direction.DESC, "createdAt", "id"))).getContent().get(0);
+
+        double offsetMs = medianMs(() -> taskRepository.findAll(
+                PageRequest.of(PAGE, SIZE, Sort.by(Sort.Direction.DESC, "createdAt", "id"))));
+        double keysetMs = medianMs(() -> taskRepository.findBefore(
+                previous.getCreatedAt(), previous.getId(), PageRequest.of(0, SIZE), Task.class));
+
+        System.out.printf("page %d of %d tasks: offset %.2f ms, keyset %.2f ms (%.0fx)%n",
+                PAGE, TASKS, offsetMs, keysetMs, offsetMs / keysetMs);
+    }
+
+    private double medianMs(Supplier<?> query) {
+        for (int i = 0; i < 5; i++) {
+            query.get();
+        }
+        double[] timings = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            timings[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(timings);
+        return timings[RUNS / 2];
+    }
+}
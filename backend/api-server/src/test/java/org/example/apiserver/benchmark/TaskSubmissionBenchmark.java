@@ -0,0 +1,52 @@
+package org.example.apiserver.benchmark;
+
+import org.example.apiserver.dto.TaskSubmissionRequest;
+import org.example.apiserver.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares single-task submission against the batch endpoint's service path.
+ * Needs the docker-compose Postgres and RabbitMQ, so it only runs with
+ * {@code mvn test -Dbenchmark=true -Dtest=TaskSubmissionBenchmark}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TaskSubmissionBenchmark {
+    private static final int TASKS = Integer.getInteger("benchmark.tasks", 5000);
+    private static final int BATCH_SIZE = Integer.getInteger("benchmark.batch-size", 500);
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void singleVersusBatchSubmission() {
+        List<TaskSubmissionRequest> requests = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            requests.add(new TaskSubmissionRequest("EMAIL_SENDING",
+                    "{\"recipient\":\"user" + i + "@example.com\",\"subject\":\"benchmark\"}", 5, 3));
+        }
+
+        // Warm up connection pools, channels and the JIT
+        requests.subList(0, Math.min(200, TASKS)).forEach(taskService::submitTask);
+
+        long start = System.nanoTime();
+        requests.forEach(taskService::submitTask);
+        double singleRate = TASKS / ((System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        for (int from = 0; from < TASKS; from += BATCH_SIZE) {
+            taskService.submitTasks(requests.subList(from, Math.min(from + BATCH_SIZE, TASKS)));
+        }
+        double batchRate = TASKS / ((System.nanoTime() - start) / 1e9);
+
+        System.out.printf("single submit: %.0f tasks/sec%n", singleRate);
+        System.out.printf("batch submit (%d per batch): %.0f tasks/sec (%.1fx)%n",
+                BATCH_SIZE, batchRate, batchRate / singleRate);
+    }
+}
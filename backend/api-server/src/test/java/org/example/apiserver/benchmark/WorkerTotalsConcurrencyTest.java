@@ -0,0 +1,130 @@
+package org.example.apiserver.benchmark;
+
+import org.example.apiserver.model.WorkerHealth;
+import org.example.apiserver.repository.WorkerHealthRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Finishes tasks for one worker from many threads at once, each in its own
+ * transaction, and checks that the worker's totals count every one of them.
+ * For comparison it also reports how many updates the old read-modify-write
+ * (findByWorkerId + save) loses under the same load. Needs the docker-compose
+ * Postgres (or {@code -Dbenchmark.datasource.url=...}), so it only runs with
+ * {@code mvn test -Dbenchmark=true -Dtest=WorkerTotalsConcurrencyTest}.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=${benchmark.datasource.url:jdbc:postgresql://localhost:5432/task_orchestrator}",
+        "spring.datasource.username=${benchmark.datasource.username:admin}",
+        "spring.datasource.password=${benchmark.datasource.password:password123}",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=0",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class WorkerTotalsConcurrencyTest {
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 16);
+    private static final int TASKS_PER_THREAD = Integer.getInteger("benchmark.tasks-per-thread", 250);
+
+    @Autowired
+    private WorkerHealthRepository workerHealthRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private String workerId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        workerId = "concurrency-test-" + UUID.randomUUID();
+        workerHealthRepository.save(WorkerHealth.builder()
+                .workerId(workerId)
+                .status(WorkerHealth.WorkerStatus.BUSY)
+                .activeTasks(THREADS * TASKS_PER_THREAD)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        workerHealthRepository.findByWorkerId(workerId).ifPresent(workerHealthRepository::delete);
+    }
+
+    @Test
+    void concurrentCompletionsAreAllCounted() throws Exception {
+        // Old approach first; the counters are reset before the atomic run
+        long start = System.nanoTime();
+        runConcurrently(() -> transactionTemplate.executeWithoutResult(status -> {
+            WorkerHealth worker = workerHealthRepository.findByWorkerId(workerId).orElseThrow();
+            worker.setTotalProcessed(worker.getTotalProcessed() + 1);
+            worker.setActiveTasks(worker.getActiveTasks() - 1);
+            workerHealthRepository.save(worker);
+        }));
+        double readModifyWriteMs = (System.nanoTime() - start) / 1e6;
+        long readModifyWriteCounted = workerHealthRepository.findByWorkerId(workerId).orElseThrow().getTotalProcessed();
+        reset();
+
+        start = System.nanoTime();
+        runConcurrently(() -> transactionTemplate.executeWithoutResult(status ->
+                workerHealthRepository.addTaskTotals(workerId, 1, 0, 1)));
+        double atomicMs = (System.nanoTime() - start) / 1e6;
+        WorkerHealth worker = workerHealthRepository.findByWorkerId(workerId).orElseThrow();
+
+        int expected = THREADS * TASKS_PER_THREAD;
+        System.out.printf("%d completions on %d threads: read-modify-write counted %d in %.0f ms, "
+                        + "atomic update counted %d in %.0f ms%n",
+                expected, THREADS, readModifyWriteCounted, readModifyWriteMs, worker.getTotalProcessed(), atomicMs);
+        assertEquals(expected, worker.getTotalProcessed());
+        assertEquals(0, worker.getActiveTasks());
+    }
+
+    private void reset() {
+        transactionTemplate.executeWithoutResult(status -> {
+            WorkerHealth worker = workerHealthRepository.findByWorkerId(workerId).orElseThrow();
+            worker.setTotalProcessed(0L);
+            worker.setActiveTasks(THREADS * TASKS_PER_THREAD);
+            workerHealthRepository.save(worker);
+        });
+    }
+
+    private void runConcurrently(Runnable completion) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < TASKS_PER_THREAD; j++) {
+                        completion.run();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+}
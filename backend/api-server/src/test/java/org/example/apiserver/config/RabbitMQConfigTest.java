@@ -0,0 +1,57 @@
+package org.example.apiserver.config;
+
+import org.example.apiserver.dto.TaskDispatchMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RabbitMQConfigTest {
+    private static final TaskDispatchMessage TASK = TaskDispatchMessage.builder()
+            .id(UUID.randomUUID())
+            .type("EMAIL_SENDING")
+            .priority(7)
+            .attempt(1)
+            .payload("{\"recipient\":\"user@example.com\"}")
+            .build();
+
+    @Test
+    void testPublishesInTheConfiguredFormat() {
+        // Act
+        Message json = converter(MessageFormat.JSON).toMessage(TASK, new MessageProperties());
+        Message cbor = converter(MessageFormat.CBOR).toMessage(TASK, new MessageProperties());
+
+        // Assert
+        assertEquals(MessageProperties.CONTENT_TYPE_JSON, json.getMessageProperties().getContentType());
+        assertEquals("application/cbor", cbor.getMessageProperties().getContentType());
+        assertTrue(cbor.getBody().length < json.getBody().length);
+    }
+
+    @Test
+    void testReadsEitherFormatWhateverItPublishes() {
+        for (MessageFormat published : MessageFormat.values()) {
+            for (MessageFormat configured : MessageFormat.values()) {
+                // Arrange
+                Message message = converter(published).toMessage(TASK, new MessageProperties());
+                message.getMessageProperties().setInferredArgumentType(TaskDispatchMessage.class);
+
+                // Act
+                Object received = converter(configured).fromMessage(message);
+
+                // Assert
+                assertEquals(TASK, received, published + " read by a " + configured + " converter");
+            }
+        }
+    }
+
+    private static MessageConverter converter(MessageFormat format) {
+        RabbitMQConfig config = new RabbitMQConfig();
+        ReflectionTestUtils.setField(config, "messageFormat", format);
+        return config.messageConverter();
+    }
+}
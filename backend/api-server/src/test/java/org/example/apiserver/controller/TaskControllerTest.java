@@ -1,4 +1,150 @@
 package org.example.apiserver.controller;
 
+import org.example.apiserver.dto.TaskDTO;
+import org.example.apiserver.event.TaskTransition;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.example.apiserver.exception.GlobalExceptionHandler;
+import org.example.apiserver.model.Task;
+import org.example.apiserver.service.RateLimiterService;
+import org.example.apiserver.service.ResourceVersionService;
+import org.example.apiserver.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
 public class TaskControllerTest {
-}
\ No newline at end of file
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private RateLimiterService rateLimiterService;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private ResourceVersionService resourceVersionService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        resourceVersionService = new ResourceVersionService(redisTemplate, listenerContainer);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new TaskController(taskService, rateLimiterService, resourceVersionService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void testGetTaskReturnsETagFromUpdatedAt() throws Exception {
+        // Arrange
+        UUID taskId = UUID.randomUUID();
+        LocalDateTime updatedAt = LocalDateTime.of(2026, 1, 2, 3, 4, 5, 123_456_000);
+        when(taskService.getTask(taskId)).thenReturn(TaskDTO.builder()
+                .id(taskId)
+                .status("PENDING")
+                .updatedAt(updatedAt)
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks/{taskId}", taskId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ResourceVersionService.taskETag(updatedAt)));
+        verify(taskService, never()).getTaskETag(any());
+    }
+
+    @Test
+    void testUnchangedTaskIsNotLoaded() throws Exception {
+        // Arrange
+        UUID taskId = UUID.randomUUID();
+        String etag = ResourceVersionService.taskETag(LocalDateTime.of(2026, 1, 2, 3, 4, 5));
+        when(taskService.getTaskETag(taskId)).thenReturn(etag);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks/{taskId}", taskId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        verify(taskService, never()).getTask(any());
+    }
+
+    @Test
+    void testTaskListIsNotModifiedUntilATaskChanges() throws Exception {
+        // Arrange
+        when(taskService.getAllTasks(any(), any())).thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 20), 0));
+        String etag = mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verify(taskService, times(1)).getAllTasks(any(), any());
+
+        resourceVersionService.onTaskTransitions(new TaskTransitionEvent(List.of(TaskTransition.builder()
+                .taskId(UUID.randomUUID())
+                .to(Task.TaskStatus.PENDING)
+                .build())));
+        mockMvc.perform(get("/api/tasks").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        verify(taskService, times(2)).getAllTasks(any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testTaskListIsModifiedAfterATaskChangesOnAnotherInstance() throws Exception {
+        // Arrange
+        ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(listenerContainer).addMessageListener(listener.capture(), any(Topic.class));
+        RedisTemplate<String, String> otherRedisTemplate = mock(RedisTemplate.class);
+        ResourceVersionService otherInstance =
+                new ResourceVersionService(otherRedisTemplate, mock(RedisMessageListenerContainer.class));
+        when(taskService.getAllTasks(any(), any())).thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 20), 0));
+        String etag = mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act
+        otherInstance.onTaskTransitions(new TaskTransitionEvent(List.of(TaskTransition.builder()
+                .taskId(UUID.randomUUID())
+                .to(Task.TaskStatus.COMPLETED)
+                .build())));
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(otherRedisTemplate).convertAndSend(anyString(), message.capture());
+        listener.getValue().onMessage(new DefaultMessage(
+                "resource-versions:changes".getBytes(StandardCharsets.UTF_8),
+                message.getValue().getBytes(StandardCharsets.UTF_8)), null);
+
+        // Assert
+        mockMvc.perform(get("/api/tasks").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        verify(taskService, times(2)).getAllTasks(any(), any());
+    }
+}
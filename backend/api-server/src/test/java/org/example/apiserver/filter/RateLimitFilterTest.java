@@ -0,0 +1,36 @@
+package org.example.apiserver.filter;
+
+import org.example.apiserver.service.RateLimiterService;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class RateLimitFilterTest {
+    private final RateLimitFilter filter = new RateLimitFilter(mock(RateLimiterService.class));
+
+    @Test
+    void testWorkerCallbacksAreNotLimited() {
+        UUID taskId = UUID.randomUUID();
+        assertFalse(limited("POST", "/api/tasks/" + taskId + "/processing"));
+        assertFalse(limited("POST", "/api/tasks/" + taskId + "/completed"));
+        assertFalse(limited("POST", "/api/tasks/" + taskId + "/failed"));
+        assertFalse(limited("POST", "/api/tasks/status-batch"));
+    }
+
+    @Test
+    void testListingsByStatusAreLimited() {
+        assertTrue(limited("GET", "/api/tasks/status/processing"));
+        assertTrue(limited("GET", "/api/tasks/status/completed"));
+        assertTrue(limited("GET", "/api/tasks/status/failed"));
+        assertTrue(limited("POST", "/api/tasks/not-a-task/completed"));
+        assertTrue(limited("GET", "/api/tasks/" + UUID.randomUUID() + "/completed"));
+    }
+
+    private boolean limited(String method, String path) {
+        return !filter.shouldNotFilter(new MockHttpServletRequest(method, path));
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.apiserver.repository;
+
+import org.example.apiserver.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the archive statements against a migrated Postgres. Seeds tasks in
+ * partitions far in the past so nothing else in the database is touched, and
+ * rolls everything back afterwards. Needs the docker-compose Postgres (or
+ * {@code -Dbenchmark.datasource.url=...}), so it only runs with
+ * {@code mvn test -Dbenchmark=true -Dtest=TaskArchiveRepositoryTest}.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=${benchmark.datasource.url:jdbc:postgresql://localhost:5432/task_orchestrator}",
+        "spring.datasource.username=${benchmark.datasource.username:admin}",
+        "spring.datasource.password=${benchmark.datasource.password:password123}",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=0",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TaskArchiveRepository.class, TaskPartitionRepository.class})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TaskArchiveRepositoryTest {
+    private static final LocalDateTime START = LocalDateTime.of(2001, 1, 1, 0, 0);
+    private static final LocalDateTime CUTOFF = START.plusMonths(2);
+    private static final String PAYLOAD = "{\"to\":\"user@example.com\",\"body\":\"" + "Hello there. ".repeat(300) + "\"}";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskArchiveRepository archiveRepository;
+
+    @Autowired
+    private TaskPartitionRepository partitionRepository;
+
+    @BeforeEach
+    void seed() {
+        partitionRepository.createPartitions(START, START.plusMonths(3));
+        // Finished tasks every 9 hours from January to mid-March, the cutoff
+        // being March 1st, and one task still queued in January
+        jdbcTemplate.update("""
+                INSERT INTO tasks (id, type, status, payload, result, retry_count, max_retries, priority,
+                                   created_at, updated_at, completed_at)
+                SELECT gen_random_uuid(), 'EMAIL_SENDING', CASE WHEN g % 10 = 0 THEN 'FAILED' ELSE 'COMPLETED' END,
+                       ?, '{"sent":true}', 0, 3, 5, created_at, created_at, created_at
+                FROM (SELECT g, CAST(? AS timestamp) + g * interval '9 hours' AS created_at
+                      FROM generate_series(1, 200) g) finished
+                """, PAYLOAD, Timestamp.valueOf(START));
+        jdbcTemplate.update("""
+                INSERT INTO tasks (id, type, status, payload, retry_count, max_retries, priority, created_at, updated_at)
+                VALUES (gen_random_uuid(), 'EMAIL_SENDING', 'QUEUED', '{}', 0, 3, 5, ?, ?)
+                """, Timestamp.valueOf(START.plusDays(3)), Timestamp.valueOf(START.plusDays(3)));
+    }
+
+    @Test
+    void finishedTasksBeforeTheCutoffAreMovedInBatches() {
+        // Act
+        List<Task> first = archiveRepository.archiveFinished(CUTOFF, 150);
+        List<Task> second = archiveRepository.archiveFinished(CUTOFF, 150);
+
+        // Assert
+        assertEquals(150, first.size());
+        assertTrue(second.size() < 150);
+        assertEquals(0, count("SELECT count(*) FROM tasks WHERE created_at < ? AND status IN ('COMPLETED', 'FAILED')",
+                CUTOFF));
+        assertEquals(1, count("SELECT count(*) FROM tasks WHERE created_at < ?", CUTOFF));
+        assertEquals(first.size() + second.size(), count("SELECT count(*) FROM tasks_archive WHERE created_at < ?",
+                CUTOFF));
+        assertTrue(first.stream().allMatch(task -> task.getCreatedAt().isBefore(CUTOFF)));
+    }
+
+    @Test
+    void archivedTaskIsFoundById() {
+        // Arrange
+        UUID taskId = archiveRepository.archiveFinished(CUTOFF, 1).get(0).getId();
+
+        // Act
+        Task task = archiveRepository.findById(taskId).orElseThrow();
+
+        // Assert
+        assertEquals(PAYLOAD, task.getPayload());
+        assertEquals("{\"sent\":true}", task.getResult());
+        assertEquals(task.getUpdatedAt(), archiveRepository.findUpdatedAtById(taskId).orElseThrow());
+    }
+
+    @Test
+    void archivedPayloadsAreStoredCompressed() {
+        // Act
+        archiveRepository.archiveFinished(CUTOFF, 10);
+
+        // Assert
+        assertEquals(10, count("SELECT count(*) FROM tasks_archive WHERE created_at < ? "
+                + "AND pg_column_compression(payload) IS NOT NULL", CUTOFF));
+        assertTrue(count("SELECT max(pg_column_size(payload)) FROM tasks_archive WHERE created_at < ?", CUTOFF)
+                < PAYLOAD.length() / 4);
+    }
+
+    private long count(String sql, LocalDateTime bound) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, Timestamp.valueOf(bound));
+        return count == null ? 0 : count;
+    }
+}
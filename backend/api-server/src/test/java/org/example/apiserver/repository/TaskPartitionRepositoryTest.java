@@ -0,0 +1,105 @@
+package org.example.apiserver.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drops partitions against a migrated Postgres. DETACH PARTITION ...
+ * CONCURRENTLY cannot run in a transaction, so unlike the other repository
+ * tests nothing is rolled back: the partitions far in the past that are
+ * seeded here are removed afterwards. Needs the docker-compose Postgres (or
+ * {@code -Dbenchmark.datasource.url=...}), so it only runs with
+ * {@code mvn test -Dbenchmark=true -Dtest=TaskPartitionRepositoryTest}.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=${benchmark.datasource.url:jdbc:postgresql://localhost:5432/task_orchestrator}",
+        "spring.datasource.username=${benchmark.datasource.username:admin}",
+        "spring.datasource.password=${benchmark.datasource.password:password123}",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=0",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TaskPartitionRepository.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TaskPartitionRepositoryTest {
+    private static final LocalDateTime START = LocalDateTime.of(2001, 1, 1, 0, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskPartitionRepository partitionRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void seed() {
+        partitionRepository.createPartitions(START, START.plusMonths(3));
+        // One task in February; January and March stay empty
+        jdbcTemplate.update("""
+                INSERT INTO tasks (id, type, status, payload, retry_count, max_retries, priority, created_at, updated_at)
+                VALUES (gen_random_uuid(), 'EMAIL_SENDING', 'COMPLETED', '{}', 0, 3, 5, ?, ?)
+                """, Timestamp.valueOf(START.plusMonths(1)), Timestamp.valueOf(START.plusMonths(1)));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM tasks WHERE created_at < ?", Timestamp.valueOf(START.plusMonths(3)));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS tasks_p2001_01, tasks_p2001_02, tasks_p2001_03");
+    }
+
+    @Test
+    void onlyEmptyPartitionsBeforeTheCutoffAreDropped() {
+        // Act
+        int dropped = partitionRepository.dropEmptyPartitions(START.plusMonths(2));
+
+        // Assert: February still holds a task, March is after the cutoff
+        assertEquals(1, dropped);
+        assertNull(jdbcTemplate.queryForObject("SELECT to_regclass('tasks_p2001_01')", String.class));
+        assertNotNull(jdbcTemplate.queryForObject("SELECT to_regclass('tasks_p2001_02')", String.class));
+        assertNotNull(jdbcTemplate.queryForObject("SELECT to_regclass('tasks_p2001_03')", String.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM tasks WHERE created_at < ?",
+                Integer.class, Timestamp.valueOf(START.plusMonths(3))));
+    }
+
+    @Test
+    void interruptedDetachIsFinishedAndDropped() throws Exception {
+        // Arrange: a reader keeps the second transaction of the detach
+        // waiting until it times out, which leaves the partition detaching
+        try (Connection reader = dataSource.getConnection(); Connection detacher = dataSource.getConnection()) {
+            reader.setAutoCommit(false);
+            reader.createStatement().execute("SELECT count(*) FROM tasks_p2001_03");
+            detacher.createStatement().execute("SET statement_timeout = '1s'");
+            assertThrows(SQLException.class, () -> detacher.createStatement()
+                    .execute("ALTER TABLE tasks DETACH PARTITION tasks_p2001_03 CONCURRENTLY"));
+            reader.rollback();
+            detacher.createStatement().execute("RESET statement_timeout");
+        }
+
+        // Act
+        int dropped = partitionRepository.dropEmptyPartitions(START.plusMonths(4));
+
+        // Assert: January and the detaching March; February still holds a task
+        assertEquals(2, dropped);
+        assertNull(jdbcTemplate.queryForObject("SELECT to_regclass('tasks_p2001_03')", String.class));
+    }
+}
@@ -0,0 +1,168 @@
+package org.example.apiserver.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks with EXPLAIN that the task queries use the indexes from the
+ * migrations and that queries for active statuses skip older partitions.
+ * Seeds a year of finished tasks and a few recent active ones inside the test
+ * transaction, which is rolled back afterwards. Needs the docker-compose
+ * Postgres (or {@code -Dbenchmark.datasource.url=...}), so it only runs with
+ * {@code mvn test -Dbenchmark=true -Dtest=TaskQueryPlanTest}.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=${benchmark.datasource.url:jdbc:postgresql://localhost:5432/task_orchestrator}",
+        "spring.datasource.username=${benchmark.datasource.username:admin}",
+        "spring.datasource.password=${benchmark.datasource.password:password123}",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=0",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TaskPartitionRepository.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TaskQueryPlanTest {
+    private static final int FINISHED_TASKS = Integer.getInteger("benchmark.tasks", 200_000);
+    private static final DateTimeFormatter PARTITION = DateTimeFormatter.ofPattern("'tasks_p'yyyy_MM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskPartitionRepository partitionRepository;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void seed() {
+        partitionRepository.createPartitions(now.minusMonths(12), now.plusMonths(3));
+        jdbcTemplate.update("""
+                INSERT INTO tasks (id, type, status, payload, retry_count, max_retries, priority, worker_id,
+                                   created_at, updated_at, started_at, completed_at)
+                SELECT gen_random_uuid(), 'EMAIL_SENDING', CASE WHEN g % 10 = 0 THEN 'FAILED' ELSE 'COMPLETED' END,
+                       '{}', 0, 3, 5, 'worker-' || g % 8, created_at, created_at, created_at,
+                       created_at + interval '2 seconds'
+                FROM (SELECT g, CAST(? AS timestamp) - g * (interval '360 days' / CAST(? AS integer)) AS created_at
+                      FROM generate_series(1, ?) g) finished
+                """, Timestamp.valueOf(now.minusDays(3)), FINISHED_TASKS, FINISHED_TASKS);
+        jdbcTemplate.update("""
+                INSERT INTO tasks (id, type, status, payload, retry_count, max_retries, priority, created_at, updated_at)
+                SELECT gen_random_uuid(), 'EMAIL_SENDING', (ARRAY['PENDING', 'QUEUED', 'PROCESSING', 'RETRYING'])[g % 4 + 1],
+                       '{}', 0, 3, 5, CAST(? AS timestamp) - g * interval '1 minute', ?
+                FROM generate_series(1, 200) g
+                """, Timestamp.valueOf(now), Timestamp.valueOf(now));
+        jdbcTemplate.execute("ANALYZE tasks");
+    }
+
+    @Test
+    void activeStatusListingOnlyReadsPartitionsAfterTheHorizon() {
+        LocalDateTime horizon = partitionRepository.findOldestActiveCreatedAt().orElseThrow().minusHours(1);
+
+        // TaskRepository.findByStatusAndCreatedAtGreaterThanEqualOrderByCreatedAtDescIdDesc
+        String plan = explain("SELECT id FROM tasks WHERE status = ? AND created_at >= ? "
+                + "ORDER BY created_at DESC, id DESC LIMIT 21", "QUEUED", Timestamp.valueOf(horizon));
+
+        assertUsesIndex(plan, "idx_tasks_active_created_at");
+        for (LocalDateTime month = now.minusMonths(12); month.isBefore(horizon.withDayOfMonth(1));
+             month = month.plusMonths(1)) {
+            assertFalse(plan.contains(PARTITION.format(month) + " "), () -> "Older partition read:\n" + plan);
+        }
+    }
+
+    @Test
+    void staleTaskLookupUsesPartialIndex() {
+        LocalDateTime horizon = partitionRepository.findOldestActiveCreatedAt().orElseThrow().minusHours(1);
+
+        // TaskRepository.findByStatusAndCreatedAtGreaterThanEqualAndCreatedAtBefore
+        String plan = explain("SELECT id FROM tasks WHERE status = ? AND created_at >= ? AND created_at < ?",
+                "PROCESSING", Timestamp.valueOf(horizon), Timestamp.valueOf(now.minusMinutes(30)));
+
+        assertUsesIndex(plan, "idx_tasks_active_created_at");
+    }
+
+    @Test
+    void oldestActiveTaskIsFoundWithoutReadingFinishedTasks() {
+        // TaskPartitionRepository.findOldestActiveCreatedAt
+        String plan = explain("SELECT min(created_at) FROM tasks "
+                + "WHERE status IN ('PENDING', 'QUEUED', 'PROCESSING', 'RETRYING')");
+
+        assertUsesIndex(plan, "idx_tasks_active_created_at");
+        assertFalse(plan.contains("Seq Scan on " + PARTITION.format(now.minusMonths(6))),
+                () -> "Finished history scanned:\n" + plan);
+    }
+
+    @Test
+    void finishedStatusListingUsesStatusIndex() {
+        // Same query with the unbounded lower bound used for finished statuses
+        String plan = explain("SELECT id FROM tasks WHERE status = ? AND created_at >= ? "
+                        + "ORDER BY created_at DESC, id DESC LIMIT 21",
+                "FAILED", Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0)));
+
+        assertUsesIndex(plan, "idx_tasks_status_created_at_id");
+        assertFalse(plan.contains("Sort"), () -> "Sorted instead of reading the index in order:\n" + plan);
+    }
+
+    @Test
+    void newestFirstListingReadsIndexInOrder() {
+        // TaskRepository.findAllByOrderByCreatedAtDescIdDesc
+        String plan = explain("SELECT id FROM tasks ORDER BY created_at DESC, id DESC LIMIT 21");
+
+        assertUsesIndex(plan, "idx_tasks_created_at_id");
+        assertFalse(plan.contains("Sort"), () -> "Sorted instead of reading the index in order:\n" + plan);
+    }
+
+    @Test
+    void workerStatisticsUseWorkerIndex() {
+        // TaskRepository.aggregateFinishedByWorker
+        String plan = explain("SELECT count(*) FROM tasks WHERE worker_id = ? AND status IN ('COMPLETED', 'FAILED') "
+                        + "AND completed_at >= ? AND completed_at < ?",
+                "worker-3", Timestamp.valueOf(now.minusDays(30)), Timestamp.valueOf(now));
+
+        assertUsesIndex(plan, "idx_tasks_worker_status_completed");
+    }
+
+    @Test
+    void lookupByIdUsesPrimaryKey() {
+        // TaskRepository.findById
+        String plan = explain("SELECT * FROM tasks WHERE id = ?", UUID.randomUUID());
+
+        assertUsesIndex(plan, "tasks_pkey");
+    }
+
+    private String explain(String sql, Object... args) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+    }
+
+    /**
+     * The plan reads at least one partition of {@code parentIndex}, the index
+     * created on the partitioned table, and never scans a partition that holds
+     * finished tasks sequentially.
+     */
+    private void assertUsesIndex(String plan, String parentIndex) {
+        List<String> partitionIndexes = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = to_regclass(?)
+                """, String.class, parentIndex);
+        assertTrue(partitionIndexes.stream().anyMatch(index -> plan.contains(" " + index + " ")),
+                () -> "Expected " + parentIndex + " in:\n" + plan);
+        for (LocalDateTime month = now.minusMonths(12); month.isBefore(now.minusDays(3));
+             month = month.plusMonths(1)) {
+            String partition = PARTITION.format(month);
+            assertFalse(plan.contains("Seq Scan on " + partition + " "), () -> "Sequential scan:\n" + plan);
+        }
+    }
+}
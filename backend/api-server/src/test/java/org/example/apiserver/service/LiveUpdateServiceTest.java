@@ -0,0 +1,200 @@
+package org.example.apiserver.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.apiserver.dto.TaskChangeDTO;
+import org.example.apiserver.dto.WorkerHealthDTO;
+import org.example.apiserver.event.TaskTransition;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.example.apiserver.event.WorkerHealthChangedEvent;
+import org.example.apiserver.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class LiveUpdateServiceTest {
+    private SimpleMeterRegistry meterRegistry;
+    private RedisTemplate<String, String> redisTemplate;
+    private JsonMapper jsonMapper;
+    private LiveUpdateService liveUpdateService;
+    private CapturingEmitter emitter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        redisTemplate = mock(RedisTemplate.class);
+        jsonMapper = JsonMapper.builder().build();
+        emitter = new CapturingEmitter();
+        liveUpdateService = new LiveUpdateService(60_000, 3, meterRegistry, redisTemplate,
+                mock(RedisMessageListenerContainer.class), jsonMapper) {
+            @Override
+            SseEmitter createEmitter() {
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(liveUpdateService, "sender", (Executor) Runnable::run);
+        liveUpdateService.subscribe();
+    }
+
+    @Test
+    void testChangesToSameTaskAreCoalesced() {
+        // Arrange
+        UUID taskId = UUID.randomUUID();
+        liveUpdateService.onTaskTransitions(event(taskId, Task.TaskStatus.PENDING, Task.TaskStatus.PROCESSING));
+        liveUpdateService.onTaskTransitions(event(taskId, Task.TaskStatus.PROCESSING, Task.TaskStatus.COMPLETED));
+        liveUpdateService.onWorkerHealthChanged(new WorkerHealthChangedEvent(List.of(
+                WorkerHealthDTO.builder().workerId("worker-1").status("ONLINE").build())));
+
+        // Act
+        liveUpdateService.flush();
+        liveUpdateService.flush();
+
+        // Assert
+        assertEquals(List.of("tasks", "workers"), emitter.names);
+        @SuppressWarnings("unchecked")
+        List<TaskChangeDTO> changes = (List<TaskChangeDTO>) emitter.data.get(0);
+        assertEquals(1, changes.size());
+        assertEquals(taskId, changes.get(0).getId());
+        assertEquals("COMPLETED", changes.get(0).getStatus());
+        assertEquals(1.0, meterRegistry.get("live.updates.subscribers").gauge().value());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testChangesAreSharedWithSubscribersOfOtherInstances() {
+        // Arrange
+        UUID taskId = UUID.randomUUID();
+        RedisTemplate<String, String> otherRedisTemplate = mock(RedisTemplate.class);
+        LiveUpdateService otherInstance = new LiveUpdateService(60_000, 3, new SimpleMeterRegistry(),
+                otherRedisTemplate, mock(RedisMessageListenerContainer.class), jsonMapper);
+
+        // Act
+        otherInstance.onTaskTransitions(event(taskId, Task.TaskStatus.PROCESSING, Task.TaskStatus.COMPLETED));
+        otherInstance.flush();
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(otherRedisTemplate).convertAndSend(eq(LiveUpdateService.CHANGES_CHANNEL), message.capture());
+        liveUpdateService.onRemoteChanges(message.getValue());
+        liveUpdateService.flush();
+
+        // Assert
+        assertEquals(List.of("tasks"), emitter.names);
+        @SuppressWarnings("unchecked")
+        List<TaskChangeDTO> changes = (List<TaskChangeDTO>) emitter.data.get(0);
+        assertEquals(taskId, changes.get(0).getId());
+        assertEquals("COMPLETED", changes.get(0).getStatus());
+        // Nothing changed here, so nothing is published back
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    void testOwnAndSharedChangesAreNotDeliveredTwice() {
+        // Arrange
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        liveUpdateService.onTaskTransitions(event(UUID.randomUUID(), null, Task.TaskStatus.PENDING));
+        liveUpdateService.onWorkerHealthChanged(new WorkerHealthChangedEvent(List.of(
+                WorkerHealthDTO.builder().workerId("worker-1").status("ONLINE").build()), true));
+        liveUpdateService.flush();
+        verify(redisTemplate).convertAndSend(eq(LiveUpdateService.CHANGES_CHANNEL), message.capture());
+
+        // Act
+        liveUpdateService.onRemoteChanges(message.getValue());
+        liveUpdateService.flush();
+
+        // Assert
+        assertEquals(List.of("tasks", "workers"), emitter.names);
+        assertFalse(message.getValue().contains("worker-1"));
+    }
+
+    @Test
+    void testTooManyPendingChangesTriggerResync() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            liveUpdateService.onTaskTransitions(event(UUID.randomUUID(), null, Task.TaskStatus.PENDING));
+        }
+
+        // Act
+        liveUpdateService.flush();
+
+        // Assert
+        assertEquals(List.of("resync"), emitter.names);
+        assertEquals(1.0, meterRegistry.get("live.updates.resyncs").counter().count());
+    }
+
+    @Test
+    void testSubscriberWithSendInFlightIsSkipped() {
+        // Arrange
+        List<Runnable> queued = new ArrayList<>();
+        ReflectionTestUtils.setField(liveUpdateService, "sender", (Executor) queued::add);
+        liveUpdateService.onTaskTransitions(event(UUID.randomUUID(), null, Task.TaskStatus.PENDING));
+
+        // Act
+        liveUpdateService.flush();
+        liveUpdateService.onTaskTransitions(event(UUID.randomUUID(), null, Task.TaskStatus.PENDING));
+        liveUpdateService.flush();
+        queued.forEach(Runnable::run);
+
+        // Assert
+        assertEquals(1, queued.size());
+        assertEquals(List.of("tasks"), emitter.names);
+        assertEquals(2, ((List<?>) emitter.data.get(0)).size());
+    }
+
+    @Test
+    void testFailedSendRemovesSubscriber() {
+        // Arrange
+        emitter.fail = true;
+        liveUpdateService.onTaskTransitions(event(UUID.randomUUID(), null, Task.TaskStatus.PENDING));
+
+        // Act
+        liveUpdateService.flush();
+
+        // Assert
+        assertEquals(0.0, meterRegistry.get("live.updates.subscribers").gauge().value());
+    }
+
+    private TaskTransitionEvent event(UUID taskId, Task.TaskStatus from, Task.TaskStatus to) {
+        return new TaskTransitionEvent(List.of(TaskTransition.builder()
+                .taskId(taskId)
+                .type("EMAIL_SENDING")
+                .from(from)
+                .to(to)
+                .build()));
+    }
+
+    private static class CapturingEmitter extends SseEmitter {
+        private final List<String> names = new ArrayList<>();
+        private final List<Object> data = new ArrayList<>();
+        private boolean fail;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (fail) {
+                throw new IOException("Broken pipe");
+            }
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String text && text.startsWith("event:")) {
+                    names.add(text.substring("event:".length(), text.indexOf('\n')));
+                } else if (!(part.getData() instanceof String)) {
+                    data.add(part.getData());
+                }
+            }
+        }
+    }
+}
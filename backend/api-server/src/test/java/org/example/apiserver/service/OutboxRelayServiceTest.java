@@ -0,0 +1,107 @@
+package org.example.apiserver.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.apiserver.dto.TaskDispatchMessage;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.example.apiserver.model.OutboxMessage;
+import org.example.apiserver.model.Task;
+import org.example.apiserver.repository.OutboxRepository;
+import org.example.apiserver.repository.TaskBatchRepository;
+import org.example.apiserver.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class OutboxRelayServiceTest {
+    private OutboxRepository outboxRepository;
+    private TaskRepository taskRepository;
+    private TaskBatchRepository taskBatchRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private RabbitOperations rabbitOperations;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelayService relayService;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(OutboxRepository.class);
+        taskRepository = mock(TaskRepository.class);
+        taskBatchRepository = mock(TaskBatchRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        rabbitOperations = mock(RabbitOperations.class);
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation -> {
+            RabbitOperations.OperationsCallback<?> callback = invocation.getArgument(0);
+            return callback.doInRabbit(rabbitOperations);
+        });
+        meterRegistry = new SimpleMeterRegistry();
+
+        relayService = new OutboxRelayService(outboxRepository, taskRepository, taskBatchRepository,
+                rabbitTemplate, mock(PlatformTransactionManager.class), eventPublisher, meterRegistry);
+        ReflectionTestUtils.setField(relayService, "exchange", "task.exchange");
+        ReflectionTestUtils.setField(relayService, "batchSize", 100);
+        ReflectionTestUtils.setField(relayService, "maxBatchesPerRun", 5);
+        ReflectionTestUtils.setField(relayService, "confirmTimeoutMs", 1000L);
+    }
+
+    @Test
+    void testRelayPublishesConfirmsAndDeletesBatch() {
+        // Arrange
+        Task task = Task.builder().id(UUID.randomUUID()).type("EMAIL_SENDING")
+                .status(Task.TaskStatus.PENDING).payload("{}").retryCount(2).priority(7).build();
+        LocalDateTime now = LocalDateTime.now();
+        OutboxMessage message = OutboxMessage.builder().id(1L).taskId(task.getId())
+                .routingKey("task.routing.key").createdAt(now).availableAt(now).build();
+        when(outboxRepository.lockNextBatch(any(), eq(100))).thenReturn(List.of(message));
+        when(taskRepository.findAllById(anyIterable())).thenReturn(List.of(task));
+        when(taskBatchRepository.updateStatusReturningIds(anyCollection(), eq(Task.TaskStatus.PENDING),
+                eq(Task.TaskStatus.QUEUED), any())).thenReturn(List.of(task.getId()));
+
+        // Act
+        relayService.relay();
+
+        // Assert
+        verify(rabbitOperations).convertAndSend(eq("task.exchange"), eq("task.routing.key"),
+                eq(new TaskDispatchMessage(task.getId(), "EMAIL_SENDING", 7, 3, "{}", null)),
+                any(MessagePostProcessor.class));
+        verify(rabbitOperations).waitForConfirmsOrDie(1000L);
+        verify(taskBatchRepository).updateStatusReturningIds(eq(List.of(task.getId())),
+                eq(Task.TaskStatus.PENDING), eq(Task.TaskStatus.QUEUED), any());
+        verify(eventPublisher).publishEvent(argThat((TaskTransitionEvent event) ->
+                event.getTransitions().size() == 1
+                        && event.getTransitions().get(0).getFrom() == Task.TaskStatus.PENDING));
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L));
+        assertEquals(1.0, meterRegistry.get("outbox.relay.published").counter().count());
+    }
+
+    @Test
+    void testRelayKeepsRowsWhenConfirmTimesOut() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        OutboxMessage message = OutboxMessage.builder().id(1L).taskId(UUID.randomUUID())
+                .routingKey("task.routing.key").createdAt(now).availableAt(now).build();
+        when(outboxRepository.lockNextBatch(any(), eq(100))).thenReturn(List.of(message));
+        doThrow(new AmqpTimeoutException("no confirm"))
+                .when(rabbitOperations).waitForConfirmsOrDie(anyLong());
+
+        // Act
+        relayService.relay();
+
+        // Assert
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+        assertEquals(1.0, meterRegistry.get("outbox.relay.failures").counter().count());
+    }
+}
@@ -1,4 +1,143 @@
 package org.example.apiserver.service;
 
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
 public class RateLimiterServiceTest {
+    private RedisTemplate<String, String> redisTemplate;
+    private MockEnvironment environment;
+    private RateLimiterService rateLimiterService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        environment = new MockEnvironment();
+        rateLimiterService = new RateLimiterService(redisTemplate, environment);
+        ReflectionTestUtils.setField(rateLimiterService, "requestsPerMinute", 100);
+        ReflectionTestUtils.setField(rateLimiterService, "leaseChunkSize", 5);
+        ReflectionTestUtils.setField(rateLimiterService, "leaseTtlMs", 60_000L);
+    }
+
+    @Test
+    void testCheckUsesOneScriptCallPerRequest() {
+        // Arrange
+        givenScriptReturns(List.of(1L, 42L, 0L));
+
+        // Act
+        RateLimitDecision decision = rateLimiterService.check("client-1");
+
+        // Assert
+        assertTrue(decision.isAllowed());
+        assertEquals(42, decision.getRemaining());
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), eq(List.of("rate_limit:client-1")),
+                eq("60000"), eq("100"), eq("1"), eq("0"), anyString());
+        verifyNoMoreInteractions(redisTemplate);
+    }
+
+    @Test
+    void testDeniedCheckReportsRetryAfter() {
+        // Arrange
+        givenScriptReturns(List.of(0L, 0L, 1500L));
+
+        // Act
+        RateLimitDecision decision = rateLimiterService.check("client-1");
+
+        // Assert
+        assertFalse(decision.isAllowed());
+        assertEquals(1500, decision.getRetryAfterMs());
+    }
+
+    @Test
+    void testLocalLeaseServesChunkFromMemory() {
+        // Arrange
+        ReflectionTestUtils.setField(rateLimiterService, "localLeaseEnabled", true);
+        givenScriptReturns(List.of(5L, 20L, 0L));
+
+        // Act
+        RateLimitDecision first = rateLimiterService.check("client-1");
+        RateLimitDecision last = null;
+        for (int i = 0; i < 4; i++) {
+            last = rateLimiterService.check("client-1");
+        }
+
+        // Assert
+        assertTrue(first.isAllowed());
+        assertEquals(24, first.getRemaining());
+        assertTrue(last.isAllowed());
+        assertEquals(20, last.getRemaining());
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(),
+                any(), any(), eq("5"), any(), any());
+    }
+
+    @Test
+    void testLocalLeaseCachesDenialUntilRetryAfter() {
+        // Arrange
+        ReflectionTestUtils.setField(rateLimiterService, "localLeaseEnabled", true);
+        givenScriptReturns(List.of(0L, 0L, 30_000L));
+
+        // Act
+        RateLimitDecision first = rateLimiterService.check("client-1");
+        RateLimitDecision second = rateLimiterService.check("client-1");
+
+        // Assert
+        assertFalse(first.isAllowed());
+        assertFalse(second.isAllowed());
+        assertTrue(second.getRetryAfterMs() > 0);
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(),
+                any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testClientQuotaOverridesDefaultLimit() {
+        // Arrange
+        environment.setProperty("app.rate-limit.clients.tenant-a.requests-per-minute", "5000");
+        givenScriptReturns(List.of(1L, 10L, 0L));
+
+        // Act
+        rateLimiterService.check("tenant-a");
+        rateLimiterService.check("tenant-b");
+
+        // Assert
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("rate_limit:tenant-a")),
+                any(), eq("5000"), any(), any(), any());
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("rate_limit:tenant-b")),
+                any(), eq("100"), any(), any(), any());
+    }
+
+    @Test
+    void testTaskTypeQuotaTakesAllPermitsOrNone() {
+        // Arrange
+        environment.setProperty("app.rate-limit.types.REPORT_GENERATION.requests-per-minute", "10");
+        ReflectionTestUtils.setField(rateLimiterService, "algorithm", RateLimitAlgorithm.GCRA);
+        givenScriptReturns(List.of(0L, 3L, 12_000L));
+
+        // Act
+        RateLimitDecision report = rateLimiterService.checkTaskType("client-1", "REPORT_GENERATION", 4);
+        RateLimitDecision email = rateLimiterService.checkTaskType("client-1", "EMAIL_SENDING", 4);
+
+        // Assert
+        assertFalse(report.isAllowed());
+        assertEquals(12_000, report.getRetryAfterMs());
+        assertTrue(email.isAllowed());
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class),
+                eq(List.of("rate_limit:gcra:client-1:type:REPORT_GENERATION")),
+                any(), eq("10"), eq("4"), eq("1"), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenScriptReturns(List<Long> result) {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any(), any(), any()))
+                .thenReturn(result);
+    }
 }
@@ -0,0 +1,82 @@
+package org.example.apiserver.service;
+
+import org.example.apiserver.dto.WorkerStatisticsDTO;
+import org.example.apiserver.repository.TaskRepository;
+import org.example.apiserver.repository.WorkerTaskAggregate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class StatisticsServiceTest {
+    private TaskRepository taskRepository;
+    private StatisticsService statisticsService;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        statisticsService = new StatisticsService(taskRepository, mock(WorkerHealthService.class),
+                mock(TaskStatusCounterService.class), mock(TaskTimeseriesService.class));
+    }
+
+    @Test
+    void testWorkerStatisticsComeFromOneAggregateQuery() {
+        // Arrange
+        LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 1, 2, 0, 0);
+        WorkerTaskAggregate aggregate = mock(WorkerTaskAggregate.class);
+        when(aggregate.getCompleted()).thenReturn(75L);
+        when(aggregate.getFailed()).thenReturn(25L);
+        when(aggregate.getMeanMs()).thenReturn(120.0);
+        when(aggregate.getP95Ms()).thenReturn(480.0);
+        when(taskRepository.aggregateFinishedByWorker("worker-1", from, to)).thenReturn(aggregate);
+
+        // Act
+        WorkerStatisticsDTO stats = statisticsService.getWorkerStatistics("worker-1", from, to);
+
+        // Assert
+        assertEquals(100L, stats.getTotalTasks());
+        assertEquals(75L, stats.getCompletedTasks());
+        assertEquals(25L, stats.getFailedTasks());
+        assertEquals(25.0, stats.getFailureRate());
+        assertEquals(120.0, stats.getMeanDurationMs());
+        assertEquals(480.0, stats.getP95DurationMs());
+        verify(taskRepository, never()).findAll();
+    }
+
+    @Test
+    void testWorkerStatisticsDefaultToAllTimeUpToNow() {
+        // Arrange
+        WorkerTaskAggregate aggregate = mock(WorkerTaskAggregate.class);
+        when(aggregate.getCompleted()).thenReturn(0L);
+        when(aggregate.getFailed()).thenReturn(0L);
+        when(taskRepository.aggregateFinishedByWorker(eq("worker-1"), any(), any())).thenReturn(aggregate);
+
+        // Act
+        WorkerStatisticsDTO stats = statisticsService.getWorkerStatistics("worker-1", null, null);
+
+        // Assert
+        ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(taskRepository).aggregateFinishedByWorker(eq("worker-1"), any(), to.capture());
+        assertFalse(to.getValue().isAfter(LocalDateTime.now()));
+        assertEquals(0.0, stats.getFailureRate());
+        assertNull(stats.getFrom());
+    }
+
+    @Test
+    void testWorkerStatisticsRejectEmptyRange() {
+        // Arrange
+        LocalDateTime at = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> statisticsService.getWorkerStatistics("worker-1", at, at));
+        verifyNoInteractions(taskRepository);
+    }
+}
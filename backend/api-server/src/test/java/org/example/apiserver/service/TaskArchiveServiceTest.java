@@ -0,0 +1,128 @@
+package org.example.apiserver.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.apiserver.event.TaskTransition;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.example.apiserver.model.Task;
+import org.example.apiserver.repository.TaskArchiveRepository;
+import org.example.apiserver.repository.TaskPartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskArchiveServiceTest {
+    private static final int BATCH_SIZE = 3;
+
+    private TaskArchiveRepository archiveRepository;
+    private TaskPartitionRepository partitionRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        archiveRepository = mock(TaskArchiveRepository.class);
+        partitionRepository = mock(TaskPartitionRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+    }
+
+    @Test
+    void testArchivesBatchesUntilOneComesBackShort() {
+        // Arrange
+        when(archiveRepository.archiveFinished(any(LocalDateTime.class), eq(BATCH_SIZE)))
+                .thenReturn(tasks(BATCH_SIZE), tasks(BATCH_SIZE), tasks(1));
+
+        // Act
+        int archived = service(true, 100).archive();
+
+        // Assert
+        assertEquals(7, archived);
+        verify(archiveRepository, times(3)).archiveFinished(any(LocalDateTime.class), eq(BATCH_SIZE));
+        verify(transactionManager, times(3)).commit(any());
+        verify(partitionRepository).dropEmptyPartitions(any(LocalDateTime.class));
+    }
+
+    @Test
+    void testArchivedTasksArePublishedAsRemovals() {
+        // Arrange
+        List<Task> batch = tasks(1);
+        when(archiveRepository.archiveFinished(any(LocalDateTime.class), eq(BATCH_SIZE))).thenReturn(batch);
+
+        // Act
+        service(true, 100).archive();
+
+        // Assert
+        ArgumentCaptor<TaskTransitionEvent> event = ArgumentCaptor.forClass(TaskTransitionEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        TaskTransition transition = event.getValue().getTransitions().get(0);
+        assertEquals(batch.get(0).getId(), transition.getTaskId());
+        assertEquals(Task.TaskStatus.COMPLETED, transition.getFrom());
+        assertNull(transition.getTo());
+    }
+
+    @Test
+    void testRunStopsAfterMaxBatches() {
+        // Arrange
+        when(archiveRepository.archiveFinished(any(LocalDateTime.class), eq(BATCH_SIZE)))
+                .thenAnswer(invocation -> tasks(BATCH_SIZE));
+
+        // Act
+        int archived = service(true, 2).archive();
+
+        // Assert
+        assertEquals(2 * BATCH_SIZE, archived);
+        verify(archiveRepository, times(2)).archiveFinished(any(LocalDateTime.class), eq(BATCH_SIZE));
+    }
+
+    @Test
+    void testCutoffIsTheRetentionAge() {
+        // Arrange
+        when(archiveRepository.archiveFinished(any(LocalDateTime.class), eq(BATCH_SIZE)))
+                .thenReturn(Collections.emptyList());
+        LocalDateTime before = LocalDateTime.now().minusDays(30);
+
+        // Act
+        service(true, 100).archive();
+
+        // Assert
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(archiveRepository).archiveFinished(cutoff.capture(), eq(BATCH_SIZE));
+        assertFalse(cutoff.getValue().isBefore(before));
+        assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minusDays(29)));
+        verify(partitionRepository).dropEmptyPartitions(cutoff.getValue());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testDisabledRetentionDoesNothing() {
+        assertEquals(0, service(false, 100).archive());
+        verifyNoInteractions(archiveRepository, partitionRepository);
+    }
+
+    private TaskArchiveService service(boolean enabled, int maxBatches) {
+        return new TaskArchiveService(archiveRepository, partitionRepository, eventPublisher, transactionManager,
+                new SimpleMeterRegistry(), enabled, 30, BATCH_SIZE, maxBatches, 0);
+    }
+
+    private static List<Task> tasks(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> Task.builder()
+                        .id(UUID.randomUUID())
+                        .type("EMAIL_SENDING")
+                        .status(Task.TaskStatus.COMPLETED)
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.apiserver.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.taskblobs.FileSystemBlobStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskBlobServiceTest {
+    private static final String LARGE = "{\"text\":\"" + "lorem ipsum ".repeat(1000) + "\"}";
+
+    @TempDir
+    Path blobDir;
+
+    private TaskBlobService blobService;
+
+    @BeforeEach
+    void setUp() {
+        blobService = new TaskBlobService(new FileSystemBlobStore(blobDir), new SimpleMeterRegistry(), true, 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testLargeValueIsStoredCompressedAndLoadsBack() throws Exception {
+        // Act
+        String ref = blobService.offload(LARGE);
+
+        // Assert
+        assertNotNull(ref);
+        assertEquals(LARGE, blobService.load(ref));
+        assertTrue(totalSize() < LARGE.length() / 10, "stored " + totalSize() + " bytes");
+    }
+
+    @Test
+    void testValuesUpToTheThresholdStayInline() {
+        assertNull(blobService.offload("x".repeat(1024)));
+        assertNull(blobService.offload(null));
+    }
+
+    @Test
+    void testBlobIsRemovedWhenTheTransactionRollsBack() throws Exception {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        blobService.offload(LARGE);
+
+        // Act
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        // Assert
+        assertEquals(0, totalSize());
+    }
+
+    @Test
+    void testDeleteWaitsForCommit() throws Exception {
+        // Arrange
+        String ref = blobService.offload(LARGE);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        blobService.deleteAfterCommit(ref, null);
+        assertEquals(LARGE, blobService.load(ref));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+
+        // Assert
+        assertThrows(IllegalStateException.class, () -> blobService.load(ref));
+    }
+
+    @Test
+    void testReferencesCannotEscapeTheBlobDirectory() {
+        assertThrows(IllegalArgumentException.class, () -> blobService.load("../../etc/passwd"));
+    }
+
+    private long totalSize() throws Exception {
+        try (Stream<Path> files = Files.walk(blobDir)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+}
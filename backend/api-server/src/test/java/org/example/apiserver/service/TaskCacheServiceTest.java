@@ -0,0 +1,170 @@
+package org.example.apiserver.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.apiserver.dto.TaskDTO;
+import org.example.apiserver.event.TaskTransition;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.example.apiserver.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskCacheServiceTest {
+    private RedisTemplate<String, String> redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private SimpleMeterRegistry meterRegistry;
+    private JsonMapper jsonMapper;
+    private TaskCacheService cacheService;
+    private UUID taskId;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        meterRegistry = new SimpleMeterRegistry();
+        jsonMapper = JsonMapper.builder().build();
+        cacheService = cacheService(false);
+        taskId = UUID.randomUUID();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testRepeatedReadsAreServedFromCache() {
+        // Act
+        cacheService.get(taskId, this::load);
+        TaskDTO task = cacheService.get(taskId, this::load);
+
+        // Assert
+        assertEquals(taskId, task.getId());
+        assertEquals(1, loads.get());
+        assertEquals(0.5, meterRegistry.get("task.cache.hit.ratio").gauge().value());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "tasks", "result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testTransitionEvictsLocallyAndNotifiesOtherInstances() {
+        // Arrange
+        cacheService.get(taskId, this::load);
+
+        // Act
+        cacheService.onTaskTransitions(transition(taskId));
+        cacheService.get(taskId, this::load);
+
+        // Assert
+        assertEquals(2, loads.get());
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(TaskCacheService.INVALIDATION_CHANNEL), message.capture());
+        assertTrue(message.getValue().endsWith(":" + taskId));
+
+        // Its own message comes back through the channel and is ignored
+        cacheService.onInvalidation(message.getValue());
+        cacheService.get(taskId, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testInvalidationFromAnotherInstanceEvicts() {
+        // Arrange
+        cacheService.get(taskId, this::load);
+
+        // Act
+        cacheService.onInvalidation(UUID.randomUUID() + ":" + UUID.randomUUID() + "," + taskId);
+        cacheService.get(taskId, this::load);
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testLoadRacingWithTransitionIsNotCached() {
+        // Arrange: the task changes while its old state is being loaded
+        Function<UUID, TaskDTO> racingLoader = id -> {
+            TaskDTO stale = load(id);
+            cacheService.onTaskTransitions(transition(id));
+            return stale;
+        };
+
+        // Act
+        cacheService.get(taskId, racingLoader);
+        cacheService.get(taskId, this::load);
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertNotNull(cacheService.getIfPresent(taskId));
+    }
+
+    @Test
+    void testRedisIsReadBeforeDatabaseAndEvictionLeavesMarker() throws Exception {
+        // Arrange
+        cacheService = cacheService(true);
+        TaskDTO stored = TaskDTO.builder()
+                .id(taskId)
+                .status("COMPLETED")
+                .updatedAt(LocalDateTime.of(2026, 1, 2, 3, 4, 5, 123_456_000))
+                .build();
+        when(valueOperations.get("task-cache:" + taskId)).thenReturn(jsonMapper.writeValueAsString(stored));
+
+        // Act
+        TaskDTO task = cacheService.get(taskId, this::load);
+        cacheService.onTaskTransitions(transition(taskId));
+
+        // Assert
+        assertEquals(stored, task);
+        assertEquals(0, loads.get());
+        verify(valueOperations, never()).setIfAbsent(anyString(), anyString(), any(Duration.class));
+        verify(redisTemplate).executePipelined(any(SessionCallback.class));
+        assertEquals(1.0, meterRegistry.get("task.cache.redis").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void testDatabaseLoadIsWrittenToRedisOnlyIfAbsent() {
+        // Arrange
+        cacheService = cacheService(true);
+
+        // Act
+        cacheService.get(taskId, this::load);
+
+        // Assert
+        assertEquals(1, loads.get());
+        verify(valueOperations).setIfAbsent(eq("task-cache:" + taskId), contains(taskId.toString()),
+                eq(Duration.ofMinutes(5)));
+    }
+
+    private TaskCacheService cacheService(boolean redisEnabled) {
+        return new TaskCacheService(redisTemplate, mock(RedisMessageListenerContainer.class), jsonMapper,
+                meterRegistry, 100, 30_000, redisEnabled, 300_000, 10_000);
+    }
+
+    private TaskDTO load(UUID id) {
+        loads.incrementAndGet();
+        return TaskDTO.builder().id(id).status("PENDING").build();
+    }
+
+    private TaskTransitionEvent transition(UUID id) {
+        return new TaskTransitionEvent(List.of(TaskTransition.builder()
+                .taskId(id)
+                .from(Task.TaskStatus.PENDING)
+                .to(Task.TaskStatus.QUEUED)
+                .build()));
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.apiserver.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.apiserver.event.TaskTransition;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.example.apiserver.model.Task;
+import org.example.apiserver.repository.TaskPartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TaskPartitionServiceTest {
+    private static final LocalDateTime OLDEST_ACTIVE = LocalDateTime.of(2026, 3, 14, 9, 30);
+
+    private TaskPartitionRepository partitionRepository;
+    private TaskPartitionService partitionService;
+
+    @BeforeEach
+    void setUp() {
+        partitionRepository = mock(TaskPartitionRepository.class);
+        partitionService = new TaskPartitionService(partitionRepository, new SimpleMeterRegistry(), 3, 3_600_000);
+    }
+
+    @Test
+    void testOnlyActiveStatusesAreBoundedByTheOldestActiveTask() {
+        // Arrange
+        when(partitionRepository.findOldestActiveCreatedAt()).thenReturn(Optional.of(OLDEST_ACTIVE));
+
+        // Act
+        partitionService.refreshHorizon();
+
+        // Assert
+        assertEquals(OLDEST_ACTIVE.minusHours(1), partitionService.createdAtLowerBound(Task.TaskStatus.PENDING));
+        assertEquals(OLDEST_ACTIVE.minusHours(1), partitionService.createdAtLowerBound(Task.TaskStatus.RETRYING));
+        assertEquals(TaskPartitionService.UNBOUNDED, partitionService.createdAtLowerBound(Task.TaskStatus.COMPLETED));
+    }
+
+    @Test
+    void testHorizonIsUnboundedUntilFirstRefresh() {
+        assertEquals(TaskPartitionService.UNBOUNDED, partitionService.createdAtLowerBound(Task.TaskStatus.QUEUED));
+    }
+
+    @Test
+    void testReactivatedOlderTaskLowersHorizon() {
+        // Arrange
+        when(partitionRepository.findOldestActiveCreatedAt()).thenReturn(Optional.of(OLDEST_ACTIVE));
+        partitionService.refreshHorizon();
+        LocalDateTime older = OLDEST_ACTIVE.minusMonths(2);
+
+        // Act
+        partitionService.onTaskTransitions(reactivated(older));
+
+        // Assert
+        assertEquals(older.minusHours(1), partitionService.createdAtLowerBound(Task.TaskStatus.PROCESSING));
+    }
+
+    @Test
+    void testReactivationDuringRefreshIsNotOverwritten() {
+        // Arrange: the transition commits while the oldest active task is being read
+        LocalDateTime older = OLDEST_ACTIVE.minusMonths(2);
+        when(partitionRepository.findOldestActiveCreatedAt()).thenAnswer(invocation -> {
+            partitionService.onTaskTransitions(reactivated(older));
+            return Optional.of(OLDEST_ACTIVE);
+        });
+
+        // Act
+        partitionService.refreshHorizon();
+
+        // Assert
+        assertEquals(older.minusHours(1), partitionService.createdAtLowerBound(Task.TaskStatus.PROCESSING));
+    }
+
+    @Test
+    void testPartitionsAreCreatedMonthsAhead() {
+        // Act
+        partitionService.createPartitions();
+
+        // Assert
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(partitionRepository).createPartitions(from.capture(), to.capture());
+        assertEquals(from.getValue().plusMonths(3), to.getValue());
+    }
+
+    private TaskTransitionEvent reactivated(LocalDateTime createdAt) {
+        return new TaskTransitionEvent(List.of(TaskTransition.builder()
+                .from(Task.TaskStatus.COMPLETED)
+                .to(Task.TaskStatus.PROCESSING)
+                .createdAt(createdAt)
+                .build()));
+    }
+}
@@ -1,4 +1,553 @@
 package org.example.apiserver.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.example.apiserver.config.TaskRouting;
+import org.example.apiserver.dto.BatchSubmissionResponse;
+import org.example.apiserver.dto.CursorSliceDTO;
+import org.example.apiserver.dto.TaskDTO;
+import org.example.apiserver.dto.TaskFields;
+import org.example.apiserver.dto.TaskStatusUpdate;
+import org.example.apiserver.dto.TaskSubmissionRequest;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.example.apiserver.model.OutboxMessage;
+import org.example.apiserver.model.Task;
+import org.example.apiserver.repository.OutboxRepository;
+import org.example.apiserver.repository.TaskArchiveRepository;
+import org.example.apiserver.repository.TaskBatchRepository;
+import org.example.apiserver.repository.TaskPartitionRepository;
+import org.example.apiserver.repository.TaskRepository;
+import org.example.apiserver.repository.TaskSummary;
+import org.example.apiserver.repository.WorkerHealthRepository;
+import org.example.taskblobs.FileSystemBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
 public class TaskServiceTest {
+    private static final String LARGE_RESULT = "{\"rows\":\"" + "y".repeat(4096) + "\"}";
+
+    private TaskRepository taskRepository;
+    private TaskBatchRepository taskBatchRepository;
+    private OutboxRepository outboxRepository;
+    private WorkerHealthRepository workerHealthRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private TaskPartitionRepository taskPartitionRepository;
+    private TaskPartitionService taskPartitionService;
+    private TaskArchiveRepository taskArchiveRepository;
+    private TaskBlobService taskBlobService;
+    private TaskService taskService;
+
+    @TempDir
+    Path blobDir;
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        taskRepository = mock(TaskRepository.class);
+        taskBatchRepository = mock(TaskBatchRepository.class);
+        outboxRepository = mock(OutboxRepository.class);
+
+        TaskRouting taskRouting = new TaskRouting("task.queue", "task.routing.key",
+                new String[]{"EMAIL_SENDING", "WEB_SCRAPING"});
+
+        workerHealthRepository = mock(WorkerHealthRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        TaskCacheService taskCacheService = new TaskCacheService(mock(RedisTemplate.class),
+                mock(RedisMessageListenerContainer.class), JsonMapper.builder().build(), new SimpleMeterRegistry(),
+                100, 30_000, false, 0, 0);
+        taskPartitionRepository = mock(TaskPartitionRepository.class);
+        taskPartitionService = new TaskPartitionService(taskPartitionRepository, new SimpleMeterRegistry(), 3, 3_600_000);
+        taskArchiveRepository = mock(TaskArchiveRepository.class);
+        taskBlobService = new TaskBlobService(new FileSystemBlobStore(blobDir), new SimpleMeterRegistry(), true, 1024);
+        taskService = new TaskService(taskRepository, workerHealthRepository, taskBatchRepository, outboxRepository,
+                taskRouting, validator, eventPublisher, taskCacheService, taskPartitionService, taskArchiveRepository,
+                taskBlobService);
+        ReflectionTestUtils.setField(taskService, "maxBatchSize", 10);
+        ReflectionTestUtils.setField(taskService, "maxStatusBatchSize", 100);
+    }
+
+    @Test
+    void testSubmitTaskWritesOutboxInsteadOfPublishing() {
+        // Arrange
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> {
+            Task task = invocation.getArgument(0);
+            task.setId(UUID.randomUUID());
+            return task;
+        });
+
+        // Act
+        var dto = taskService.submitTask(
+                new TaskSubmissionRequest("EMAIL_SENDING", "{\"recipient\":\"a@b.c\"}", 5, 3));
+
+        // Assert
+        assertEquals("PENDING", dto.getStatus());
+        ArgumentCaptor<OutboxMessage> outbox = ArgumentCaptor.forClass(OutboxMessage.class);
+        verify(outboxRepository).save(outbox.capture());
+        assertEquals(dto.getId(), outbox.getValue().getTaskId());
+        assertEquals("task.routing.key.EMAIL_SENDING.normal", outbox.getValue().getRoutingKey());
+        assertEquals(outbox.getValue().getCreatedAt(), outbox.getValue().getAvailableAt());
+    }
+
+    @Test
+    void testRetryIsScheduledThroughOutboxWithBackoff() {
+        // Arrange
+        UUID taskId = UUID.randomUUID();
+        Task task = Task.builder().id(taskId).type("EMAIL_SENDING").priority(5)
+                .status(Task.TaskStatus.PROCESSING).retryCount(1).maxRetries(5).build();
+        when(taskRepository.findByIdForUpdate(taskId)).thenReturn(Optional.of(task));
+
+        // Act
+        taskService.markTaskFailed(taskId, "timeout", true);
+
+        // Assert
+        assertEquals(Task.TaskStatus.RETRYING, task.getStatus());
+        ArgumentCaptor<OutboxMessage> outbox = ArgumentCaptor.forClass(OutboxMessage.class);
+        verify(outboxRepository).save(outbox.capture());
+        long delayMs = Duration.between(outbox.getValue().getCreatedAt(),
+                outbox.getValue().getAvailableAt()).toMillis();
+        // Second attempt: 2s base delay plus up to 10% jitter
+        assertTrue(delayMs >= 2000 && delayMs <= 2200, "delay was " + delayMs);
+    }
+
+    @Test
+    void testFinishedTasksIncrementWorkerTotalsInPlace() {
+        // Arrange
+        UUID completed = UUID.randomUUID();
+        UUID failed = UUID.randomUUID();
+        when(taskRepository.findByIdForUpdate(completed)).thenReturn(Optional.of(Task.builder().id(completed)
+                .type("EMAIL_SENDING").status(Task.TaskStatus.PROCESSING).workerId("worker-1").build()));
+        when(taskRepository.findByIdForUpdate(failed)).thenReturn(Optional.of(Task.builder().id(failed)
+                .type("EMAIL_SENDING").status(Task.TaskStatus.PROCESSING).workerId("worker-1")
+                .retryCount(2).maxRetries(3).build()));
+
+        // Act
+        taskService.markTaskCompleted(completed, "{}", null);
+        taskService.markTaskFailed(failed, "timeout", true);
+
+        // Assert
+        verify(workerHealthRepository).addTaskTotals("worker-1", 1L, 0L, 1);
+        verify(workerHealthRepository).addTaskTotals("worker-1", 0L, 1L, 0);
+        verify(workerHealthRepository, never()).findByWorkerId(any());
+        verify(workerHealthRepository, never()).save(any());
+    }
+
+    @Test
+    void testSubmitTaskRejectsUnsupportedType() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.submitTask(
+                new TaskSubmissionRequest("VIDEO_ENCODING", "{}", 5, 3)));
+        verifyNoInteractions(outboxRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSubmitTasksRejectsInvalidItemsAndQueuesTheRest() {
+        // Arrange
+        List<TaskSubmissionRequest> requests = List.of(
+                new TaskSubmissionRequest("EMAIL_SENDING", "{\"recipient\":\"a@b.c\"}", 5, 3),
+                new TaskSubmissionRequest("", "{}", 5, 3),
+                new TaskSubmissionRequest("WEB_SCRAPING", "{not json}", 5, 3),
+                new TaskSubmissionRequest("WEB_SCRAPING", "{\"url\":\"http://x\"}", 9, 1),
+                new TaskSubmissionRequest("VIDEO_ENCODING", "{}", 5, 3));
+
+        // Act
+        BatchSubmissionResponse response = taskService.submitTasks(requests);
+
+        // Assert
+        assertEquals(5, response.getSubmitted());
+        assertEquals(2, response.getAccepted());
+        assertEquals(3, response.getRejected());
+        assertEquals("PENDING", response.getItems().get(0).getStatus());
+        assertEquals("REJECTED", response.getItems().get(1).getStatus());
+        assertEquals("REJECTED", response.getItems().get(2).getStatus());
+        assertEquals("PENDING", response.getItems().get(3).getStatus());
+        assertNotNull(response.getItems().get(3).getTaskId());
+        assertEquals("REJECTED", response.getItems().get(4).getStatus());
+
+        ArgumentCaptor<List<Task>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(taskBatchRepository).insertAll(inserted.capture());
+        assertEquals(2, inserted.getValue().size());
+        assertEquals(Task.TaskStatus.PENDING, inserted.getValue().get(0).getStatus());
+        verify(taskBatchRepository).insertOutbox(eq(inserted.getValue()), any());
+    }
+
+    @Test
+    void testScrollTasksContinuesFromTheCursorOfTheLastTask() {
+        // Arrange
+        TaskSummary first = summary(LocalDateTime.of(2026, 1, 1, 12, 0, 2));
+        TaskSummary second = summary(LocalDateTime.of(2026, 1, 1, 12, 0, 1, 123456000));
+        when(taskRepository.findAllByOrderByCreatedAtDescIdDesc(PageRequest.of(0, 2), TaskSummary.class))
+                .thenReturn(new SliceImpl<>(List.of(first, second), PageRequest.of(0, 2), true));
+        when(taskRepository.findBefore(any(), any(), eq(PageRequest.of(0, 2)), eq(TaskSummary.class)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 2), false));
+
+        // Act
+        CursorSliceDTO<TaskDTO> page = taskService.scrollTasks(null, "", 2, Sort.Direction.DESC, TaskFields.SUMMARY);
+        CursorSliceDTO<TaskDTO> next = taskService.scrollTasks(
+                null, page.getNextCursor(), 2, Sort.Direction.DESC, TaskFields.SUMMARY);
+
+        // Assert
+        assertEquals(2, page.getSize());
+        assertTrue(page.getHasNext());
+        verify(taskRepository).findBefore(second.createdAt(), second.id(), PageRequest.of(0, 2), TaskSummary.class);
+        assertFalse(next.getHasNext());
+        assertNull(next.getNextCursor());
+        verify(taskRepository, never()).count();
+    }
+
+    @Test
+    void testSummaryListingNeverLoadsEntities() {
+        // Arrange
+        PageRequest pageRequest = PageRequest.of(0, 20);
+        when(taskRepository.findBy(pageRequest, TaskSummary.class))
+                .thenReturn(new PageImpl<>(List.of(summary(LocalDateTime.now())), pageRequest, 1));
+
+        // Act
+        Page<TaskDTO> page = taskService.getAllTasks(pageRequest, TaskFields.SUMMARY);
+
+        // Assert
+        assertEquals("PENDING", page.getContent().get(0).getStatus());
+        assertNull(page.getContent().get(0).getPayload());
+        verify(taskRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void testSummaryListingCutsErrorMessagesShort() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.now();
+        TaskSummary failed = new TaskSummary(UUID.randomUUID(), "EMAIL_SENDING", Task.TaskStatus.FAILED, 5, 3, 3,
+                createdAt, createdAt, createdAt, createdAt, "worker-1", "x".repeat(5000));
+
+        // Act
+        TaskDTO dto = taskService.convertToDTO(failed);
+
+        // Assert
+        assertEquals(TaskService.SUMMARY_ERROR_LENGTH, dto.getErrorMessage().length());
+    }
+
+    @Test
+    void testActiveStatusListingsAreBoundedByTheActiveHorizon() {
+        // Arrange
+        LocalDateTime oldestActive = LocalDateTime.of(2026, 3, 14, 9, 30);
+        when(taskPartitionRepository.findOldestActiveCreatedAt()).thenReturn(Optional.of(oldestActive));
+        taskPartitionService.refreshHorizon();
+        PageRequest limit = PageRequest.of(0, 20);
+        when(taskRepository.findByStatusAndCreatedAtGreaterThanEqualOrderByCreatedAtDescIdDesc(
+                any(), any(), eq(limit), eq(TaskSummary.class)))
+                .thenReturn(new SliceImpl<>(List.of(), limit, false));
+
+        // Act
+        taskService.scrollTasks(Task.TaskStatus.QUEUED, null, 20, Sort.Direction.DESC, TaskFields.SUMMARY);
+        taskService.scrollTasks(Task.TaskStatus.COMPLETED, null, 20, Sort.Direction.DESC, TaskFields.SUMMARY);
+
+        // Assert
+        verify(taskRepository).findByStatusAndCreatedAtGreaterThanEqualOrderByCreatedAtDescIdDesc(
+                Task.TaskStatus.QUEUED, oldestActive.minusHours(1), limit, TaskSummary.class);
+        verify(taskRepository).findByStatusAndCreatedAtGreaterThanEqualOrderByCreatedAtDescIdDesc(
+                Task.TaskStatus.COMPLETED, TaskPartitionService.UNBOUNDED, limit, TaskSummary.class);
+    }
+
+    @Test
+    void testLargePayloadIsStoredAsBlobAndResolvedOnDetailFetch() {
+        // Arrange
+        String payload = "{\"body\":\"" + "x".repeat(4096) + "\"}";
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> {
+            Task task = invocation.getArgument(0);
+            task.setId(UUID.randomUUID());
+            return task;
+        });
+
+        // Act
+        TaskDTO submitted = taskService.submitTask(new TaskSubmissionRequest("EMAIL_SENDING", payload, 5, 3));
+        ArgumentCaptor<Task> saved = ArgumentCaptor.forClass(Task.class);
+        verify(taskRepository).save(saved.capture());
+        when(taskRepository.findById(submitted.getId())).thenReturn(Optional.of(saved.getValue()));
+        TaskDTO fetched = taskService.getTask(submitted.getId());
+
+        // Assert
+        assertNull(saved.getValue().getPayload());
+        assertNotNull(saved.getValue().getPayloadRef());
+        assertNull(submitted.getPayload());
+        assertEquals(payload, fetched.getPayload());
+    }
+
+    @Test
+    void testSmallPayloadStaysInline() {
+        // Arrange
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        TaskDTO submitted = taskService.submitTask(new TaskSubmissionRequest("EMAIL_SENDING", "{}", 5, 3));
+
+        // Assert
+        assertEquals("{}", submitted.getPayload());
+        assertNull(submitted.getPayloadRef());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testLargeResultInStatusBatchIsStoredAsBlob() {
+        // Arrange
+        UUID taskId = UUID.randomUUID();
+        String result = "{\"rows\":\"" + "y".repeat(4096) + "\"}";
+        when(taskBatchRepository.lockStates(any())).thenReturn(Map.of(taskId, Task.builder().id(taskId)
+                .type("DATA_ANALYSIS").status(Task.TaskStatus.PROCESSING).build()));
+        when(taskBatchRepository.markCompleted(anyList())).thenReturn(1);
+
+        // Act
+        taskService.applyStatusUpdates(List.of(TaskStatusUpdate.builder()
+                .taskId(taskId).status("COMPLETED").result(result).build()));
+
+        // Assert
+        ArgumentCaptor<List<TaskStatusUpdate>> completed = ArgumentCaptor.forClass(List.class);
+        verify(taskBatchRepository).markCompleted(completed.capture());
+        TaskStatusUpdate update = completed.getValue().get(0);
+        assertNull(update.getResult());
+        assertEquals(result, taskBlobService.load(update.getResultRef()));
+    }
+
+    @Test
+    void testGetTaskFallsBackToTheArchive() {
+        // Arrange
+        UUID taskId = UUID.randomUUID();
+        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+        when(taskArchiveRepository.findById(taskId)).thenReturn(Optional.of(Task.builder()
+                .id(taskId)
+                .type("EMAIL_SENDING")
+                .status(Task.TaskStatus.COMPLETED)
+                .result("{\"sent\":true}")
+                .build()));
+
+        // Act
+        TaskDTO task = taskService.getTask(taskId);
+
+        // Assert
+        assertEquals("COMPLETED", task.getStatus());
+        assertEquals("{\"sent\":true}", task.getResult());
+    }
+
+    @Test
+    void testGetTaskThrowsWhenNeitherTableHasTheTask() {
+        // Arrange
+        UUID taskId = UUID.randomUUID();
+        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+        when(taskArchiveRepository.findById(taskId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> taskService.getTask(taskId));
+    }
+
+    @Test
+    void testScrollTasksRejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.scrollTasks(Task.TaskStatus.PENDING, "not-a-cursor", 20,
+                        Sort.Direction.DESC, TaskFields.SUMMARY));
+    }
+
+    @Test
+    void testSubmitTasksRejectsOversizedBatch() {
+        List<TaskSubmissionRequest> requests = Collections.nCopies(11,
+                new TaskSubmissionRequest("EMAIL_SENDING", "{}", 5, 3));
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.submitTasks(requests));
+        verifyNoInteractions(taskBatchRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testApplyStatusUpdatesBatchesTransitionsAndWorkerTotals() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(taskBatchRepository.markProcessing(anyList())).thenAnswer(i -> ((List<?>) i.getArgument(0)).size());
+        when(taskBatchRepository.markCompleted(anyList())).thenAnswer(i -> ((List<?>) i.getArgument(0)).size());
+        when(taskBatchRepository.lockStates(anyCollection())).thenReturn(new HashMap<>(Map.of(
+                first, Task.builder().id(first).type("EMAIL_SENDING").status(Task.TaskStatus.QUEUED).build(),
+                second, Task.builder().id(second).type("EMAIL_SENDING").status(Task.TaskStatus.PROCESSING).build(),
+                third, Task.builder().id(third).type("EMAIL_SENDING").status(Task.TaskStatus.COMPLETED).build())));
+        List<TaskStatusUpdate> updates = List.of(
+                TaskStatusUpdate.builder().taskId(first).status("PROCESSING").workerId("worker-1").build(),
+                TaskStatusUpdate.builder().taskId(first).status("COMPLETED").workerId("worker-1").result("{}").build(),
+                TaskStatusUpdate.builder().taskId(second).status("COMPLETED").workerId("worker-1").result("{}").build(),
+                TaskStatusUpdate.builder().taskId(third).status("COMPLETED").workerId("worker-2").result("{}").build(),
+                TaskStatusUpdate.builder().taskId(third).status("UNKNOWN").build());
+
+        // Act
+        int applied = taskService.applyStatusUpdates(updates);
+
+        // Assert
+        assertEquals(3, applied);
+        var order = inOrder(taskBatchRepository);
+        ArgumentCaptor<List<TaskStatusUpdate>> processing = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<TaskStatusUpdate>> completed = ArgumentCaptor.forClass(List.class);
+        order.verify(taskBatchRepository).markProcessing(processing.capture());
+        order.verify(taskBatchRepository).markCompleted(completed.capture());
+        assertEquals(1, processing.getValue().size());
+        assertNotNull(processing.getValue().get(0).getTimestamp());
+        assertEquals(List.of(first, second), completed.getValue().stream().map(TaskStatusUpdate::getTaskId).toList());
+        verify(workerHealthRepository).addTaskTotals("worker-1", 2L, 0L, 2);
+        verify(workerHealthRepository, never()).addTaskTotals(eq("worker-2"), anyLong(), anyLong(), anyInt());
+
+        // The already completed third task is neither written, counted nor transitioned again
+        ArgumentCaptor<TaskTransitionEvent> event = ArgumentCaptor.forClass(TaskTransitionEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(List.of(
+                        first + ":QUEUED->PROCESSING",
+                        first + ":PROCESSING->COMPLETED",
+                        second + ":PROCESSING->COMPLETED"),
+                event.getValue().getTransitions().stream()
+                        .map(t -> t.getTaskId() + ":" + t.getFrom() + "->" + t.getTo())
+                        .toList());
+    }
+
+    @Test
+    void testRedeliveredFailureIsANoOp() {
+        // Arrange
+        UUID taskId = UUID.randomUUID();
+        Task task = Task.builder().id(taskId).type("EMAIL_SENDING").status(Task.TaskStatus.PROCESSING)
+                .workerId("worker-1").retryCount(0).maxRetries(3).build();
+        when(taskBatchRepository.lockStates(anyCollection())).thenAnswer(invocation -> new HashMap<>(Map.of(
+                taskId, Task.builder().id(taskId).type(task.getType()).status(task.getStatus()).build())));
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        List<TaskStatusUpdate> batch = List.of(TaskStatusUpdate.builder().taskId(taskId).status("FAILED")
+                .workerId("worker-1").errorMessage("timeout").shouldRetry(true).build());
+
+        // Act
+        int applied = taskService.applyStatusUpdates(batch);
+        int reapplied = taskService.applyStatusUpdates(batch);
+
+        // Assert
+        assertEquals(1, applied);
+        assertEquals(0, reapplied);
+        assertEquals(Task.TaskStatus.RETRYING, task.getStatus());
+        assertEquals(1, task.getRetryCount());
+        verify(outboxRepository, times(1)).save(any());
+        verify(eventPublisher, times(1)).publishEvent(any(TaskTransitionEvent.class));
+    }
+
+    @Test
+    void testFailureAfterCompletionIsANoOp() {
+        // Arrange
+        UUID taskId = UUID.randomUUID();
+        Task task = Task.builder().id(taskId).type("EMAIL_SENDING").status(Task.TaskStatus.COMPLETED)
+                .workerId("worker-1").retryCount(0).maxRetries(3).build();
+        when(taskBatchRepository.lockStates(anyCollection())).thenReturn(new HashMap<>(Map.of(
+                taskId, Task.builder().id(taskId).type(task.getType()).status(task.getStatus()).build())));
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        when(taskRepository.findByIdForUpdate(taskId)).thenReturn(Optional.of(task));
+
+        // Act
+        int applied = taskService.applyStatusUpdates(List.of(TaskStatusUpdate.builder().taskId(taskId)
+                .status("FAILED").workerId("worker-1").errorMessage("late").shouldRetry(true).build()));
+        taskService.markTaskFailed(taskId, "late", false);
+
+        // Assert
+        assertEquals(0, applied);
+        assertEquals(Task.TaskStatus.COMPLETED, task.getStatus());
+        assertEquals(0, task.getRetryCount());
+        assertNull(task.getErrorMessage());
+        verify(outboxRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any(TaskTransitionEvent.class));
+        verify(workerHealthRepository, never()).addTaskTotals(any(), anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void testDuplicateCompletionCallbackIsANoOp() {
+        // Arrange
+        UUID taskId = UUID.randomUUID();
+        LocalDateTime completedAt = LocalDateTime.now().minusMinutes(1);
+        Task task = Task.builder().id(taskId).type("EMAIL_SENDING").status(Task.TaskStatus.COMPLETED)
+                .workerId("worker-1").result("{\"first\":true}").completedAt(completedAt).build();
+        when(taskRepository.findByIdForUpdate(taskId)).thenReturn(Optional.of(task));
+
+        // Act
+        taskService.markTaskCompleted(taskId, "{\"second\":true}", null);
+
+        // Assert
+        assertEquals("{\"first\":true}", task.getResult());
+        assertEquals(completedAt, task.getCompletedAt());
+        verify(taskRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any(TaskTransitionEvent.class));
+        verify(workerHealthRepository, never()).addTaskTotals(any(), anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void testProcessingCallbackAfterCompletionIsIgnored() {
+        // Arrange
+        UUID taskId = UUID.randomUUID();
+        LocalDateTime startedAt = LocalDateTime.now().minusMinutes(2);
+        Task task = Task.builder().id(taskId).type("EMAIL_SENDING").status(Task.TaskStatus.COMPLETED)
+                .workerId("worker-1").startedAt(startedAt).build();
+        when(taskRepository.findByIdForUpdate(taskId)).thenReturn(Optional.of(task));
+
+        // Act
+        taskService.markTaskProcessing(taskId, "worker-2");
+
+        // Assert
+        assertEquals(Task.TaskStatus.COMPLETED, task.getStatus());
+        assertEquals("worker-1", task.getWorkerId());
+        assertEquals(startedAt, task.getStartedAt());
+        verify(taskRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any(TaskTransitionEvent.class));
+    }
+
+    @Test
+    void testResultBlobsOfSkippedAndReplacedCompletionsAreDeleted() {
+        // Arrange
+        UUID finished = UUID.randomUUID();
+        UUID running = UUID.randomUUID();
+        String kept = taskBlobService.offload(LARGE_RESULT);
+        String duplicate = taskBlobService.offload(LARGE_RESULT);
+        String replaced = taskBlobService.offload(LARGE_RESULT);
+        when(taskBatchRepository.lockStates(anyCollection())).thenReturn(new HashMap<>(Map.of(
+                finished, Task.builder().id(finished).type("EMAIL_SENDING").status(Task.TaskStatus.COMPLETED)
+                        .resultRef(kept).build(),
+                running, Task.builder().id(running).type("EMAIL_SENDING").status(Task.TaskStatus.PROCESSING)
+                        .resultRef(replaced).build())));
+        when(taskBatchRepository.markCompleted(anyList())).thenReturn(1);
+
+        // Act
+        taskService.applyStatusUpdates(List.of(
+                TaskStatusUpdate.builder().taskId(finished).status("COMPLETED").resultRef(kept).build(),
+                TaskStatusUpdate.builder().taskId(finished).status("COMPLETED").resultRef(duplicate).build(),
+                TaskStatusUpdate.builder().taskId(running).status("COMPLETED").result(LARGE_RESULT).build()));
+
+        // Assert
+        assertEquals(LARGE_RESULT, taskBlobService.load(kept));
+        assertThrows(IllegalStateException.class, () -> taskBlobService.load(duplicate));
+        assertThrows(IllegalStateException.class, () -> taskBlobService.load(replaced));
+    }
+
+    private TaskSummary summary(LocalDateTime createdAt) {
+        return new TaskSummary(UUID.randomUUID(), "EMAIL_SENDING", Task.TaskStatus.PENDING, 5, 0, 3,
+                createdAt, createdAt, null, null, null, null);
+    }
 }
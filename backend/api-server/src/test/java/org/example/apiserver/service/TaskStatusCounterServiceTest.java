@@ -0,0 +1,85 @@
+package org.example.apiserver.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.apiserver.event.TaskTransition;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.example.apiserver.model.Task;
+import org.example.apiserver.repository.TaskRepository;
+import org.example.apiserver.repository.TaskStatusCounterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TaskStatusCounterServiceTest {
+    private TaskStatusCounterRepository counterRepository;
+    private TaskRepository taskRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private TaskStatusCounterService counterService;
+
+    @BeforeEach
+    void setUp() {
+        counterRepository = mock(TaskStatusCounterRepository.class);
+        taskRepository = mock(TaskRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        counterService = new TaskStatusCounterService(counterRepository, taskRepository,
+                mock(PlatformTransactionManager.class), meterRegistry);
+    }
+
+    @Test
+    void testTransitionsAreNettedIntoOneDeltaPerStatus() {
+        // Arrange
+        TaskTransitionEvent event = new TaskTransitionEvent(List.of(
+                transition(null, Task.TaskStatus.PENDING),
+                transition(Task.TaskStatus.PENDING, Task.TaskStatus.QUEUED),
+                transition(Task.TaskStatus.QUEUED, Task.TaskStatus.PROCESSING),
+                transition(Task.TaskStatus.PROCESSING, Task.TaskStatus.COMPLETED),
+                transition(Task.TaskStatus.FAILED, null)));
+
+        // Act
+        counterService.onTransitions(event);
+
+        // Assert
+        verify(counterRepository).addDeltas(Map.of(
+                "PENDING", 0L, "QUEUED", 0L, "PROCESSING", 0L, "COMPLETED", 1L, "FAILED", -1L));
+    }
+
+    @Test
+    void testReconcileInsertsCorrectionsForDrift() {
+        // Arrange
+        when(counterRepository.tryLockReconciliation()).thenReturn(true);
+        when(taskRepository.getTaskStatistics()).thenReturn(List.of(
+                new Object[]{Task.TaskStatus.COMPLETED, 10L},
+                new Object[]{Task.TaskStatus.PENDING, 2L}));
+        when(counterRepository.sumByStatus()).thenReturn(Map.of("COMPLETED", 10L, "PENDING", 5L, "FAILED", 1L));
+
+        // Act
+        counterService.reconcile();
+
+        // Assert
+        verify(counterRepository).addDeltas(Map.of("PENDING", -3L, "FAILED", -1L));
+        assertEquals(2.0, meterRegistry.get("task.status.counter.corrections").counter().count());
+    }
+
+    @Test
+    void testReconcileSkipsWhenAnotherInstanceHoldsTheLock() {
+        // Arrange
+        when(counterRepository.tryLockReconciliation()).thenReturn(false);
+
+        // Act
+        counterService.reconcile();
+
+        // Assert
+        verify(taskRepository, never()).getTaskStatistics();
+        verify(counterRepository, never()).addDeltas(any());
+    }
+
+    private TaskTransition transition(Task.TaskStatus from, Task.TaskStatus to) {
+        return TaskTransition.builder().type("EMAIL_SENDING").from(from).to(to).build();
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.apiserver.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.apiserver.config.TaskRouting;
+import org.example.apiserver.dto.TaskTimeseriesDTO;
+import org.example.apiserver.event.TaskTransition;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.example.apiserver.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskTimeseriesServiceTest {
+    private SimpleMeterRegistry meterRegistry;
+    private TaskTimeseriesService timeseriesService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        TaskRouting taskRouting = new TaskRouting("task.queue", "task.routing.key",
+                new String[]{"EMAIL_SENDING", "WEB_SCRAPING"});
+        timeseriesService = new TaskTimeseriesService(taskRouting, meterRegistry);
+    }
+
+    @Test
+    void testPercentilesArePublishedAfterRotation() {
+        // Arrange
+        LocalDateTime created = LocalDateTime.now().minusMinutes(1);
+        List<TaskTransition> transitions = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            LocalDateTime started = created.plusNanos(i * 1_000_000L);
+            transitions.add(transition(Task.TaskStatus.PROCESSING, created, started, null));
+            transitions.add(transition(Task.TaskStatus.COMPLETED, created, started, started.plusNanos(i * 10_000_000L)));
+        }
+        timeseriesService.onTransitions(new TaskTransitionEvent(transitions));
+
+        // Act
+        List<TaskTimeseriesDTO> beforeRotation = timeseriesService.getTimeseries("EMAIL_SENDING");
+        timeseriesService.rotate();
+        List<TaskTimeseriesDTO> afterRotation = timeseriesService.getTimeseries("EMAIL_SENDING");
+
+        // Assert
+        assertEquals(0L, beforeRotation.get(0).getQueueWait().getCount());
+        assertEquals(List.of("1m", "5m", "1h"), afterRotation.stream().map(TaskTimeseriesDTO::getWindow).toList());
+        TaskTimeseriesDTO oneMinute = afterRotation.get(0);
+        assertEquals(100L, oneMinute.getQueueWait().getCount());
+        assertEquals(95L, oneMinute.getQueueWait().getP95Ms());
+        assertEquals(100L, oneMinute.getExecution().getCount());
+        assertEquals(950.0, oneMinute.getExecution().getP95Ms(), 10);
+        assertEquals(100.0 / 60, oneMinute.getThroughputPerSecond(), 0.001);
+        assertEquals(95.0, meterRegistry.get("task.queue.wait")
+                .tags("type", "EMAIL_SENDING", "window", "1m", "quantile", "0.95").gauge().value());
+    }
+
+    @Test
+    void testValuesLeaveTheOneMinuteWindowButStayInLongerWindows() {
+        // Arrange
+        LocalDateTime created = LocalDateTime.now();
+        timeseriesService.onTransitions(new TaskTransitionEvent(List.of(
+                transition(Task.TaskStatus.PROCESSING, created, created.plusSeconds(2), null))));
+
+        // Act: one rotation closes the slot, six more push it out of the last minute
+        for (int i = 0; i < 7; i++) {
+            timeseriesService.rotate();
+        }
+        List<TaskTimeseriesDTO> windows = timeseriesService.getTimeseries("EMAIL_SENDING");
+
+        // Assert
+        assertEquals(0L, windows.get(0).getQueueWait().getCount());
+        assertEquals(1L, windows.get(1).getQueueWait().getCount());
+        assertEquals(1L, windows.get(2).getQueueWait().getCount());
+        assertEquals(2000L, windows.get(2).getQueueWait().getMaxMs(), 20);
+    }
+
+    @Test
+    void testUnknownTypeIsRejected() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> timeseriesService.getTimeseries("UNKNOWN"));
+        assertEquals(6, timeseriesService.getTimeseries(null).size());
+    }
+
+    private TaskTransition transition(Task.TaskStatus to, LocalDateTime createdAt,
+                                      LocalDateTime startedAt, LocalDateTime completedAt) {
+        return TaskTransition.builder()
+                .type("EMAIL_SENDING")
+                .to(to)
+                .createdAt(createdAt)
+                .startedAt(startedAt)
+                .completedAt(completedAt)
+                .build();
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.apiserver.service;
+
+import org.example.apiserver.dto.WorkerHealthDTO;
+import org.example.apiserver.event.TaskTransition;
+import org.example.apiserver.event.TaskTransitionEvent;
+import org.example.apiserver.event.WorkerHealthChangedEvent;
+import org.example.apiserver.model.Task;
+import org.example.apiserver.model.WorkerHealth;
+import org.example.apiserver.repository.WorkerHealthRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class WorkerHealthServiceTest {
+    private WorkerHealthRepository workerHealthRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private HashOperations<String, Object, Object> hashOperations;
+    private JsonMapper jsonMapper;
+    private WorkerHealthService workerHealthService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        workerHealthRepository = mock(WorkerHealthRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+        hashOperations = mock(HashOperations.class);
+        when(redisTemplate.opsForHash()).thenReturn((HashOperations) hashOperations);
+        jsonMapper = JsonMapper.builder().build();
+        workerHealthService = new WorkerHealthService(workerHealthRepository, eventPublisher, redisTemplate,
+                jsonMapper, mock(PlatformTransactionManager.class), 60_000);
+
+        when(workerHealthRepository.findByWorkerId("worker-1")).thenReturn(Optional.empty());
+        when(workerHealthRepository.save(any(WorkerHealth.class))).thenAnswer(invocation -> {
+            WorkerHealth worker = invocation.getArgument(0);
+            worker.setRegisteredAt(LocalDateTime.now());
+            return worker;
+        });
+    }
+
+    @Test
+    void testHeartbeatsOnlyWriteDatabaseOnStatusChange() {
+        // Act
+        workerHealthService.updateHeartbeat(heartbeat("ONLINE", 1));
+        workerHealthService.updateHeartbeat(heartbeat("ONLINE", 2));
+        workerHealthService.updateHeartbeat(heartbeat("ONLINE", 3));
+        workerHealthService.updateHeartbeat(heartbeat("BUSY", 4));
+
+        // Assert
+        verify(workerHealthRepository, times(1)).findByWorkerId("worker-1");
+        verify(workerHealthRepository, times(1)).save(any(WorkerHealth.class));
+        verify(workerHealthRepository).updateState(eq("worker-1"), eq(WorkerHealth.WorkerStatus.ONLINE),
+                any(), eq(1), any(), any());
+        verify(workerHealthRepository).updateState(eq("worker-1"), eq(WorkerHealth.WorkerStatus.BUSY),
+                any(), eq(4), any(), any());
+        verify(workerHealthRepository, times(2)).updateState(any(), any(), any(), any(), any(), any());
+        verify(hashOperations, times(4)).put(eq(WorkerHealthService.HEARTBEATS_KEY), eq("worker-1"), anyString());
+
+        List<WorkerHealthDTO> workers = workerHealthService.getAllWorkers();
+        assertEquals(1, workers.size());
+        assertEquals("BUSY", workers.get(0).getStatus());
+        assertEquals(4, workers.get(0).getActiveTasks());
+        verify(workerHealthRepository, never()).findAll();
+    }
+
+    @Test
+    void testWorkerWithoutRecentHeartbeatIsMarkedOffline() {
+        // Arrange
+        workerHealthService.updateHeartbeat(heartbeat("ONLINE", 1));
+        workers().get("worker-1").setLastHeartbeat(LocalDateTime.now().minusMinutes(2));
+        reset(eventPublisher);
+
+        // Act
+        workerHealthService.checkWorkerHealth();
+
+        // Assert
+        assertEquals("OFFLINE", workerHealthService.getWorker("worker-1").getStatus());
+        verify(workerHealthRepository).updateState(eq("worker-1"), eq(WorkerHealth.WorkerStatus.OFFLINE),
+                any(), eq(0), any(), any());
+        ArgumentCaptor<WorkerHealthChangedEvent> event = ArgumentCaptor.forClass(WorkerHealthChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals("OFFLINE", event.getValue().getWorkers().get(0).getStatus());
+        assertEquals(0, workerHealthService.countByStatus(WorkerHealth.WorkerStatus.ONLINE));
+    }
+
+    @Test
+    void testHeartbeatReceivedByAnotherServerKeepsWorkerAlive() throws Exception {
+        // Arrange
+        workerHealthService.updateHeartbeat(heartbeat("ONLINE", 1));
+        WorkerHealthDTO elsewhere = heartbeat("IDLE", 0);
+        elsewhere.setLastHeartbeat(LocalDateTime.now().plusSeconds(30));
+        when(hashOperations.entries(WorkerHealthService.HEARTBEATS_KEY))
+                .thenReturn(Map.of("worker-1", jsonMapper.writeValueAsString(elsewhere)));
+
+        // Act
+        workerHealthService.checkWorkerHealth();
+
+        // Assert
+        WorkerHealthDTO worker = workerHealthService.getWorker("worker-1");
+        assertEquals("IDLE", worker.getStatus());
+        assertEquals(elsewhere.getLastHeartbeat(), worker.getLastHeartbeat());
+        verify(workerHealthRepository, never()).updateState(any(), eq(WorkerHealth.WorkerStatus.OFFLINE),
+                any(), any(), any(), any());
+    }
+
+    @Test
+    void testMergedHeartbeatPublishesTheChange() throws Exception {
+        // Arrange
+        workerHealthService.updateHeartbeat(heartbeat("ONLINE", 1));
+        WorkerHealthDTO elsewhere = heartbeat("BUSY", 3);
+        elsewhere.setLastHeartbeat(LocalDateTime.now().plusSeconds(30));
+        when(hashOperations.entries(WorkerHealthService.HEARTBEATS_KEY))
+                .thenReturn(Map.of("worker-1", jsonMapper.writeValueAsString(elsewhere)));
+        reset(eventPublisher);
+
+        // Act
+        workerHealthService.checkWorkerHealth();
+        workerHealthService.checkWorkerHealth();
+
+        // Assert
+        ArgumentCaptor<WorkerHealthChangedEvent> event = ArgumentCaptor.forClass(WorkerHealthChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertTrue(event.getValue().isShared());
+        assertEquals(3, event.getValue().getWorkers().get(0).getActiveTasks());
+        assertEquals(event.getValue().getWorkers().get(0), workerHealthService.getWorker("worker-1"));
+    }
+
+    @Test
+    void testSnapshotPublishesReloadedTotals() {
+        // Arrange
+        workerHealthService.updateHeartbeat(heartbeat("ONLINE", 1));
+        WorkerHealth stored = WorkerHealth.builder()
+                .workerId("worker-1")
+                .status(WorkerHealth.WorkerStatus.ONLINE)
+                .totalProcessed(7L)
+                .totalFailed(1L)
+                .registeredAt(workerHealthService.getWorker("worker-1").getRegisteredAt())
+                .build();
+        when(workerHealthRepository.findAll()).thenReturn(List.of(stored));
+        reset(eventPublisher);
+
+        // Act
+        workerHealthService.snapshot();
+        workerHealthService.snapshot();
+
+        // Assert
+        ArgumentCaptor<WorkerHealthChangedEvent> event = ArgumentCaptor.forClass(WorkerHealthChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(7L, event.getValue().getWorkers().get(0).getTotalProcessed());
+        assertEquals(7L, workerHealthService.getWorker("worker-1").getTotalProcessed());
+    }
+
+    @Test
+    void testCommittedTransitionsUpdateTotalsInMemory() {
+        // Arrange
+        workerHealthService.updateHeartbeat(heartbeat("ONLINE", 1));
+
+        // Act
+        workerHealthService.onTaskTransitions(new TaskTransitionEvent(List.of(
+                transition(Task.TaskStatus.COMPLETED),
+                transition(Task.TaskStatus.COMPLETED),
+                transition(Task.TaskStatus.FAILED))));
+
+        // Assert
+        WorkerHealthDTO worker = workerHealthService.getWorker("worker-1");
+        assertEquals(2L, worker.getTotalProcessed());
+        assertEquals(1L, worker.getTotalFailed());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, WorkerHealthDTO> workers() {
+        return (Map<String, WorkerHealthDTO>) ReflectionTestUtils.getField(workerHealthService, "workers");
+    }
+
+    private WorkerHealthDTO heartbeat(String status, int activeTasks) {
+        return WorkerHealthDTO.builder()
+                .workerId("worker-1")
+                .status(status)
+                .activeTasks(activeTasks)
+                .cpuUsage(10.0)
+                .memoryUsage(20.0)
+                .build();
+    }
+
+    private TaskTransition transition(Task.TaskStatus to) {
+        return TaskTransition.builder()
+                .workerId("worker-1")
+                .from(Task.TaskStatus.PROCESSING)
+                .to(to)
+                .build();
+    }
+}
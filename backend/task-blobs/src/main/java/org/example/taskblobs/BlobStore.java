@@ -0,0 +1,22 @@
+package org.example.taskblobs;
+
+/**
+ * Stores large task payloads and results outside the database and messages.
+ * Blobs are immutable: each {@link #put} returns a new reference.
+ */
+public interface BlobStore {
+    /**
+     * @return reference to keep in place of the data
+     */
+    String put(byte[] data);
+
+    /**
+     * @throws IllegalStateException when there is no blob for {@code ref}
+     */
+    byte[] get(String ref);
+
+    /**
+     * Removes the blob; does nothing if it does not exist.
+     */
+    void delete(String ref);
+}
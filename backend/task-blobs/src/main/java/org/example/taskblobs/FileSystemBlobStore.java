@@ -0,0 +1,68 @@
+package org.example.taskblobs;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * {@link BlobStore} on a directory shared by the API servers and workers
+ * ({@code app.tasks.blobs.dir}, a volume in docker-compose). Each blob is one
+ * file named after a random UUID, spread over 256 subdirectories.
+ */
+public class FileSystemBlobStore implements BlobStore {
+    private static final Pattern REF = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+
+    private final Path root;
+
+    public FileSystemBlobStore(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public String put(byte[] data) {
+        String ref = UUID.randomUUID().toString();
+        Path target = pathOf(ref);
+        try {
+            Files.createDirectories(target.getParent());
+            // Readers never see a partly written blob
+            Path temp = Files.createTempFile(target.getParent(), ref, ".tmp");
+            Files.write(temp, data);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store blob " + ref, e);
+        }
+        return ref;
+    }
+
+    @Override
+    public byte[] get(String ref) {
+        try {
+            return Files.readAllBytes(pathOf(ref));
+        } catch (NoSuchFileException e) {
+            throw new IllegalStateException("Blob " + ref + " not found");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read blob " + ref, e);
+        }
+    }
+
+    @Override
+    public void delete(String ref) {
+        try {
+            Files.deleteIfExists(pathOf(ref));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete blob " + ref, e);
+        }
+    }
+
+    private Path pathOf(String ref) {
+        if (ref == null || !REF.matcher(ref).matches()) {
+            throw new IllegalArgumentException("Invalid blob reference: " + ref);
+        }
+        return root.resolve(ref.substring(0, 2)).resolve(ref);
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.taskblobs;
+
+/**
+ * A value moved to the blob store by {@link TaskBlobs#offload}.
+ *
+ * @param size           UTF-8 size of the value in bytes
+ * @param compressedSize bytes actually stored
+ */
+public record StoredBlob(String ref, int size, int compressedSize) {
+}
@@ -0,0 +1,75 @@
+package org.example.taskblobs;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Claim check for large payloads and results, used the same way by the API
+ * server and the workers. Values longer than the threshold are gzipped into
+ * the {@link BlobStore} and only their reference travels in rows and messages.
+ */
+public class TaskBlobs {
+    private final BlobStore blobStore;
+    private final boolean enabled;
+    private final int thresholdBytes;
+
+    public TaskBlobs(BlobStore blobStore, boolean enabled, int thresholdBytes) {
+        this.blobStore = blobStore;
+        this.enabled = enabled;
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    /**
+     * Stores {@code value} if it is over the threshold.
+     *
+     * @return the stored blob, or null to keep {@code value} inline
+     */
+    public StoredBlob offload(String value) {
+        // A char takes one to three UTF-8 bytes
+        if (!enabled || value == null || (long) value.length() * 3 <= thresholdBytes) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= thresholdBytes) {
+            return null;
+        }
+        byte[] compressed = compress(bytes);
+        return new StoredBlob(blobStore.put(compressed), bytes.length, compressed.length);
+    }
+
+    /**
+     * @throws IllegalStateException when there is no blob for {@code ref}
+     */
+    public String load(String ref) {
+        return new String(decompress(blobStore.get(ref)), StandardCharsets.UTF_8);
+    }
+
+    public void delete(String ref) {
+        blobStore.delete(ref);
+    }
+
+    private static byte[] compress(byte[] bytes) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4);
+        try (OutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] bytes) {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
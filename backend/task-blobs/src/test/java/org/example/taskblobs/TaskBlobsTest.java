@@ -0,0 +1,69 @@
+package org.example.taskblobs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskBlobsTest {
+    private static final String LARGE = "{\"text\":\"" + "lorem ipsum ".repeat(1000) + "\"}";
+
+    @TempDir
+    Path blobDir;
+
+    private TaskBlobs blobs;
+
+    @BeforeEach
+    void setUp() {
+        blobs = new TaskBlobs(new FileSystemBlobStore(blobDir), true, 1024);
+    }
+
+    @Test
+    void testLargeValueIsStoredCompressedAndLoadsBack() throws Exception {
+        // Act
+        StoredBlob blob = blobs.offload(LARGE);
+
+        // Assert
+        assertNotNull(blob);
+        assertEquals(LARGE.length(), blob.size());
+        assertEquals(totalSize(), blob.compressedSize());
+        assertTrue(blob.compressedSize() < LARGE.length() / 10, "stored " + blob.compressedSize() + " bytes");
+        assertEquals(LARGE, blobs.load(blob.ref()));
+    }
+
+    @Test
+    void testValuesUpToTheThresholdStayInline() {
+        assertNull(blobs.offload("x".repeat(1024)));
+        assertNull(blobs.offload(null));
+        assertNull(new TaskBlobs(new FileSystemBlobStore(blobDir), false, 1024).offload(LARGE));
+    }
+
+    @Test
+    void testDeletedBlobIsGone() {
+        // Arrange
+        String ref = blobs.offload(LARGE).ref();
+
+        // Act
+        blobs.delete(ref);
+        blobs.delete(ref);
+
+        // Assert
+        assertThrows(IllegalStateException.class, () -> blobs.load(ref));
+    }
+
+    @Test
+    void testReferencesCannotEscapeTheBlobDirectory() {
+        assertThrows(IllegalArgumentException.class, () -> blobs.load("../../etc/passwd"));
+    }
+
+    private long totalSize() throws Exception {
+        try (Stream<Path> files = Files.walk(blobDir)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+}
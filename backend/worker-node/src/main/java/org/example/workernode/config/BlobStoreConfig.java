@@ -0,0 +1,22 @@
+package org.example.workernode.config;
+
+import org.example.taskblobs.FileSystemBlobStore;
+import org.example.taskblobs.TaskBlobs;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class BlobStoreConfig {
+
+    // Same directory and threshold as the API server: payloads it offloaded
+    // are read from here, and large results are stored here before reporting
+    @Bean
+    public TaskBlobs taskBlobs(@Value("${app.tasks.blobs.dir:${java.io.tmpdir}/task-blobs}") Path root,
+                               @Value("${app.tasks.blobs.enabled:true}") boolean enabled,
+                               @Value("${app.tasks.blobs.threshold-bytes:65536}") int thresholdBytes) {
+        return new TaskBlobs(new FileSystemBlobStore(root), enabled, thresholdBytes);
+    }
+}
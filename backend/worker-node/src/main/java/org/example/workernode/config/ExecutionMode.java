@@ -0,0 +1,12 @@
+package org.example.workernode.config;
+
+/**
+ * How a worker runs tasks once a listener container has received them
+ * ({@code app.worker.execution-mode}).
+ */
+public enum ExecutionMode {
+    /** Tasks run on the listener container's consumer threads, acked automatically. */
+    CONTAINER,
+    /** Consumer threads hand tasks to virtual threads and ack manually on completion. */
+    VIRTUAL_THREADS
+}
@@ -0,0 +1,16 @@
+package org.example.workernode.config;
+
+/**
+ * Encoding of the status updates this worker publishes over AMQP
+ * ({@code app.rabbitmq.message-format}). Task messages are decoded by their
+ * content type whatever this is set to.
+ */
+public enum MessageFormat {
+    /** {@code application/json}, readable by every API server version. */
+    JSON,
+    /**
+     * {@code application/cbor}, binary JSON (RFC 8949) with dates as numbers.
+     * Only for API servers that can decode it.
+     */
+    CBOR
+}
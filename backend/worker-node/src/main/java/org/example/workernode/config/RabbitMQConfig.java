@@ -1,22 +1,74 @@
 package org.example.workernode.config;
 
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
 import org.springframework.amqp.support.converter.JacksonJsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.amqp.autoconfigure.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
 import org.springframework.messaging.handler.annotation.support.MessageHandlerMethodFactory;
 
 @Configuration
 public class RabbitMQConfig {
 
+    // Messages sitting in a consumer's prefetch buffer can no longer be
+    // overtaken by higher priority ones, so keep the buffer small
+    @Value("${app.worker.prefetch:1}")
+    private int prefetchCount;
+
+    // In virtual thread mode each consumer needs enough unacked deliveries to
+    // keep the virtual threads busy; the dispatcher's semaphore bounds the work
+    @Value("${app.worker.virtual-threads.prefetch:100}")
+    private int virtualThreadPrefetchCount;
+
+    @Value("${app.worker.execution-mode:container}")
+    private ExecutionMode executionMode;
+
+    @Value("${app.rabbitmq.status.exchange:task.status.exchange}")
+    private String statusExchange;
+
+    @Value("${app.rabbitmq.status.queue:task.status.queue}")
+    private String statusQueue;
+
+    @Value("${app.rabbitmq.status.routing-key:task.status}")
+    private String statusRoutingKey;
+
+    @Value("${app.rabbitmq.message-format:json}")
+    private MessageFormat messageFormat;
+
+    // Declared here as well as on the API server so status updates are kept
+    // even if a worker publishes before the API server has ever started
+    @Bean
+    public Declarables statusQueue() {
+        DirectExchange exchange = new DirectExchange(statusExchange);
+        Queue queue = QueueBuilder.durable(statusQueue).build();
+        return new Declarables(exchange, queue,
+                BindingBuilder.bind(queue).to(exchange).with(statusRoutingKey));
+    }
+
+    // Reads task messages as JSON or CBOR by their content type, so the API
+    // server can switch format once every worker runs this version. Status
+    // updates are written in app.rabbitmq.message-format
     @Bean
-    public JacksonJsonMessageConverter messageConverter() {
-        return new JacksonJsonMessageConverter();
+    public MessageConverter messageConverter() {
+        JacksonJsonMessageConverter json = new JacksonJsonMessageConverter();
+        CborMessageConverter cbor = new CborMessageConverter();
+        ContentTypeDelegatingMessageConverter converter =
+                new ContentTypeDelegatingMessageConverter(messageFormat == MessageFormat.CBOR ? cbor : json);
+        converter.addDelegate(MessageProperties.CONTENT_TYPE_JSON, json);
+        converter.addDelegate(CborMessageConverter.CONTENT_TYPE.toString(), cbor);
+        return converter;
     }
 
     @Bean
@@ -26,6 +78,9 @@ public class RabbitMQConfig {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         configurer.configure(factory, connectionFactory);
         factory.setMessageConverter(messageConverter());
+        factory.setPrefetchCount(executionMode == ExecutionMode.VIRTUAL_THREADS
+                ? virtualThreadPrefetchCount
+                : prefetchCount);
         return factory;
     }
 
@@ -0,0 +1,17 @@
+package org.example.workernode.config;
+
+/**
+ * How a worker reports task transitions to the API server
+ * ({@code app.worker.status-updates.transport}).
+ */
+public enum StatusTransport {
+    /** One blocking REST call per transition. */
+    HTTP,
+    /** Transitions are buffered briefly and posted together to {@code /api/tasks/status-batch}. */
+    BATCH,
+    /**
+     * Transitions are published to the status exchange and applied by the API
+     * server from a durable queue, so workers keep running while it restarts.
+     */
+    AMQP
+}
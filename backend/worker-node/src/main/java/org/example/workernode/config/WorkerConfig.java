@@ -1,7 +1,105 @@
 package org.example.workernode.config;
 
+import lombok.RequiredArgsConstructor;
+import org.example.workernode.consumer.PriorityBand;
+import org.example.workernode.consumer.TaskConsumer;
+import org.example.workernode.processor.TaskProcessorFactory;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
+/**
+ * Registers one listener container per task type and priority band, consuming
+ * {@code <task queue>.<type>.<band>}. Each type is sized on its own with
+ * {@code app.worker.types.<TYPE>.concurrency}, so a slow type cannot hold up
+ * a fast one.
+ * <p>
+ * Band consumer counts act as weights on top of that: under a backlog the
+ * high band drains fastest, and every band keeps at least one consumer so low
+ * priority tasks are never starved.
+ * <p>
+ * With {@code app.worker.execution-mode=virtual-threads} the consumers only
+ * receive; tasks run on virtual threads and are acked manually when done.
+ * <p>
+ * Until the next release the old single {@code <task queue>} is consumed as
+ * well, so tasks published there before an upgrade still run. Set
+ * {@code app.worker.legacy-queue.enabled=false} once it is empty.
+ */
 @Configuration
-public class WorkerConfig {
+@RequiredArgsConstructor
+public class WorkerConfig implements RabbitListenerConfigurer {
+    private final TaskConsumer taskConsumer;
+    private final TaskProcessorFactory processorFactory;
+    private final Environment environment;
+
+    @Value("${app.rabbitmq.queue.task}")
+    private String taskQueue;
+
+    @Value("${app.worker.execution-mode:container}")
+    private ExecutionMode executionMode;
+
+    @Value("${app.worker.default-concurrency:1}")
+    private int defaultConcurrency;
+
+    @Value("${app.worker.bands.high.consumers:3}")
+    private int highConsumers;
+
+    @Value("${app.worker.bands.normal.consumers:2}")
+    private int normalConsumers;
+
+    @Value("${app.worker.bands.low.consumers:1}")
+    private int lowConsumers;
+
+    @Value("${app.worker.legacy-queue.enabled:true}")
+    private boolean legacyQueueEnabled;
+
+    @Override
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+        for (String type : processorFactory.getTaskTypes()) {
+            int concurrency = concurrencyFor(type);
+            for (PriorityBand band : PriorityBand.values()) {
+                SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+                endpoint.setId("task-listener-" + type.toLowerCase() + "-" + band.suffix());
+                endpoint.setQueueNames(queueName(type, band));
+                endpoint.setConcurrency(String.valueOf(Math.max(1, concurrency * consumersFor(band))));
+                endpoint.setMessageListener(taskConsumer.listenerFor(type, band, executionMode));
+                if (executionMode == ExecutionMode.VIRTUAL_THREADS) {
+                    endpoint.setAckMode(AcknowledgeMode.MANUAL);
+                }
+                registrar.registerEndpoint(endpoint);
+            }
+        }
+        if (legacyQueueEnabled) {
+            SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId("task-listener-legacy");
+            endpoint.setQueueNames(taskQueue);
+            endpoint.setConcurrency(String.valueOf(Math.max(1, defaultConcurrency)));
+            endpoint.setMessageListener(taskConsumer.legacyListener(executionMode));
+            if (executionMode == ExecutionMode.VIRTUAL_THREADS) {
+                endpoint.setAckMode(AcknowledgeMode.MANUAL);
+            }
+            registrar.registerEndpoint(endpoint);
+        }
+    }
+
+    private String queueName(String type, PriorityBand band) {
+        return taskQueue + "." + type.toLowerCase() + "." + band.suffix();
+    }
+
+    private int concurrencyFor(String type) {
+        return environment.getProperty(
+                "app.worker.types." + type + ".concurrency", Integer.class, defaultConcurrency);
+    }
+
+    private int consumersFor(PriorityBand band) {
+        return switch (band) {
+            case HIGH -> highConsumers;
+            case NORMAL -> normalConsumers;
+            case LOW -> lowConsumers;
+        };
+    }
 }
@@ -0,0 +1,15 @@
+package org.example.workernode.consumer;
+
+/**
+ * Priority bands published by the API server. Each task type has one queue
+ * per band: {@code <task queue>.<type>.high}, {@code .normal} and {@code .low}.
+ */
+public enum PriorityBand {
+    HIGH,
+    NORMAL,
+    LOW;
+
+    public String suffix() {
+        return name().toLowerCase();
+    }
+}
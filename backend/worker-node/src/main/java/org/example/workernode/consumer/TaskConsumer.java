@@ -1,18 +1,27 @@
 package org.example.workernode.consumer;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.taskblobs.TaskBlobs;
+import org.example.workernode.config.ExecutionMode;
 import org.example.workernode.dto.TaskDTO;
 import org.example.workernode.processor.TaskProcessor;
 import org.example.workernode.processor.TaskProcessorFactory;
 import org.example.workernode.service.ApiClientService;
 import org.example.workernode.service.WorkerHealthService;
-import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareMessageListener;
+import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -26,6 +35,10 @@ public class TaskConsumer {
     private final ObjectMapper objectMapper;
     private final ApiClientService apiClientService;
     private final WorkerHealthService workerHealthService;
+    private final MessageConverter messageConverter;
+    private final MeterRegistry meterRegistry;
+    private final VirtualThreadTaskDispatcher virtualThreadDispatcher;
+    private final TaskBlobs taskBlobs;
 
     @Value("${app.worker.id}")
     private String workerId;
@@ -33,11 +46,66 @@ public class TaskConsumer {
     @Value("${api.server.url:http://localhost:8080}")
     private String apiServerUrl;
 
-    @RabbitListener(queues = "${app.rabbitmq.queue.task}")
+    /**
+     * Listener for one task type and priority band queue, registered by
+     * {@code WorkerConfig}. Records how long each message waited in the queue.
+     * In {@link ExecutionMode#VIRTUAL_THREADS} mode the container must use
+     * manual acks; the dispatcher acks once the task has finished.
+     */
+    public MessageListener listenerFor(String type, PriorityBand band, ExecutionMode mode) {
+        return listener(queueWaitTimer(type, band.suffix()), mode);
+    }
+
+    /**
+     * Listener for the single task queue used before tasks were routed by type
+     * and band. It only drains messages left there by older API servers and
+     * goes away in the next release.
+     */
+    public MessageListener legacyListener(ExecutionMode mode) {
+        return listener(queueWaitTimer("any", "legacy"), mode);
+    }
+
+    private Timer queueWaitTimer(String type, String band) {
+        return Timer.builder("task.queue.wait")
+                .description("Time between publish and delivery to this worker")
+                .tag("type", type)
+                .tag("band", band)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private MessageListener listener(Timer queueWait, ExecutionMode mode) {
+        if (mode == ExecutionMode.VIRTUAL_THREADS) {
+            return (ChannelAwareMessageListener) (message, channel) -> {
+                long deliveryTag = message.getMessageProperties().getDeliveryTag();
+                TaskDTO taskData;
+                try {
+                    taskData = receive(message, queueWait);
+                } catch (Exception e) {
+                    log.error("Worker {} could not read message {}", workerId, deliveryTag, e);
+                    channel.basicReject(deliveryTag, false);
+                    return;
+                }
+                virtualThreadDispatcher.dispatch(deliveryTag, channel, () -> consumeTask(taskData));
+            };
+        }
+        return message -> consumeTask(receive(message, queueWait));
+    }
+
+    private TaskDTO receive(Message message, Timer queueWait) {
+        Date publishedAt = message.getMessageProperties().getTimestamp();
+        if (publishedAt != null) {
+            queueWait.record(Duration.ofMillis(
+                    Math.max(0, System.currentTimeMillis() - publishedAt.getTime())));
+        }
+        // The type header names the API server's class, so convert by target type
+        message.getMessageProperties().setInferredArgumentType(TaskDTO.class);
+        return (TaskDTO) messageConverter.fromMessage(message);
+    }
+
     public void consumeTask(TaskDTO taskData) {
         UUID taskId = taskData.getId();
         String taskType = taskData.getType();
-        String payload = taskData.getPayload();
 
         log.info("Worker {} received task {} of type {}", workerId, taskId, taskType);
         workerHealthService.incrementActiveTasks();
@@ -47,22 +115,29 @@ public class TaskConsumer {
             // Notify API server that task is being processed
             apiClientService.notifyTaskProcessing(taskId);
 
+            log.info("Worker {} is processing task {}", workerId, taskId);
+
             // Get appropriate processor for task type
-//            TaskProcessor processor = processorFactory.getProcessor(taskType);
-//
-//            // Process the task
-//            String result = processor.process(payload);
-//
-//            // Notify API server of success
-//            apiClientService.notifyTaskCompleted(taskId, result);
+            TaskProcessor processor = processorFactory.getProcessor(taskType);
 
-            log.info("Worker {} is processing task {}", workerId, taskId);
+            // Large payloads only travel as a reference to the blob store
+            String payload = taskData.getPayloadRef() != null
+                    ? taskBlobs.load(taskData.getPayloadRef())
+                    : taskData.getPayload();
+
+            // Process the task
+            String result = processor.process(payload);
+
+            // Notify API server of success
+            apiClientService.notifyTaskCompleted(taskId, result);
 
         } catch (Exception e) {
             log.error("Worker {} failed to process task {}", workerId, taskId, e);
 
             // Notify API server of failure
             apiClientService.notifyTaskFailed(taskId, e.getMessage(), true);
+        } finally {
+            workerHealthService.decrementActiveTasks();
         }
     }
 }
@@ -0,0 +1,86 @@
+package org.example.workernode.consumer;
+
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs each task on its own virtual thread and acks the message only after the
+ * task has finished. In-flight work is capped by a semaphore rather than by the
+ * number of consumer threads: when all permits are taken the consumer thread
+ * blocks, which stops it taking more deliveries until a task completes.
+ */
+@Component
+@Slf4j
+public class VirtualThreadTaskDispatcher {
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final int maxInFlight;
+
+    public VirtualThreadTaskDispatcher(
+            @Value("${app.worker.virtual-threads.max-in-flight:1000}") int maxInFlight,
+            MeterRegistry meterRegistry) {
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight);
+        Gauge.builder("task.in.flight", this, VirtualThreadTaskDispatcher::inFlight)
+                .description("Tasks currently running on virtual threads")
+                .register(meterRegistry);
+    }
+
+    public void dispatch(long deliveryTag, Channel channel, Runnable task) throws InterruptedException {
+        permits.acquire();
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                    acknowledge(channel, deliveryTag, true);
+                } catch (Exception e) {
+                    log.error("Task for delivery {} failed unexpectedly", deliveryTag, e);
+                    acknowledge(channel, deliveryTag, false);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int inFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    private void acknowledge(Channel channel, long deliveryTag, boolean success) {
+        try {
+            if (success) {
+                channel.basicAck(deliveryTag, false);
+            } else {
+                // Dead-letter instead of redelivering a message that keeps failing
+                channel.basicReject(deliveryTag, false);
+            }
+        } catch (IOException e) {
+            log.error("Failed to acknowledge delivery {}", deliveryTag, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("{} tasks still running at shutdown", inFlight());
+            executor.shutdownNow();
+        }
+    }
+}
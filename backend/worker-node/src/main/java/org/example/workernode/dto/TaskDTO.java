@@ -4,9 +4,12 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * Task message received from the API server. Only what is needed to run the
+ * task; status is reported back by {@code id}.
+ */
 @Data
 @Builder
 @NoArgsConstructor
@@ -14,16 +17,8 @@ import java.util.UUID;
 public class TaskDTO {
     private UUID id;
     private String type;
-    private String status;
-    private String payload;
-    private String result;
-    private Integer retryCount;
-    private Integer maxRetries;
-    private LocalDateTime createdAt;
-    private LocalDateTime updatedAt;
-    private LocalDateTime startedAt;
-    private LocalDateTime completedAt;
-    private String workerId;
-    private String errorMessage;
     private Integer priority;
-}
\ No newline at end of file
+    private Integer attempt; // 1 for the first run
+    private String payload;
+    private String payloadRef; // blob store reference when payload is null
+}
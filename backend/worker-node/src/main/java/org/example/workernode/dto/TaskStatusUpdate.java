@@ -0,0 +1,24 @@
+package org.example.workernode.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatusUpdate {
+    private UUID taskId;
+    private String status; // PROCESSING, COMPLETED or FAILED
+    private String workerId;
+    private String result;
+    private String resultRef; // set instead of result when it is in the blob store
+    private String errorMessage;
+    private Boolean shouldRetry;
+    private LocalDateTime timestamp;
+}
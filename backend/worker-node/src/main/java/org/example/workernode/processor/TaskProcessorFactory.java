@@ -4,6 +4,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -26,4 +27,8 @@ public class TaskProcessorFactory {
         }
         return processor;
     }
+
+    public Set<String> getTaskTypes() {
+        return processors.keySet();
+    }
 }
@@ -2,10 +2,15 @@ package org.example.workernode.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.taskblobs.StoredBlob;
+import org.example.taskblobs.TaskBlobs;
+import org.example.workernode.config.StatusTransport;
+import org.example.workernode.dto.TaskStatusUpdate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -16,6 +21,8 @@ import java.util.UUID;
 public class ApiClientService {
     private final RestTemplate restTemplate;
     private final WorkerHealthService workerHealthService;
+    private final StatusUpdateBatcher statusUpdateBatcher;
+    private final TaskBlobs taskBlobs;
 
     @Value("${api.server.url:http://localhost:8080}")
     private String apiServerUrl;
@@ -23,7 +30,14 @@ public class ApiClientService {
     @Value("${app.worker.id}")
     private String workerId;
 
+    @Value("${app.worker.status-updates.transport:batch}")
+    private StatusTransport statusTransport;
+
     public void notifyTaskProcessing(UUID taskId) {
+        if (statusTransport != StatusTransport.HTTP) {
+            statusUpdateBatcher.submit(statusUpdate(taskId, "PROCESSING").build());
+            return;
+        }
         try {
             Map<String, String> request = new HashMap<>();
             request.put("workerId", workerId);
@@ -41,9 +55,20 @@ public class ApiClientService {
     }
 
     public void notifyTaskCompleted(UUID taskId, String result) {
+        // Large results go to the blob store and only their reference is sent
+        StoredBlob blob = taskBlobs.offload(result);
+        String resultRef = blob != null ? blob.ref() : null;
+        if (resultRef != null) {
+            result = null;
+        }
+        if (statusTransport != StatusTransport.HTTP) {
+            statusUpdateBatcher.submit(statusUpdate(taskId, "COMPLETED").result(result).resultRef(resultRef).build());
+            return;
+        }
         try {
             Map<String, String> request = new HashMap<>();
             request.put("result", result);
+            request.put("resultRef", resultRef);
 
             restTemplate.postForEntity(
                     apiServerUrl + "/api/tasks/" + taskId + "/completed",
@@ -51,8 +76,6 @@ public class ApiClientService {
                     Void.class
             );
 
-            workerHealthService.decrementActiveTasks();
-
             log.debug("Notified API server that task {} completed", taskId);
         } catch (Exception e) {
             log.error("Failed to notify task completion for task {}", taskId, e);
@@ -60,6 +83,13 @@ public class ApiClientService {
     }
 
     public void notifyTaskFailed(UUID taskId, String errorMessage, boolean shouldRetry) {
+        if (statusTransport != StatusTransport.HTTP) {
+            statusUpdateBatcher.submit(statusUpdate(taskId, "FAILED")
+                    .errorMessage(errorMessage)
+                    .shouldRetry(shouldRetry)
+                    .build());
+            return;
+        }
         try {
             Map<String, Object> request = new HashMap<>();
             request.put("errorMessage", errorMessage);
@@ -76,4 +106,12 @@ public class ApiClientService {
             log.error("Failed to notify task failure for task {}", taskId, e);
         }
     }
+
+    private TaskStatusUpdate.TaskStatusUpdateBuilder statusUpdate(UUID taskId, String status) {
+        return TaskStatusUpdate.builder()
+                .taskId(taskId)
+                .status(status)
+                .workerId(workerId)
+                .timestamp(LocalDateTime.now());
+    }
 }
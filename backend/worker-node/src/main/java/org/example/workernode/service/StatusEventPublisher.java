@@ -0,0 +1,47 @@
+package org.example.workernode.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.workernode.dto.TaskStatusUpdate;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Publishes status transitions to the status exchange. The API server consumes
+ * them from a durable queue, so updates published while it is down are applied
+ * once it is back.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatusEventPublisher {
+    private final RabbitTemplate rabbitTemplate;
+
+    @Value("${app.rabbitmq.status.exchange:task.status.exchange}")
+    private String statusExchange;
+
+    @Value("${app.rabbitmq.status.routing-key:task.status}")
+    private String statusRoutingKey;
+
+    @Value("${app.worker.status-updates.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    /**
+     * Publishes the updates on one channel and waits for a single broker confirm
+     * covering all of them. Throws if the broker does not confirm in time, in
+     * which case the caller retries the whole batch.
+     */
+    public void publish(List<TaskStatusUpdate> updates) {
+        rabbitTemplate.invoke(operations -> {
+            for (TaskStatusUpdate update : updates) {
+                operations.convertAndSend(statusExchange, statusRoutingKey, update);
+            }
+            operations.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+        log.debug("Published {} status updates", updates.size());
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.workernode.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.workernode.config.StatusTransport;
+import org.example.workernode.dto.TaskStatusUpdate;
+import org.example.workernode.util.RetryUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers task status transitions and sends them to the API server in batches,
+ * either as one POST or, with the {@code amqp} transport, as one confirmed
+ * publish to the status exchange. A batch is sent once it holds {@code max-batch-size} updates or the first
+ * update in it has waited {@code linger-ms}, whichever comes first. Updates are
+ * sent in the order they were submitted.
+ * <p>
+ * A batch that cannot be sent is retried with exponential backoff, capped at
+ * {@code max-backoff-ms}, until it goes through. Nothing is dropped while the
+ * API server is down; once the buffer is full, {@link #submit} blocks and
+ * holds up task processing instead.
+ */
+@Service
+@Slf4j
+public class StatusUpdateBatcher {
+    private final RestTemplate restTemplate;
+    private final StatusEventPublisher statusEventPublisher;
+    private final StatusTransport transport;
+    private final BlockingQueue<TaskStatusUpdate> queue;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final long maxBackoffMs;
+    private final String apiServerUrl;
+
+    private volatile boolean running;
+    private volatile int unsent;
+    private Thread flusher;
+
+    public StatusUpdateBatcher(
+            RestTemplate restTemplate,
+            StatusEventPublisher statusEventPublisher,
+            @Value("${app.worker.status-updates.transport:batch}") StatusTransport transport,
+            @Value("${app.worker.status-updates.capacity:10000}") int capacity,
+            @Value("${app.worker.status-updates.max-batch-size:200}") int maxBatchSize,
+            @Value("${app.worker.status-updates.linger-ms:20}") long lingerMs,
+            @Value("${app.worker.status-updates.max-backoff-ms:30000}") long maxBackoffMs,
+            @Value("${api.server.url:http://localhost:8080}") String apiServerUrl) {
+        this.restTemplate = restTemplate;
+        this.statusEventPublisher = statusEventPublisher;
+        this.transport = transport;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.maxBackoffMs = maxBackoffMs;
+        this.apiServerUrl = apiServerUrl;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        flusher = Thread.ofPlatform().daemon().name("status-update-flusher").start(this::run);
+    }
+
+    /**
+     * Queues an update, blocking when the buffer is full so a slow API server
+     * pushes back on task processing instead of losing transitions.
+     */
+    public void submit(TaskStatusUpdate update) {
+        try {
+            queue.put(update);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while queueing status {} for task {}", update.getStatus(), update.getTaskId());
+        }
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            try {
+                List<TaskStatusUpdate> batch = nextBatch();
+                if (!batch.isEmpty()) {
+                    send(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private List<TaskStatusUpdate> nextBatch() throws InterruptedException {
+        TaskStatusUpdate first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return List.of();
+        }
+        List<TaskStatusUpdate> batch = new ArrayList<>(maxBatchSize);
+        batch.add(first);
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                break;
+            }
+            TaskStatusUpdate next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void send(List<TaskStatusUpdate> batch) throws InterruptedException {
+        unsent = batch.size();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (transport == StatusTransport.AMQP) {
+                    statusEventPublisher.publish(batch);
+                } else {
+                    restTemplate.postForEntity(apiServerUrl + "/api/tasks/status-batch", batch, Void.class);
+                }
+                log.debug("Sent {} status updates", batch.size());
+                unsent = 0;
+                return;
+            } catch (Exception e) {
+                log.warn("Failed to send {} status updates (attempt {}), {} more queued: {}",
+                        batch.size(), attempt, queue.size(), e.getMessage());
+                // Past 2^15 s the exponent only matters for overflow
+                Thread.sleep(Math.min(maxBackoffMs,
+                        RetryUtil.calculateExponentialBackoffWithJitter(Math.min(attempt, 16))));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+            if (flusher.isAlive()) {
+                log.error("Stopping with {} status updates not sent to the API server", unsent + queue.size());
+            }
+        }
+    }
+}
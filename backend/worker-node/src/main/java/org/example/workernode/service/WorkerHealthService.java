@@ -12,6 +12,7 @@ import java.lang.management.ManagementFactory;
 import java.lang.management.OperatingSystemMXBean;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
@@ -25,7 +26,8 @@ public class WorkerHealthService {
     @Value("${api.server.url:http://localhost:8080}")
     private String apiServerUrl;
 
-    private int activeTasks = 0;
+    // Updated from consumer and virtual threads concurrently
+    private final AtomicInteger activeTasks = new AtomicInteger();
 
     @Scheduled(fixedRate = 15000) // Send heartbeat every 15 seconds
     public void sendHeartbeat() {
@@ -33,7 +35,7 @@ public class WorkerHealthService {
             Map<String, Object> heartbeat = new HashMap<>();
             heartbeat.put("workerId", workerId);
             heartbeat.put("status", getWorkerStatus());
-            heartbeat.put("activeTasks", activeTasks);
+            heartbeat.put("activeTasks", activeTasks.get());
             heartbeat.put("cpuUsage", getCpuUsage());
             heartbeat.put("memoryUsage", getMemoryUsage());
 
@@ -50,7 +52,7 @@ public class WorkerHealthService {
     }
 
     private String getWorkerStatus() {
-        return activeTasks > 0 ? "BUSY" : "IDLE";
+        return activeTasks.get() > 0 ? "BUSY" : "IDLE";
     }
 
     private double getCpuUsage() {
@@ -63,11 +65,11 @@ public class WorkerHealthService {
     }
 
     public void incrementActiveTasks() {
-        activeTasks++;
+        activeTasks.incrementAndGet();
     }
 
     public void decrementActiveTasks() {
-        activeTasks = Math.max(0, activeTasks - 1);
+        activeTasks.updateAndGet(current -> Math.max(0, current - 1));
     }
 }
 
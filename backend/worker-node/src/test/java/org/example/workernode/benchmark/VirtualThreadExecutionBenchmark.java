@@ -0,0 +1,79 @@
+package org.example.workernode.benchmark;
+
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.workernode.consumer.VirtualThreadTaskDispatcher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Throughput of I/O-shaped tasks (a sleep standing in for a remote call) on a
+ * fixed set of consumer threads versus the virtual thread dispatcher. Runs only
+ * with {@code mvn test -Dbenchmark=true -Dtest=VirtualThreadExecutionBenchmark}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadExecutionBenchmark {
+    private static final int TASKS = Integer.getInteger("benchmark.tasks", 20_000);
+    private static final int TASK_MILLIS = Integer.getInteger("benchmark.task-millis", 100);
+    private static final int CONSUMER_THREADS = Integer.getInteger("benchmark.consumers", 10);
+    private static final int MAX_IN_FLIGHT = Integer.getInteger("benchmark.max-in-flight", 2000);
+
+    @Test
+    void containerThreadsVersusVirtualThreads() throws Exception {
+        double containerRate = runOnConsumerThreads();
+        double virtualRate = runOnVirtualThreads();
+
+        System.out.printf("container (%d consumer threads): %.0f tasks/sec%n", CONSUMER_THREADS, containerRate);
+        System.out.printf("virtual threads (max %d in flight): %.0f tasks/sec (%.1fx)%n",
+                MAX_IN_FLIGHT, virtualRate, virtualRate / containerRate);
+    }
+
+    private double runOnConsumerThreads() throws InterruptedException {
+        ExecutorService consumers = Executors.newFixedThreadPool(CONSUMER_THREADS);
+        CountDownLatch done = new CountDownLatch(TASKS);
+        long start = System.nanoTime();
+        for (int i = 0; i < TASKS; i++) {
+            consumers.execute(() -> {
+                simulateIo();
+                done.countDown();
+            });
+        }
+        done.await(10, TimeUnit.MINUTES);
+        double rate = TASKS / ((System.nanoTime() - start) / 1e9);
+        consumers.shutdown();
+        return rate;
+    }
+
+    private double runOnVirtualThreads() throws InterruptedException {
+        VirtualThreadTaskDispatcher dispatcher =
+                new VirtualThreadTaskDispatcher(MAX_IN_FLIGHT, new SimpleMeterRegistry());
+        Channel channel = mock(Channel.class);
+        CountDownLatch done = new CountDownLatch(TASKS);
+        long start = System.nanoTime();
+        for (int i = 0; i < TASKS; i++) {
+            dispatcher.dispatch(i, channel, () -> {
+                simulateIo();
+                done.countDown();
+            });
+        }
+        done.await(10, TimeUnit.MINUTES);
+        double rate = TASKS / ((System.nanoTime() - start) / 1e9);
+        dispatcher.shutdown();
+        return rate;
+    }
+
+    private static void simulateIo() {
+        try {
+            Thread.sleep(TASK_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
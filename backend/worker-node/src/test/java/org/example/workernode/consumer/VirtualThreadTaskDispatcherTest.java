@@ -0,0 +1,95 @@
+package org.example.workernode.consumer;
+
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class VirtualThreadTaskDispatcherTest {
+    private VirtualThreadTaskDispatcher dispatcher;
+    private Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new VirtualThreadTaskDispatcher(4, new SimpleMeterRegistry());
+        channel = mock(Channel.class);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void testAcksOnlyAfterTaskCompletes() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Act
+        dispatcher.dispatch(7L, channel, () -> awaitQuietly(release));
+
+        // Assert
+        verify(channel, after(100).never()).basicAck(anyLong(), anyBoolean());
+        release.countDown();
+        verify(channel, timeout(1000)).basicAck(7L, false);
+    }
+
+    @Test
+    void testRejectsWithoutRequeueWhenTaskThrows() throws Exception {
+        dispatcher.dispatch(3L, channel, () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        verify(channel, timeout(1000)).basicReject(3L, false);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void testInFlightIsCappedByPermits() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Runnable task = () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            awaitQuietly(release);
+            running.decrementAndGet();
+        };
+        for (int i = 0; i < 4; i++) {
+            dispatcher.dispatch(i, channel, task);
+        }
+
+        // Act: the fifth dispatch has to wait for a permit
+        Thread blocked = Thread.ofVirtual().start(() -> {
+            try {
+                dispatcher.dispatch(4L, channel, task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // Assert
+        assertFalse(blocked.join(java.time.Duration.ofMillis(200)));
+        assertEquals(4, dispatcher.inFlight());
+        release.countDown();
+        assertTrue(blocked.join(java.time.Duration.ofSeconds(1)));
+        verify(channel, timeout(1000).times(5)).basicAck(anyLong(), eq(false));
+        assertEquals(4, maxRunning.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
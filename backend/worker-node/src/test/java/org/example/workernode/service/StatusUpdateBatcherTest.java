@@ -0,0 +1,120 @@
+package org.example.workernode.service;
+
+import org.example.workernode.config.StatusTransport;
+import org.example.workernode.dto.TaskStatusUpdate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class StatusUpdateBatcherTest {
+    private RestTemplate restTemplate;
+    private StatusEventPublisher statusEventPublisher;
+    private StatusUpdateBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        restTemplate = mock(RestTemplate.class);
+        statusEventPublisher = mock(StatusEventPublisher.class);
+        batcher = new StatusUpdateBatcher(restTemplate, statusEventPublisher, StatusTransport.BATCH, 100, 10, 200, 1, "http://api");
+        batcher.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        batcher.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUpdatesWithinLingerAreSentTogether() {
+        // Arrange
+        UUID taskId = UUID.randomUUID();
+
+        // Act
+        batcher.submit(update(taskId, "PROCESSING"));
+        batcher.submit(update(taskId, "COMPLETED"));
+        batcher.submit(update(UUID.randomUUID(), "FAILED"));
+
+        // Assert
+        ArgumentCaptor<List<TaskStatusUpdate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(restTemplate, timeout(2000)).postForEntity(
+                eq("http://api/api/tasks/status-batch"), captor.capture(), eq(Void.class));
+        List<TaskStatusUpdate> sent = captor.getValue();
+        assertEquals(3, sent.size());
+        assertEquals("PROCESSING", sent.get(0).getStatus());
+        assertEquals("COMPLETED", sent.get(1).getStatus());
+    }
+
+    @Test
+    void testFullBatchIsSentWithoutWaitingForLinger() throws InterruptedException {
+        // Arrange
+        batcher.stop();
+        batcher = new StatusUpdateBatcher(restTemplate, statusEventPublisher, StatusTransport.BATCH, 100, 2, 60_000, 1, "http://api");
+        batcher.start();
+
+        // Act
+        batcher.submit(update(UUID.randomUUID(), "PROCESSING"));
+        batcher.submit(update(UUID.randomUUID(), "PROCESSING"));
+
+        // Assert
+        verify(restTemplate, timeout(1000)).postForEntity(anyString(), any(), eq(Void.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAmqpTransportPublishesBatchInsteadOfPosting() throws InterruptedException {
+        // Arrange
+        batcher.stop();
+        batcher = new StatusUpdateBatcher(restTemplate, statusEventPublisher, StatusTransport.AMQP, 100, 10, 50, 1, "http://api");
+        batcher.start();
+
+        // Act
+        batcher.submit(update(UUID.randomUUID(), "PROCESSING"));
+        batcher.submit(update(UUID.randomUUID(), "COMPLETED"));
+
+        // Assert
+        ArgumentCaptor<List<TaskStatusUpdate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(statusEventPublisher, timeout(2000)).publish(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBatchIsRetriedUntilTheApiServerIsBack() throws InterruptedException {
+        // Arrange
+        batcher.stop();
+        batcher = new StatusUpdateBatcher(restTemplate, statusEventPublisher, StatusTransport.BATCH, 100, 10, 20, 5, "http://api");
+        when(restTemplate.postForEntity(anyString(), any(), eq(Void.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"))
+                .thenThrow(new ResourceAccessException("Connection refused"))
+                .thenThrow(new ResourceAccessException("Connection refused"))
+                .thenThrow(new ResourceAccessException("Connection refused"))
+                .thenThrow(new ResourceAccessException("Connection refused"))
+                .thenThrow(new ResourceAccessException("Connection refused"))
+                .thenReturn(null);
+        batcher.start();
+
+        // Act
+        batcher.submit(update(UUID.randomUUID(), "COMPLETED"));
+
+        // Assert
+        ArgumentCaptor<List<TaskStatusUpdate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(restTemplate, timeout(5000).times(7)).postForEntity(anyString(), captor.capture(), eq(Void.class));
+        assertEquals("COMPLETED", captor.getValue().get(0).getStatus());
+    }
+
+    private TaskStatusUpdate update(UUID taskId, String status) {
+        return TaskStatusUpdate.builder().taskId(taskId).status(status).workerId("worker-1").build();
+    }
+}
@@ -6,11 +6,13 @@ import AnalyticsPage from './pages/AnalyticsPage';
 import Header from './components/common/Header/Header';
 import Sidebar from './components/common/Sidebar/Sidebar';
 import { View } from './types/common.types';
+import { useLiveUpdates } from './hooks/useLiveUpdates';
 import './App.css';
 
 function App() {
   const [activeView, setActiveView] = useState<View>('dashboard');
   const [sidebarOpen, setSidebarOpen] = useState<boolean>(true);
+  useLiveUpdates();
   const renderView = () => {
     switch (activeView) {
       case 'dashboard':
@@ -1,5 +1,5 @@
 import axios from "axios";
-import { Task, TaskSubmission } from '../types/task.types';
+import { Task, TaskSubmission, TaskSummary } from '../types/task.types';
 import { PageResponse } from '../types/common.types';
 import config from "../config";
 
@@ -34,9 +34,9 @@ export const tasksApi = {
         size: number = 20,
         sortBy: string = 'createdAt',
         direction: 'ASC' | 'DESC' = 'DESC'
-    ): Promise<PageResponse<Task>> => {
-        const response = await apiClient.get<PageResponse<Task>>('/tasks', {
-            params: { page, size, sortBy, direction },
+    ): Promise<PageResponse<TaskSummary>> => {
+        const response = await apiClient.get<PageResponse<TaskSummary>>('/tasks', {
+            params: { page, size, sortBy, direction, fields: 'summary' },
         });
         return response.data;
     },
@@ -45,9 +45,9 @@ export const tasksApi = {
         status: string,
         page: number = 0,
         size: number = 20
-    ): Promise<PageResponse<Task>> => {
-        const response = await apiClient.get<PageResponse<Task>>(`/tasks/status/${status}`, {
-            params: { page, size },
+    ): Promise<PageResponse<TaskSummary>> => {
+        const response = await apiClient.get<PageResponse<TaskSummary>>(`/tasks/status/${status}`, {
+            params: { page, size, fields: 'summary' },
         });
         return response.data;
     },
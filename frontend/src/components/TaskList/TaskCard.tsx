@@ -1,12 +1,12 @@
 import React from 'react';
-import { Task } from '../../types/task.types';
+import { TaskSummary } from '../../types/task.types';
 import { CheckCircle, XCircle, Clock, RefreshCw, Loader } from 'lucide-react';
 import { formatDate, formatDuration, truncateString } from '../../utils/formatters';
 import './TaskCard.css';
 import { TASK_STATUSES } from '../../utils/constants';
 
 interface TaskCardProps {
-  task: Task;
+  task: TaskSummary;
   onViewDetails?: (taskId: string) => void;
 }
 
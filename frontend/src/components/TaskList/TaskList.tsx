@@ -1,5 +1,5 @@
 import React from 'react';
-import { Task } from '../../types/task.types';
+import { TaskSummary } from '../../types/task.types';
 import { useAppContext } from '../../context/AppContext';
 import { formatNumber } from '../../utils/formatters';
 import { FileText } from 'lucide-react';
@@ -10,7 +10,7 @@ import TaskDetails from '../TaskDetails/TaskDetails';
 import Loading from '../common/Loading/Loading';
 
 interface TaskListProps {
-  tasks: Task[];
+  tasks: TaskSummary[];
   totalPages: number;
   currentPage: number;
   onPageChange: (page: number) => void;
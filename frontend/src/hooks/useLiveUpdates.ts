@@ -0,0 +1,121 @@
+import { useEffect } from 'react';
+import { useQueryClient } from '@tanstack/react-query';
+import { PageResponse } from '../types/common.types';
+import { TaskStatus, TaskSummary } from '../types/task.types';
+import { Worker } from '../types/worker.types';
+
+const API_BASE_URL = process.env.REACT_APP_API_URL || 'http://localhost:8080/api';
+
+// Task events can arrive four times a second; listings and statistics are
+// refetched at most this often, changed rows are patched in between
+const LIST_REFRESH_MS = 5000;
+
+interface TaskChange {
+  id: string;
+  type: string;
+  status: string | null;
+  workerId: string | null;
+}
+
+/**
+ * Subscribes to the server's live update stream and refreshes cached queries
+ * as tasks and workers change, instead of polling them every few seconds.
+ * Task status and worker are written straight into cached listings; new and
+ * deleted tasks, filtered listings and statistics catch up on the next
+ * throttled refetch.
+ */
+export const useLiveUpdates = () => {
+  const queryClient = useQueryClient();
+
+  useEffect(() => {
+    const source = new EventSource(`${API_BASE_URL}/events`);
+    let disconnected = false;
+    let refreshTimer: ReturnType<typeof setTimeout> | null = null;
+
+    const scheduleListRefresh = () => {
+      if (refreshTimer) {
+        return;
+      }
+      refreshTimer = setTimeout(() => {
+        refreshTimer = null;
+        queryClient.invalidateQueries({ queryKey: ['tasks'] });
+        queryClient.invalidateQueries({ queryKey: ['statistics'] });
+      }, LIST_REFRESH_MS);
+    };
+
+    source.onopen = () => {
+      // Changes made while disconnected were missed
+      if (disconnected) {
+        queryClient.invalidateQueries();
+        disconnected = false;
+      }
+    };
+
+    source.onerror = () => {
+      disconnected = true;
+    };
+
+    source.addEventListener('tasks', (event) => {
+      const changes: TaskChange[] = JSON.parse((event as MessageEvent).data);
+      const updated = new Map<string, TaskChange>();
+      changes.forEach((change) => {
+        if (change.status) {
+          updated.set(change.id, change);
+        }
+        queryClient.invalidateQueries({ queryKey: ['task', change.id] });
+      });
+      queryClient.setQueriesData<PageResponse<TaskSummary>>({ queryKey: ['tasks'] }, (current) => {
+        if (!current || !current.content.some((task) => updated.has(task.id))) {
+          return current;
+        }
+        return {
+          ...current,
+          content: current.content.map((task) => {
+            const change = updated.get(task.id);
+            return change
+              ? {
+                  ...task,
+                  status: change.status as TaskStatus,
+                  workerId: change.workerId ?? task.workerId,
+                }
+              : task;
+          }),
+        };
+      });
+      scheduleListRefresh();
+    });
+
+    source.addEventListener('workers', (event) => {
+      const workers: Worker[] = JSON.parse((event as MessageEvent).data);
+      queryClient.setQueryData<Worker[]>(['workers'], (current) => {
+        if (!current) {
+          return current;
+        }
+        const updated = [...current];
+        workers.forEach((worker) => {
+          const index = updated.findIndex((w) => w.workerId === worker.workerId);
+          if (index >= 0) {
+            updated[index] = worker;
+          } else {
+            updated.push(worker);
+          }
+        });
+        return updated;
+      });
+      workers.forEach((worker) => {
+        queryClient.setQueryData(['worker', worker.workerId], worker);
+      });
+    });
+
+    source.addEventListener('resync', () => {
+      queryClient.invalidateQueries();
+    });
+
+    return () => {
+      source.close();
+      if (refreshTimer) {
+        clearTimeout(refreshTimer);
+      }
+    };
+  }, [queryClient]);
+};
@@ -6,7 +6,7 @@ export const useTasks = (page: number = 0, size: number = 20) => {
     return useQuery({
         queryKey: ['tasks', page, size],
         queryFn: () => tasksApi.getAllTasks(page, size),
-        refetchInterval: 5000,
+        refetchInterval: 60000,
     });
 };
 
@@ -15,7 +15,7 @@ export const useTask = (taskId: string) => {
         queryKey: ['task', taskId],
         queryFn: () => tasksApi.getTask(taskId),
         enabled: !!taskId,
-        refetchInterval: 3000,
+        refetchInterval: 60000,
     });
 };
 
@@ -23,7 +23,7 @@ export const useTasksByStatus = (status: string, page: number = 0) => {
     return useQuery({
         queryKey: ['tasks', 'status', status, page],
         queryFn: () => tasksApi.getTaskByStatus(status, page),
-        refetchInterval: 5000,
+        refetchInterval: 60000,
     });
 };
 
@@ -11,7 +11,7 @@ export const useWorkers = () => {
       const response = await axios.get<Worker[]>(`${API_BASE_URL}/workers`);
       return response.data;
     },
-    refetchInterval: 5000, // Refresh every 5 seconds
+    refetchInterval: 60000, // Safety net; live updates keep it current
   });
 };
 
@@ -23,6 +23,6 @@ export const useWorker = (workerId: string) => {
       return response.data;
     },
     enabled: !!workerId,
-    refetchInterval: 3000,
+    refetchInterval: 60000,
   });
 };
\ No newline at end of file
@@ -27,4 +27,18 @@ export interface Statistics {
   statusCounts: Record<string, number>;
 }
 
+export interface WorkerStatistics {
+  workerId: string;
+  from: string | null;
+  to: string;
+  totalTasks: number;
+  completedTasks: number;
+  failedTasks: number;
+  failureRate: number;
+  meanDurationMs: number | null;
+  p95DurationMs: number | null;
+  firstCompletedAt: string | null;
+  lastCompletedAt: string | null;
+}
+
 export type View = 'dashboard' | 'tasks' | 'workers' | 'analytics' | 'settings';
\ No newline at end of file
@@ -15,6 +15,10 @@ export interface Task {
   priority: number;
 }
 
+// What list endpoints return with fields=summary; errorMessage is cut short,
+// open a task with getTask for its payload, result and full error message
+export type TaskSummary = Omit<Task, 'payload' | 'result'>;
+
 export enum TaskStatus {
   PENDING = 'PENDING',
   QUEUED = 'QUEUED',